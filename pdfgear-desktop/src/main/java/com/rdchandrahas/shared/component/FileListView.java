@@ -1,7 +1,12 @@
 package com.rdchandrahas.shared.component;
 
+import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.OverflowPolicy;
+import com.rdchandrahas.core.TaskKind;
+import com.rdchandrahas.core.TaskPriority;
 import com.rdchandrahas.shared.model.FileItem;
 import com.rdchandrahas.shared.model.ViewMode;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.ListView;
@@ -13,6 +18,7 @@ import org.controlsfx.control.GridView;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -59,17 +65,28 @@ public class FileListView extends StackPane {
             Dragboard db = event.getDragboard();
             boolean success = false;
             if (db.hasFiles()) {
-                List<FileItem> droppedItems = new ArrayList<>();
+                List<File> droppedFiles = new ArrayList<>();
                 for (File file : db.getFiles()) {
                     String name = file.getName().toLowerCase();
                     if (name.endsWith(".pdf") || name.endsWith(".jpg") || name.endsWith(".png") || name.endsWith(".jpeg") || name.endsWith(".webp")) {
-                        droppedItems.add(new FileItem(file.getAbsolutePath()));
+                        droppedFiles.add(file);
                     }
                 }
                 
-                if (!droppedItems.isEmpty()) {
-                    items.addAll(droppedItems);
-                    success = true;
+                if (!droppedFiles.isEmpty()) {
+                    // The file stats behind each FileItem run on the I/O lane, not the FX thread
+                    try {
+                        ExecutionManager.submit(TaskPriority.INTERACTIVE, TaskKind.IO, OverflowPolicy.REJECT, () -> {
+                            List<FileItem> droppedItems = droppedFiles.stream()
+                                    .map(f -> new FileItem(f.getAbsolutePath()))
+                                    .toList();
+                            Platform.runLater(() -> items.addAll(droppedItems));
+                        });
+                        success = true;
+                    } catch (RejectedExecutionException e) {
+                        // Lane is full; the drop is reported as failed and the user can try again
+                        success = false;
+                    }
                 }
             }
             event.setDropCompleted(success);
@@ -1,9 +1,14 @@
 package com.rdchandrahas.shared.util;
 
 import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.OverflowPolicy;
+import com.rdchandrahas.core.PdfLoader;
+import com.rdchandrahas.core.TaskKind;
+import com.rdchandrahas.core.TaskPriority;
 import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
 
@@ -57,7 +62,7 @@ public class PdfThumbnailUtil {
             }
         }
 
-        try (PDDocument document = PDDocument.load(file)) {
+        try (PDDocument document = PdfLoader.load(file, MemoryUsageSetting.setupMainMemoryOnly())) {
             PDFRenderer renderer = new PDFRenderer(document);
             BufferedImage bufferedImage = renderer.renderImageWithDPI(0, 72);
             return SwingFXUtils.toFXImage(bufferedImage, null);
@@ -71,7 +76,9 @@ public class PdfThumbnailUtil {
      * Prevents processing thumbnails for cells that have already scrolled off-screen.
      */
     public static void loadThumbnailAsync(String filePath, BooleanSupplier isCancelled, Consumer<Image> callback) {
-        ExecutionManager.submit(() -> {
+        // Thumbnails are speculative: when the queue overflows, the oldest requests are
+        // dropped first, since those cells have most likely scrolled out of view already
+        ExecutionManager.submit(TaskPriority.VISIBLE_UI, TaskKind.CPU, OverflowPolicy.DROP_OLDEST, () -> {
             // 1. Abort immediately if the user already scrolled past this cell
             if (isCancelled.getAsBoolean()) return; 
             
@@ -0,0 +1,36 @@
+package com.rdchandrahas.tools;
+
+import com.rdchandrahas.core.Tool;
+
+/**
+ * PipelineTool provides the registration metadata for the multi-step pipeline.
+ * It chains rotation, watermarking, page numbering, metadata and protection
+ * in a single load and save of the document.
+ */
+public class PipelineTool implements Tool {
+
+    @Override
+    public String getName() {
+        return "PDF Pipeline";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Rotate, watermark, number, tag and protect in one pass, with reusable recipes.";
+    }
+
+    @Override
+    public String getFxmlPath() {
+        return "/ui/ToolLayout.fxml";
+    }
+
+    @Override
+    public String getIconCode() {
+        return "fas-stream";
+    }
+
+    @Override
+    public Class<?> getControllerClass() {
+        return com.rdchandrahas.ui.PipelineController.class;
+    }
+}
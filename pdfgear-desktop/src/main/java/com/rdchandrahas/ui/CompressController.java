@@ -0,0 +1,135 @@
+package com.rdchandrahas.ui;
+
+import com.rdchandrahas.core.CompressService;
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.shared.model.FileItem;
+import com.rdchandrahas.ui.base.BaseToolController;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TextField;
+
+import java.io.File;
+
+/**
+ * CompressController manages the logic for reducing PDF file sizes.
+ * The iterative compression engine itself lives in CompressService; this controller
+ * turns the chosen percentage or target size into a byte target for it.
+ */
+public class CompressController extends BaseToolController {
+
+    private static final String MODE_PERCENTAGE = "By Percentage";
+
+    private ComboBox<String> modeComboBox;
+    private TextField valueInput;
+    private ComboBox<String> unitComboBox;
+
+    private final CompressService compressService = new CompressService();
+
+    /**
+     * Configures the compression-specific toolbar UI, including mode selection
+     * (Percentage vs Target Size) and dynamic input prompts.
+     */
+    @Override
+    protected void onInitialize() {
+        setTitle("Compress PDF");
+        setOperationName("compress");
+        setActionText("Compress & Save");
+
+        // --- UI Component Initialization ---
+        modeComboBox = new ComboBox<>();
+        modeComboBox.getItems().addAll(MODE_PERCENTAGE, "By Target Size");
+        modeComboBox.getSelectionModel().selectFirst();
+
+        valueInput = new TextField();
+        valueInput.setPromptText("Enter percentage (e.g., 50)");
+        valueInput.setPrefWidth(180);
+
+        unitComboBox = new ComboBox<>();
+        unitComboBox.getItems().addAll("%");
+        unitComboBox.getSelectionModel().selectFirst();
+
+        // Dynamically change the UI behavior based on the mode selected
+        modeComboBox.setOnAction(e -> {
+            if (modeComboBox.getValue().equals(MODE_PERCENTAGE)) {
+                unitComboBox.getItems().setAll("%");
+                unitComboBox.getSelectionModel().selectFirst();
+                valueInput.setPromptText("Enter percentage (e.g., 50)");
+            } else {
+                unitComboBox.getItems().setAll("KB", "MB");
+                unitComboBox.getSelectionModel().selectLast(); // Default to MB
+                valueInput.setPromptText("Target size (e.g., 5)");
+            }
+        });
+
+        // Add components to the BaseToolController's custom toolbar area
+        addToolbarItem(modeComboBox, valueInput, unitComboBox);
+    }
+
+    @Override
+    protected void handleAddFiles() {
+        addFiles("PDF Files", "*.pdf");
+    }
+
+    /**
+     * Prepares the compression task by calculating the target size and
+     * initiating the iterative processing engine via the save dialog workflow.
+     */
+    @Override
+    protected void handleAction() {
+        String input = valueInput.getText().trim();
+        if (input.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Missing Input", "Please enter a compression value.");
+            return;
+        }
+
+        double inputValue;
+        try {
+            inputValue = Double.parseDouble(input);
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.ERROR, "Invalid Input", "Please enter a valid number.");
+            return;
+        }
+
+        processWithSaveDialog("Save Compressed PDF", "compressed_document.pdf", (destination, context) -> {
+            // Note: Currently processes the first selected file for precision targeting
+            FileItem firstItem = fileListView.getItems().get(0);
+            File sourceFile = new File(firstItem.getPath());
+
+            // --- Target Calculation ---
+            long targetSizeBytes;
+            if (modeComboBox.getValue().equals(MODE_PERCENTAGE)) {
+                targetSizeBytes = CompressService.percentageTarget(sourceFile.length(), inputValue);
+            } else {
+                targetSizeBytes = unitComboBox.getValue().equals("MB")
+                        ? (long) (inputValue * 1024 * 1024)
+                        : (long) (inputValue * 1024);
+            }
+
+            // Launch the iterative engine, in a worker process when isolation is on
+            String workerReport = runInWorker(context, "compress", "--target-size=" + targetSizeBytes,
+                    "--output=" + destination.getAbsolutePath(), "--", sourceFile.getAbsolutePath());
+            boolean compressed = workerReport != null
+                    ? !workerReport.contains("already under target")
+                    : compressService.compress(sourceFile, destination, targetSizeBytes, JobContext.of(context));
+            if (!compressed) {
+                Platform.runLater(() -> showAlert(Alert.AlertType.INFORMATION, "Notice",
+                        "The original file is already smaller than your target size. File copied as-is."));
+            }
+        });
+    }
+
+    @Override
+    protected boolean isInputValid() {
+        if (fileListView.getItems().isEmpty()) {
+            return false;
+        }
+        // Check if ALL files are actually PDFs
+        for (FileItem item : fileListView.getItems()) {
+            if (!item.getPath().toLowerCase().endsWith(".pdf")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -1,16 +1,14 @@
 package com.rdchandrahas.ui;
 
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.PageEditService;
 import com.rdchandrahas.shared.model.FileItem;
-import com.rdchandrahas.shared.util.TempFileManager;
 import com.rdchandrahas.ui.base.BaseToolController;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextField;
-import org.apache.pdfbox.pdmodel.PDDocument;
 
 import java.io.File;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -18,12 +16,14 @@ import java.util.stream.Collectors;
 public class DeletePagesController extends BaseToolController {
 
     private static final Logger LOGGER = Logger.getLogger(DeletePagesController.class.getName());
+    private final PageEditService pageEditService = new PageEditService();
 
     private TextField pageRangeInput;
 
     @Override
     protected void onInitialize() {
         setTitle("Delete Pages");
+        setOperationName("delete-pages");
         setActionText("Delete & Save");
 
         pageRangeInput = new TextField();
@@ -48,7 +48,8 @@ public class DeletePagesController extends BaseToolController {
             return;
         }
 
-        processWithSaveDialog("Save PDF", "pages_deleted.pdf", (destination) -> {
+        processWithSaveDialog("Save PDF", "pages_deleted.pdf", (destination, context) -> {
+            JobContext job = JobContext.of(context);
             List<String> filePaths = fileListView.getItems().stream()
                     .map(item -> ((FileItem) item).getPath())
                     .collect(Collectors.toList());
@@ -57,26 +58,15 @@ public class DeletePagesController extends BaseToolController {
             String sourcePath;
 
             if (filePaths.size() > 1) {
-                tempMerged = TempFileManager.createTempFile("merged_temp_", ".pdf");
-                mergeDocumentsSafe(filePaths, tempMerged);
+                tempMerged = createMergeTempFile("merged_temp_", filePaths, context);
+                mergeDocumentsSafe(filePaths, tempMerged, job);
                 sourcePath = tempMerged.getAbsolutePath();
             } else {
                 sourcePath = filePaths.get(0);
             }
 
-            try (PDDocument sourceDoc = loadDocumentSafe(sourcePath);
-                 PDDocument finalDoc = createDocumentSafe()) {
-                
-                int maxPages = sourceDoc.getNumberOfPages();
-                Set<Integer> pagesToDelete = parsePageRange(rangeText, maxPages);
-
-                for (int i = 1; i <= maxPages; i++) {
-                    if (!pagesToDelete.contains(i)) {
-                        finalDoc.addPage(finalDoc.importPage(sourceDoc.getPage(i - 1)));
-                    }
-                }
-                
-                finalDoc.save(destination);
+            try {
+                pageEditService.deletePages(new File(sourcePath), destination, rangeText, job);
             } finally {
                 if (tempMerged != null && tempMerged.exists()) {
                     boolean deleted = tempMerged.delete();
@@ -89,35 +79,6 @@ public class DeletePagesController extends BaseToolController {
         });
     }
 
-    private Set<Integer> parsePageRange(String rangeText, int maxPages) {
-        Set<Integer> pages = new HashSet<>();
-        String normalizedText = rangeText.replaceAll("\\s+", ",");
-        String[] parts = normalizedText.split(",");
-        
-        for (String part : parts) {
-            part = part.trim();
-            if (part.isEmpty()) continue;
-            
-            try {
-                if (part.contains("-")) {
-                    String[] bounds = part.split("-");
-                    int start = Integer.parseInt(bounds[0].trim());
-                    int end = Integer.parseInt(bounds[1].trim());
-                    for (int i = start; i <= end; i++) {
-                        if (i <= maxPages) pages.add(i);
-                    }
-                } else {
-                    int pageNum = Integer.parseInt(part);
-                    if (pageNum <= maxPages) pages.add(pageNum);
-                }
-            } catch (NumberFormatException ignored) {
-                // Optionally log this at a lower level if debugging is needed
-                LOGGER.log(Level.FINE, "Ignored invalid page number format: {0}", part);
-            }
-        }
-        return pages;
-    }
-
     @Override
     protected boolean isInputValid() {
         if (fileListView.getItems().isEmpty() || pageRangeInput.getText().trim().isEmpty()) {
@@ -0,0 +1,77 @@
+package com.rdchandrahas.ui;
+
+import com.rdchandrahas.core.ExtractionService;
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.shared.model.FileItem;
+import com.rdchandrahas.ui.base.BaseToolController;
+import javafx.scene.control.Alert;
+import javafx.stage.DirectoryChooser;
+
+import java.io.File;
+import java.util.List;
+
+public class ExtractImagesController extends BaseToolController {
+
+    private final ExtractionService extractionService = new ExtractionService();
+
+    @Override
+    protected void onInitialize() {
+        setTitle("Extract Images");
+        setOperationName("extract-images");
+        setActionText("Extract to Folder");
+    }
+
+    @Override
+    protected void handleAddFiles() {
+        addFiles("PDF Files", "*.pdf");
+    }
+
+    @Override
+    protected void handleAction() {
+        if (fileListView.getItems().isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "No Files", "Please add files to extract images from.");
+            return;
+        }
+
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Select Destination Folder");
+        File destDir = chooser.showDialog(actionBtn.getScene().getWindow());
+
+        if (destDir == null) return;
+
+        List<File> sources = fileListView.getItems().stream().map(item -> new File(item.getPath())).toList();
+
+        runTask(context -> {
+            JobContext job = JobContext.of(context);
+            int totalExtracted = 0;
+            for (int i = 0; i < sources.size(); i++) {
+                context.checkCancelled();
+                totalExtracted += extractionService.extractImages(sources.get(i), destDir, job);
+                context.reportProgress(i + 1, sources.size());
+            }
+            return totalExtracted;
+        }, totalExtracted -> {
+            if (totalExtracted > 0) {
+                showAlert(Alert.AlertType.INFORMATION, "Success",
+                        "Extracted " + totalExtracted + " images successfully!");
+            } else {
+                showAlert(Alert.AlertType.INFORMATION, "No Images",
+                        "No images were found inside the provided PDF(s).");
+            }
+        });
+    }
+
+    @Override
+    protected boolean isInputValid() {
+        if (fileListView.getItems().isEmpty()) {
+            return false;
+        }
+        // Check if ALL files are actually PDFs
+        for (FileItem item : fileListView.getItems()) {
+            if (!item.getPath().toLowerCase().endsWith(".pdf")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
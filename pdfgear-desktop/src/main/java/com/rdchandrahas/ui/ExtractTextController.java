@@ -1,22 +1,23 @@
 package com.rdchandrahas.ui;
 
-import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.ExtractionService;
+import com.rdchandrahas.core.JobContext;
 import com.rdchandrahas.shared.model.FileItem;
 import com.rdchandrahas.ui.base.BaseToolController;
-import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.stage.FileChooser;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.util.List;
 
 public class ExtractTextController extends BaseToolController {
 
+    private final ExtractionService extractionService = new ExtractionService();
+
     @Override
     protected void onInitialize() {
         setTitle("Extract Text from PDF");
+        setOperationName("extract-text");
         setActionText("Extract & Save");
     }
 
@@ -42,40 +43,11 @@ public class ExtractTextController extends BaseToolController {
         if (dest == null)
             return;
 
-        setBusy(true, actionBtn);
-
-        ExecutionManager.submit(() -> {
-            try (FileWriter writer = new FileWriter(dest)) {
-
-                PDFTextStripper textStripper = new PDFTextStripper();
-
-                for (Object obj : fileListView.getItems()) {
-                    FileItem item = (FileItem) obj;
-
-                    // Add a header if merging multiple files
-                    if (fileListView.getItems().size() > 1) {
-                        writer.write("\n\n--- Document: " + new File(item.getPath()).getName() + " ---\n\n");
-                    }
-
-                    // Enterprise memory safety: use BaseToolController's safe loader
-                    try (PDDocument doc = loadDocumentSafe(item.getPath())) {
-                        String text = textStripper.getText(doc);
-                        writer.write(text);
-                    }
-                }
-
-                Platform.runLater(() -> {
-                    setBusy(false, actionBtn);
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Text extracted and saved successfully!");
-                });
-
-            } catch (Exception e) {
-                Platform.runLater(() -> {
-                    setBusy(false, actionBtn);
-                    showAlert(Alert.AlertType.ERROR, "Error", "Extraction failed: " + e.getMessage());
-                });
-            }
-        });
+        List<String> paths = fileListView.getItems().stream().map(FileItem::getPath).toList();
+        runTask(context -> {
+            extractionService.extractText(paths, dest, JobContext.of(context));
+            return null;
+        }, result -> showAlert(Alert.AlertType.INFORMATION, "Success", "Text extracted and saved successfully!"));
     }
 
     @Override
@@ -3,6 +3,7 @@ package com.rdchandrahas.ui;
 import com.rdchandrahas.shared.model.FileItem;
 import com.rdchandrahas.ui.base.BaseToolController;
 import com.rdchandrahas.core.ImageToPdfService;
+import com.rdchandrahas.core.JobContext;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 
@@ -15,6 +16,7 @@ public class ImageToPdfController extends BaseToolController {
     @Override
     protected void onInitialize() {
         setTitle("Image to PDF");
+        setOperationName("images-to-pdf");
         setActionText("Convert & Save");
         layout = new ComboBox<>();
         layout.getItems().addAll("Portrait", "Landscape", "Original");
@@ -29,14 +31,14 @@ public class ImageToPdfController extends BaseToolController {
 
     @Override
     protected void handleAction() {
-        processWithSaveDialog("Save PDF", "Images.pdf", (dest) -> {
+        processWithSaveDialog("Save PDF", "Images.pdf", (dest, context) -> {
             List<String> imagePaths = fileListView.getItems().stream()
                     .map(FileItem::getPath)
                     .toList();
             
             ImageToPdfService service = new ImageToPdfService();
             try {
-                service.convertImagesToPdf(imagePaths, dest.getAbsolutePath());
+                service.convertImagesToPdf(imagePaths, dest.getAbsolutePath(), JobContext.of(context));
             } catch (Exception e) {
                 throw new IOException("Failed to convert images to PDF: " + e.getMessage(), e);
             }
@@ -1,31 +1,39 @@
 package com.rdchandrahas.ui;
 
+import com.rdchandrahas.cli.WorkerPool;
 import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.JobJournal;
+import com.rdchandrahas.core.MergeMode;
 import com.rdchandrahas.core.NavigationService;
 import com.rdchandrahas.core.OSService;
 import com.rdchandrahas.core.PdfService;
+import com.rdchandrahas.core.PreflightPolicy;
+import com.rdchandrahas.core.ScratchStorage;
+import com.rdchandrahas.core.TaskKind;
 import com.rdchandrahas.shared.util.TempFileManager;
 import com.rdchandrahas.shared.util.ThumbnailCache;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -107,7 +115,8 @@ public class MainController implements InjectableController {
     public void initService(OSService osService) {
         this.osService = osService;
         if (osService != null) {
-            new Thread(this::scanFonts).start();
+            // Walking the font folders is pure disk work, keep it off the CPU lane
+            ExecutionManager.submit(TaskKind.IO, this::scanFonts);
         }
     }
 
@@ -258,6 +267,162 @@ public class MainController implements InjectableController {
         });
     }
 
+    @FXML
+    private void handleMergeMode() {
+        Map<String, MergeMode> modes = new LinkedHashMap<>();
+        modes.put("Batched (Serial)", MergeMode.BATCHED);
+        modes.put("Tree Reduce (Parallel)", MergeMode.TREE_REDUCE);
+        modes.put("Streaming (Single Pass)", MergeMode.STREAMING);
+
+        String current = modes.entrySet().stream()
+                .filter(e -> e.getValue() == PdfService.getMergeMode())
+                .map(Map.Entry::getKey)
+                .findFirst().orElse("Batched (Serial)");
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(current, new ArrayList<>(modes.keySet()));
+        dialog.setTitle("Merge Mode");
+        dialog.setHeaderText("Choose how large merges are processed.\nTree Reduce merges batches in parallel on all CPU cores.\nStreaming opens each file only while copying it and needs no temp batches.");
+        dialog.setContentText("Mode:");
+
+        dialog.showAndWait().ifPresent(choice -> {
+            PdfService.setMergeMode(modes.get(choice));
+            logDebug("Merge mode set to: " + choice);
+            showAlert(Alert.AlertType.INFORMATION, STATUS_PERFORMANCE, "Merge mode updated to " + choice + ".");
+        });
+    }
+
+    @FXML
+    private void handlePreflightPolicy() {
+        Map<String, PreflightPolicy> policies = new LinkedHashMap<>();
+        policies.put("Off", PreflightPolicy.OFF);
+        policies.put("Skip Bad Files", PreflightPolicy.SKIP);
+        policies.put("Abort on Bad Files", PreflightPolicy.ABORT);
+
+        String current = policies.entrySet().stream()
+                .filter(e -> e.getValue() == PdfService.getPreflightPolicy())
+                .map(Map.Entry::getKey)
+                .findFirst().orElse("Off");
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(current, new ArrayList<>(policies.keySet()));
+        dialog.setTitle("Merge Pre-flight");
+        dialog.setHeaderText("Validate all merge inputs in parallel before merging starts.\nCorrupt, truncated, password protected and empty files are detected up front.");
+        dialog.setContentText("Policy:");
+
+        dialog.showAndWait().ifPresent(choice -> {
+            PdfService.setPreflightPolicy(policies.get(choice));
+            logDebug("Merge pre-flight policy set to: " + choice);
+            showAlert(Alert.AlertType.INFORMATION, STATUS_PERFORMANCE, "Merge pre-flight updated to " + choice + ".");
+        });
+    }
+
+    @FXML
+    private void handleWorkerProcesses() {
+        Map<String, int[]> options = new LinkedHashMap<>();
+        options.put("Off (run in this window)", new int[]{0, 0});
+        options.put("2 workers, 1 GB each", new int[]{2, 1024});
+        options.put("4 workers, 1 GB each", new int[]{4, 1024});
+        options.put("2 workers, 4 GB each", new int[]{2, 4096});
+
+        WorkerPool pool = WorkerPool.getShared();
+        String current = options.entrySet().stream()
+                .filter(e -> pool == null ? e.getValue()[0] == 0 : e.getValue()[0] == pool.getSize() && e.getValue()[1] == pool.getHeapMb())
+                .map(Map.Entry::getKey)
+                .findFirst().orElse("Off (run in this window)");
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(current, new ArrayList<>(options.keySet()));
+        dialog.setTitle("Worker Processes");
+        dialog.setHeaderText("Run merge, compress and PDF to image in separate processes.\nA file that runs out of memory then fails on its own instead of closing the app.");
+        dialog.setContentText("Workers:");
+
+        dialog.showAndWait().ifPresent(choice -> {
+            int[] setting = options.get(choice);
+            WorkerPool.configure(setting[0], setting[1]);
+            logDebug("Worker processes set to: " + choice);
+            showAlert(Alert.AlertType.INFORMATION, STATUS_PERFORMANCE, "Worker processes updated to " + choice + ".");
+        });
+    }
+
+    @FXML
+    private void handleOffHeapScratch() {
+        Map<String, Long> options = new LinkedHashMap<>();
+        options.put("Off (Java heap)", 0L);
+        options.put("1 GB", 1024L * 1024 * 1024);
+        options.put("4 GB", 4L * 1024 * 1024 * 1024);
+        options.put("8 GB", 8L * 1024 * 1024 * 1024);
+
+        String current = options.entrySet().stream()
+                .filter(e -> e.getValue() == ScratchStorage.getOffHeapLimit())
+                .map(Map.Entry::getKey)
+                .findFirst().orElse("Off (Java heap)");
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(current, new ArrayList<>(options.keySet()));
+        dialog.setTitle("Off-heap Storage");
+        dialog.setHeaderText("Keep document data outside the Java heap, shared by all open documents.\nAbove the limit it goes to a memory-mapped temp file.");
+        dialog.setContentText("Limit:");
+
+        dialog.showAndWait().ifPresent(choice -> {
+            ScratchStorage.setOffHeapLimit(options.get(choice));
+            logDebug("Off-heap storage set to: " + choice);
+            showAlert(Alert.AlertType.INFORMATION, STATUS_PERFORMANCE,
+                    "Off-heap storage updated to " + choice + ".\nDocuments opened from now on use the new setting.");
+        });
+    }
+
+    @FXML
+    private void handleTempQuota() {
+        Map<String, Long> options = new LinkedHashMap<>();
+        options.put("Unlimited (free disk space)", 0L);
+        options.put("5 GB", 5L * 1024 * 1024 * 1024);
+        options.put("20 GB", 20L * 1024 * 1024 * 1024);
+        options.put("50 GB", 50L * 1024 * 1024 * 1024);
+
+        String current = options.entrySet().stream()
+                .filter(e -> e.getValue() == TempFileManager.getQuota())
+                .map(Map.Entry::getKey)
+                .findFirst().orElse("Unlimited (free disk space)");
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(current, new ArrayList<>(options.keySet()));
+        dialog.setTitle("Temp Storage Quota");
+        dialog.setHeaderText("Limit the disk space used by intermediate files (merge batches, compression attempts).\nA job that would exceed it fails before it starts writing.");
+        dialog.setContentText("Quota:");
+
+        dialog.showAndWait().ifPresent(choice -> {
+            TempFileManager.setQuota(options.get(choice));
+            logDebug("Temp storage quota set to: " + choice);
+            showAlert(Alert.AlertType.INFORMATION, STATUS_PERFORMANCE, "Temp storage quota updated to " + choice + ".");
+        });
+    }
+
+    @FXML
+    private void handleResourceDeduplication() {
+        boolean enabled = !PdfService.isResourceDeduplicationEnabled();
+        PdfService.setResourceDeduplication(enabled);
+        String status = enabled ? STATUS_ENABLED : STATUS_DISABLED;
+        logDebug("Merge resource de-duplication toggled to: " + status);
+        showAlert(Alert.AlertType.INFORMATION, STATUS_PERFORMANCE,
+                "Merge Resource De-duplication is now " + status + ".\nIdentical fonts, images and color profiles are stored once in merged files.");
+    }
+
+    @FXML
+    private void handleFastPathMerge() {
+        boolean enabled = !PdfService.isFastPathMergeEnabled();
+        PdfService.setFastPathMerge(enabled);
+        String status = enabled ? STATUS_ENABLED : STATUS_DISABLED;
+        logDebug("Fast-path merge toggled to: " + status);
+        showAlert(Alert.AlertType.INFORMATION, STATUS_PERFORMANCE,
+                "Fast-path Merge is now " + status + ".\nFiles without forms, tags or bookmarks are appended page by page without document-level reconciliation.");
+    }
+
+    @FXML
+    private void handleResumeJobs() {
+        boolean enabled = !JobJournal.isEnabled();
+        JobJournal.setEnabled(enabled);
+        String status = enabled ? STATUS_ENABLED : STATUS_DISABLED;
+        logDebug("Resume interrupted jobs toggled to: " + status);
+        showAlert(Alert.AlertType.INFORMATION, STATUS_PERFORMANCE,
+                "Resume Interrupted Jobs is now " + status + ".\nRunning an interrupted merge, split or PDF to image again with the same files continues from its last checkpoint.");
+    }
+
     @FXML
     private void handleCacheSize() {
         TextInputDialog dialog = new TextInputDialog("500");
@@ -292,9 +457,9 @@ public class MainController implements InjectableController {
         }
 
         try {
-            Path tempPath = Paths.get(System.getProperty("java.io.tmpdir"), "pdf-app-temp");
-            TempFileManager.cleanup(tempPath);
-            logDebug("Disk-based temporary files purged from: " + tempPath.toString());
+            // The current session's folder is in use; only folders left behind by crashed runs go
+            int reaped = TempFileManager.reapOrphans();
+            logDebug("Removed " + reaped + " temp folders left behind by earlier runs.");
         } catch (Exception e) {
             logDebug("Error cleaning temp directory: " + e.getMessage());
             LOGGER.log(Level.WARNING, "Error cleaning temp directory", e);
@@ -437,14 +602,43 @@ public class MainController implements InjectableController {
         }
         console.setText(sb.toString());
 
-        VBox layout = new VBox(10, new Label("Live System Logs:"), console);
+        TextArea metricsArea = new TextArea(ExecutionManager.getMetricsReport());
+        metricsArea.setEditable(false);
+        metricsArea.setPrefRowCount(10);
+        metricsArea.setStyle(console.getStyle());
+
+        Button refreshMetricsBtn = new Button("Refresh");
+        refreshMetricsBtn.setOnAction(e -> metricsArea.setText(ExecutionManager.getMetricsReport()));
+        Button dumpMetricsBtn = new Button("Save to File...");
+        dumpMetricsBtn.setOnAction(e -> dumpExecutionMetrics(debugStage));
+        HBox metricsHeader = new HBox(10, new Label("Thread Pool Metrics:"), refreshMetricsBtn, dumpMetricsBtn);
+        metricsHeader.setAlignment(Pos.CENTER_LEFT);
+
+        VBox layout = new VBox(10, new Label("Live System Logs:"), console, metricsHeader, metricsArea);
         layout.setStyle("-fx-padding: 15; -fx-background-color: #252525;");
         VBox.setVgrow(console, Priority.ALWAYS);
 
-        debugStage.setScene(new Scene(layout, 700, 450));
+        debugStage.setScene(new Scene(layout, 800, 650));
         debugStage.show();
     }
 
+    private void dumpExecutionMetrics(Window owner) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save Thread Pool Metrics");
+        chooser.setInitialFileName("pdfgear-metrics.txt");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Text Files", "*.txt"));
+        File file = chooser.showSaveDialog(owner);
+        if (file == null) return;
+
+        try {
+            ExecutionManager.dumpMetrics(file.toPath());
+            logDebug("Thread pool metrics saved to: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write metrics file", e);
+            showAlert(Alert.AlertType.ERROR, STATUS_ERROR, "Could not save metrics: " + e.getMessage());
+        }
+    }
+
     @FXML 
     private void handleVerboseLogging() {
         verboseLogging = !verboseLogging;
@@ -593,6 +787,14 @@ public class MainController implements InjectableController {
                 ExecutionManager.setAsync(true);
                 ExecutionManager.setMultiThreading(true);
                 PdfService.setMemoryLimit(DEFAULT_MEMORY_LIMIT);
+                PdfService.setMergeMode(MergeMode.BATCHED);
+                PdfService.setResourceDeduplication(false);
+                PdfService.setFastPathMerge(false);
+                PdfService.setPreflightPolicy(PreflightPolicy.OFF);
+                WorkerPool.configure(0, 0);
+                JobJournal.setEnabled(true);
+                ScratchStorage.setOffHeapLimit(0);
+                TempFileManager.setQuota(0);
                 ThumbnailCache.setMaxSizeBytes(DEFAULT_CACHE_SIZE);
 
                 verboseLogging = false;
@@ -8,6 +8,7 @@ public class MergeController extends BaseToolController {
     @Override
     protected void onInitialize() {
         setTitle("Merge PDFs");
+        setOperationName("merge");
         setActionText("Merge & Save");
     }
 
@@ -18,9 +19,9 @@ public class MergeController extends BaseToolController {
 
     @Override
     protected void handleAction() {
-        processWithSaveDialog("Save Merged PDF", "Merged.pdf", (dest) -> {
+        processWithSaveDialog("Save Merged PDF", "Merged.pdf", (dest, context) -> {
             List<String> paths = fileListView.getItems().stream().map(FileItem::getPath).toList();
-            mergeDocumentsSafe(paths, dest);
+            mergeDocumentsSafe(paths, dest, context);
         });
     }
 
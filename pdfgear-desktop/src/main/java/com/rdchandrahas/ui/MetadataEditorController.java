@@ -1,6 +1,7 @@
 package com.rdchandrahas.ui;
 
 import com.rdchandrahas.ui.base.BaseToolController;
+import com.rdchandrahas.core.JobContext;
 import com.rdchandrahas.core.MetadataEditorService;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
@@ -16,6 +17,7 @@ public class MetadataEditorController extends BaseToolController {
     @Override
     protected void onInitialize() {
         setTitle("Edit PDF Metadata");
+        setOperationName("metadata");
         setActionText("Update & Save");
         
         titleInput = new TextField();
@@ -43,7 +45,7 @@ public class MetadataEditorController extends BaseToolController {
 
     @Override
     protected void handleAction() {
-        processWithSaveDialog("Save Updated PDF", "Updated_Metadata.pdf", (dest) -> {
+        processWithSaveDialog("Save Updated PDF", "Updated_Metadata.pdf", (dest, context) -> {
             if (fileListView.getItems().isEmpty()) return;
             String sourcePath = fileListView.getItems().get(0).getPath();
             
@@ -54,7 +56,7 @@ public class MetadataEditorController extends BaseToolController {
             if (!keywordsInput.getText().trim().isEmpty()) metadata.put("Keywords", keywordsInput.getText().trim());
             
             MetadataEditorService service = new MetadataEditorService();
-            service.updateMetadata(sourcePath, dest.getAbsolutePath(), metadata);
+            service.updateMetadata(sourcePath, dest.getAbsolutePath(), metadata, JobContext.of(context));
         });
     }
 
@@ -0,0 +1,149 @@
+package com.rdchandrahas.ui;
+
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.PageNumberConfig;
+import com.rdchandrahas.core.PageNumberService;
+import com.rdchandrahas.shared.model.FileItem;
+import com.rdchandrahas.ui.base.BaseToolController;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.io.File;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+public class PageNumberController extends BaseToolController {
+
+    private static final Logger LOGGER = Logger.getLogger(PageNumberController.class.getName());
+    
+    // SonarQube Fixes: Extracted magic strings
+    private static final String FONT_STANDARD = "Standard (Helvetica)";
+
+    private ComboBox<String> positionCombo;
+    private ComboBox<String> styleCombo;
+    private ComboBox<String> langCombo;
+    private ComboBox<String> fontCombo;
+    private ComboBox<String> sizeCombo;
+    private ColorPicker colorPicker;
+
+    private final PageNumberService pageNumberService = new PageNumberService();
+
+    @Override
+    protected void onInitialize() {
+        setTitle("Add Page Numbers");
+        setOperationName("page-numbers");
+        setActionText("Apply Numbers");
+
+        positionCombo = new ComboBox<>();
+        positionCombo.getItems().addAll(PageNumberService.POSITIONS);
+        positionCombo.getSelectionModel().selectFirst();
+
+        styleCombo = new ComboBox<>();
+        styleCombo.getItems().addAll(PageNumberService.STYLES);
+        styleCombo.getSelectionModel().selectFirst();
+
+        langCombo = new ComboBox<>();
+        langCombo.getItems().addAll(PageNumberService.LANGUAGES);
+        langCombo.getSelectionModel().selectFirst();
+
+        sizeCombo = new ComboBox<>();
+        sizeCombo.getItems().addAll("10", "12", "14", "16", "18", "24");
+        sizeCombo.getSelectionModel().select("12");
+        sizeCombo.setEditable(true);
+
+        fontCombo = new ComboBox<>();
+        fontCombo.getItems().add(FONT_STANDARD);
+        loadAvailableFonts();
+        fontCombo.getSelectionModel().selectFirst();
+
+        colorPicker = new ColorPicker(javafx.scene.paint.Color.BLACK);
+
+        HBox row1 = new HBox(10, new Label("Position:"), positionCombo, new Label("Style:"), styleCombo);
+        HBox row2 = new HBox(10, new Label("Language:"), langCombo, new Label("Font:"), fontCombo, new Label("Size:"), sizeCombo, colorPicker);
+
+        addToolbarItem(new VBox(10, row1, row2));
+        enableFanOut();
+    }
+
+    @Override
+    protected void handleAddFiles() {
+        addFiles("PDF Files", "*.pdf");
+    }
+
+    @Override
+    protected void handleAction() {
+        String lang = langCombo.getValue();
+        if (PageNumberService.requiresCustomFont(lang) && fontCombo.getValue().equals(FONT_STANDARD)) {
+            showAlert(Alert.AlertType.WARNING, "Font Required", "Please select a custom .ttf font to display Bengali or Hindi.");
+            return;
+        }
+
+        PageNumberConfig config = getCurrentConfig();
+        if (isFanOutSelected()) {
+            // Each file is numbered from 1 on its own
+            processEachFile("_numbered", doc -> pageNumberService.apply(doc, config));
+            return;
+        }
+
+        processWithSaveDialog("Save PDF", "numbered_document.pdf", (destination, context) -> {
+            List<String> filePaths = fileListView.getItems().stream()
+                    .map(FileItem::getPath).collect(Collectors.toList());
+
+            // FIX: Use Temp file to avoid file lock corruption
+            File tempMerged = null;
+            try {
+                String sourcePath;
+                if (filePaths.size() > 1) {
+                    tempMerged = createMergeTempFile("pagenum_merged_", filePaths, context);
+                    mergeDocumentsSafe(filePaths, tempMerged, context);
+                    sourcePath = tempMerged.getAbsolutePath();
+                } else {
+                    sourcePath = filePaths.get(0);
+                }
+
+                processPdfSafely(new File(sourcePath), destination, (doc) -> pageNumberService.apply(doc, config), JobContext.of(context));
+            } finally {
+                if (tempMerged != null && tempMerged.exists() && !tempMerged.delete()) {
+                    LOGGER.log(Level.WARNING, "Failed to delete temporary file: {0}", tempMerged.getAbsolutePath());
+                }
+            }
+        });
+    }
+
+    private PageNumberConfig getCurrentConfig() {
+        String fontName = fontCombo.getValue();
+        File fontFile = fontName.equals(FONT_STANDARD) ? null : PageNumberService.resolveFont(fontName);
+        javafx.scene.paint.Color fxColor = colorPicker.getValue();
+        float size = 12; // default
+        try {
+            size = Float.parseFloat(sizeCombo.getValue());
+        } catch (NumberFormatException ignored) {}
+
+        return new PageNumberConfig(
+            positionCombo.getValue(),
+            styleCombo.getValue(),
+            langCombo.getValue(),
+            fontFile,
+            size,
+            new java.awt.Color((float) fxColor.getRed(), (float) fxColor.getGreen(), (float) fxColor.getBlue())
+        );
+    }
+
+    private void loadAvailableFonts() {
+        File fontDir = PageNumberService.FONT_DIR;
+        if (!fontDir.exists()) fontDir.mkdirs();
+        fontCombo.getItems().addAll(PageNumberService.getAvailableFonts());
+    }
+
+    @Override
+    protected boolean isInputValid() {
+        if (fileListView.getItems().isEmpty()) return false;
+        for (FileItem item : fileListView.getItems()) {
+            if (!item.getPath().toLowerCase().endsWith(".pdf")) return false;
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -1,27 +1,28 @@
 package com.rdchandrahas.ui;
 
+import com.rdchandrahas.core.ExtractionService;
 import com.rdchandrahas.shared.model.FileItem;
 import com.rdchandrahas.ui.base.BaseToolController;
-import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
 import javafx.stage.DirectoryChooser;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.ImageType;
-import org.apache.pdfbox.rendering.PDFRenderer;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 
 public class PdfToImageController extends BaseToolController {
 
     private ComboBox<String> formatCombo;
     private ComboBox<String> dpiCombo;
 
+    private final ExtractionService extractionService = new ExtractionService();
+
     @Override
     protected void onInitialize() {
         setTitle("PDF to Image");
+        setOperationName("to-image");
         setActionText("Convert & Save");
 
         formatCombo = new ComboBox<>();
@@ -57,39 +58,25 @@ public class PdfToImageController extends BaseToolController {
         String format = formatCombo.getValue().toLowerCase();
         int dpi = dpiCombo.getValue().contains("300") ? 300 : 150;
 
-        ImageType imageType = format.equals("png") ? ImageType.ARGB : ImageType.RGB;
-
-        setBusy(true, actionBtn);
+        List<FileItem> items = List.copyOf(fileListView.getItems());
 
-        new Thread(() -> {
+        runTask(context -> {
             try {
-                for (Object obj : fileListView.getItems()) {
-                    FileItem item = (FileItem) obj;
-                    File sourceFile = new File(item.getPath());
-                    String baseName = sourceFile.getName().replaceFirst("[.][^.]+$", "");
-
-                    try (PDDocument doc = loadDocumentSafe(item.getPath())) {
-                        PDFRenderer renderer = new PDFRenderer(doc);
-
-                        for (int i = 0; i < doc.getNumberOfPages(); i++) {
-                            BufferedImage image = renderer.renderImageWithDPI(i, dpi, imageType);
-                            File outputFile = new File(destDir, baseName + "_page_" + (i + 1) + "." + format);
-                            ImageIO.write(image, format, outputFile);
-                        }
+                for (int f = 0; f < items.size(); f++) {
+                    String path = items.get(f).getPath();
+                    if (runInWorker(context, "to-image", "--format=" + format, "--dpi=" + dpi,
+                            "--out-dir=" + destDir.getAbsolutePath(), "--", path) == null) {
+                        extractionService.renderPages(new File(path), destDir, format, dpi, context);
                     }
+                    context.reportProgress(f + 1, items.size());
                 }
-
-                Platform.runLater(() -> {
-                    setBusy(false, actionBtn);
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "All pages converted to images successfully!");
-                });
+                return null;
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
-                Platform.runLater(() -> {
-                    setBusy(false, actionBtn);
-                    showAlert(Alert.AlertType.ERROR, "Error", "Conversion failed: " + e.getMessage());
-                });
+                throw new IOException("Conversion failed: " + e.getMessage(), e);
             }
-        }).start();
+        }, result -> showAlert(Alert.AlertType.INFORMATION, "Success", "All pages converted to images successfully!"));
     }
 
     @Override
@@ -0,0 +1,157 @@
+package com.rdchandrahas.ui;
+
+import com.rdchandrahas.core.PdfPipeline;
+import com.rdchandrahas.core.PipelineRecipe;
+import com.rdchandrahas.shared.model.FileItem;
+import com.rdchandrahas.ui.base.BaseToolController;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PipelineController runs several operations (rotate, watermark, page numbers, metadata,
+ * protect) in one pass: the document is loaded once and saved once. The steps are edited
+ * as recipe text, which can be saved and reused here or with the command line.
+ */
+public class PipelineController extends BaseToolController {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineController.class.getName());
+
+    /** A starting line for each operation, appended by the "Add Step" button. */
+    private static final Map<String, String> STEP_TEMPLATES = Map.of(
+            PdfPipeline.OP_ROTATE, "rotate angle=90 pages=\"\"",
+            PdfPipeline.OP_WATERMARK, "watermark text=CONFIDENTIAL size=72 color=#A9A9A9 rotation=45 opacity=0.3",
+            PdfPipeline.OP_PAGE_NUMBERS, "page-numbers position=\"Bottom Center\" style=number size=12",
+            PdfPipeline.OP_METADATA, "metadata title=\"\" author=\"\"",
+            PdfPipeline.OP_PROTECT, "protect password=\"\"");
+
+    private static final String RECIPE_FILTER = "Pipeline Recipes";
+
+    private ComboBox<String> stepCombo;
+    private TextArea recipeArea;
+
+    @Override
+    protected void onInitialize() {
+        setTitle("PDF Pipeline");
+        setOperationName("pipeline");
+        setActionText("Run Pipeline");
+
+        stepCombo = new ComboBox<>();
+        stepCombo.getItems().addAll(PdfPipeline.OPERATIONS);
+        stepCombo.getSelectionModel().selectFirst();
+
+        Button addStepBtn = new Button("Add Step");
+        addStepBtn.setOnAction(e -> addStep(stepCombo.getValue()));
+
+        Button loadBtn = new Button("Load Recipe...");
+        loadBtn.setOnAction(e -> loadRecipe());
+
+        Button saveBtn = new Button("Save Recipe...");
+        saveBtn.setOnAction(e -> saveRecipe());
+
+        recipeArea = new TextArea();
+        recipeArea.setPromptText("One step per line, e.g.\nrotate angle=90\nwatermark text=DRAFT\npage-numbers style=page-of-total");
+        recipeArea.setPrefRowCount(5);
+        recipeArea.setPrefColumnCount(60);
+        recipeArea.textProperty().addListener((o, old, n) -> updateActionBtnState());
+
+        addToolbarItem(new VBox(10, new HBox(10, stepCombo, addStepBtn, loadBtn, saveBtn), recipeArea));
+    }
+
+    @Override
+    protected void handleAddFiles() {
+        addFiles("PDF Files", "*.pdf");
+    }
+
+    @Override
+    protected void handleAction() {
+        // Validate every step before asking for a destination
+        PdfPipeline pipeline;
+        try {
+            pipeline = new PdfPipeline(PipelineRecipe.parse(recipeArea.getText()));
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.WARNING, "Invalid Recipe", e.getMessage());
+            return;
+        }
+
+        List<String> paths = fileListView.getItems().stream().map(FileItem::getPath).toList();
+        processWithSaveDialog("Save Processed PDF", "processed.pdf", (destination, context) -> {
+            if (paths.size() == 1) {
+                pipeline.run(new File(paths.get(0)), destination, context);
+                return;
+            }
+
+            File tempMerged = createMergeTempFile("pipeline_merged_", paths, context);
+            try {
+                mergeDocumentsSafe(paths, tempMerged, context);
+                pipeline.run(tempMerged, destination, context);
+            } finally {
+                if (tempMerged.exists() && !tempMerged.delete()) {
+                    LOGGER.log(Level.WARNING, "Failed to delete temp file: {0}", tempMerged.getAbsolutePath());
+                }
+            }
+        });
+    }
+
+    private void addStep(String operation) {
+        String text = recipeArea.getText();
+        if (!text.isEmpty() && !text.endsWith("\n")) {
+            text += "\n";
+        }
+        recipeArea.setText(text + STEP_TEMPLATES.get(operation) + "\n");
+    }
+
+    private void loadRecipe() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Load Recipe");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(RECIPE_FILTER, "*.txt"));
+        File file = chooser.showOpenDialog(actionBtn.getScene().getWindow());
+        if (file == null) return;
+
+        try {
+            recipeArea.setText(PipelineRecipe.load(file).toText());
+        } catch (IOException | IllegalArgumentException e) {
+            showAlert(Alert.AlertType.ERROR, "Load Failed", "Could not read recipe: " + e.getMessage());
+        }
+    }
+
+    private void saveRecipe() {
+        PipelineRecipe recipe;
+        try {
+            recipe = PipelineRecipe.parse(recipeArea.getText());
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.WARNING, "Invalid Recipe", e.getMessage());
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save Recipe");
+        chooser.setInitialFileName("pipeline.txt");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(RECIPE_FILTER, "*.txt"));
+        File file = chooser.showSaveDialog(actionBtn.getScene().getWindow());
+        if (file == null) return;
+
+        try {
+            recipe.save(file);
+            logInfo("Saved pipeline recipe to " + file.getName());
+        } catch (IOException e) {
+            showAlert(Alert.AlertType.ERROR, "Save Failed", "Could not save recipe: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected boolean isInputValid() {
+        if (fileListView.getItems().isEmpty() || recipeArea.getText().isBlank()) {
+            return false;
+        }
+        return fileListView.getItems().stream().allMatch(item -> item.getPath().toLowerCase().endsWith(".pdf"));
+    }
+}
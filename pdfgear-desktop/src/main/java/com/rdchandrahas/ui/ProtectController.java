@@ -1,14 +1,15 @@
 package com.rdchandrahas.ui;
 
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.SecurityService;
 import com.rdchandrahas.ui.base.BaseToolController;
 import com.rdchandrahas.shared.model.FileItem;
-import javafx.application.Platform;
 import javafx.scene.control.*;
 import javafx.stage.DirectoryChooser;
-import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
-import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,10 +17,12 @@ public class ProtectController extends BaseToolController {
     
     private static final Logger LOGGER = Logger.getLogger(ProtectController.class.getName());
     private PasswordField pass;
+    private final SecurityService securityService = new SecurityService();
 
     @Override 
     protected void onInitialize() {
         setTitle("Protect PDF");
+        setOperationName("protect");
         setActionText("Encrypt & Save All");
         
         pass = new PasswordField(); 
@@ -44,44 +47,36 @@ public class ProtectController extends BaseToolController {
 
         if (destDir == null) return;
 
-        setBusy(true, actionBtn);
+        List<File> sources = fileListView.getItems().stream().map(item -> new File(item.getPath())).toList();
+        String password = pass.getText();
 
-        new Thread(() -> {
+        runTask(context -> {
+            JobContext job = JobContext.of(context);
             int successCount = 0;
-            String password = pass.getText();
-            
-            for (Object obj : fileListView.getItems()) {
-                FileItem item = (FileItem) obj;
-                File sourceFile = new File(item.getPath());
+            for (int i = 0; i < sources.size(); i++) {
+                context.checkCancelled();
+                File sourceFile = sources.get(i);
                 File destFile = new File(destDir, sourceFile.getName().replace(".pdf", "_protected.pdf"));
 
                 try {
-                    // Safe execution pipeline
-                    processPdfSafely(sourceFile, destFile, (doc) -> {
-                        StandardProtectionPolicy spp = new StandardProtectionPolicy(password, password, new AccessPermission());
-                        spp.setEncryptionKeyLength(128); 
-                        doc.protect(spp); 
-                    });
+                    securityService.protect(sourceFile, destFile, password, job);
                     successCount++;
-                } catch (Exception e) {
+                } catch (IOException e) {
                     LOGGER.log(Level.WARNING, "Failed to encrypt file: " + sourceFile.getName(), e);
                 }
+                context.reportProgress(i + 1, sources.size());
             }
-
-            final int finalSuccessCount = successCount;
-            final int totalFiles = fileListView.getItems().size();
-
-            Platform.runLater(() -> {
-                setBusy(false, actionBtn);
-                if (finalSuccessCount == totalFiles) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Successfully encrypted all " + finalSuccessCount + " files.");
-                } else if (finalSuccessCount > 0) {
-                    showAlert(Alert.AlertType.WARNING, "Partial Success", "Encrypted " + finalSuccessCount + " out of " + totalFiles + " files.");
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to encrypt files.");
-                }
-            });
-        }).start();
+            return successCount;
+        }, successCount -> {
+            int totalFiles = sources.size();
+            if (successCount == totalFiles) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Successfully encrypted all " + successCount + " files.");
+            } else if (successCount > 0) {
+                showAlert(Alert.AlertType.WARNING, "Partial Success", "Encrypted " + successCount + " out of " + totalFiles + " files.");
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to encrypt files.");
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,63 @@
+package com.rdchandrahas.ui;
+
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.PageEditService;
+import com.rdchandrahas.shared.model.FileItem;
+import com.rdchandrahas.ui.base.BaseToolController;
+import javafx.scene.control.Alert;
+import javafx.scene.control.TextField;
+
+import java.io.File;
+
+public class RearrangePagesController extends BaseToolController {
+
+    private final PageEditService pageEditService = new PageEditService();
+    private TextField orderInput;
+
+    @Override
+    protected void onInitialize() {
+        setTitle("Rearrange Pages");
+        setOperationName("rearrange");
+        setActionText("Rearrange & Save");
+
+        orderInput = new TextField();
+        orderInput.setPromptText("New order (e.g., 3, 1, 2, 4-10)");
+        orderInput.setPrefWidth(250);
+
+        addToolbarItem(orderInput);
+    }
+
+    @Override
+    protected void handleAddFiles() {
+        fileListView.getItems().clear(); 
+        addFiles("PDF Files", "*.pdf");
+    }
+
+    @Override
+    protected void handleAction() {
+        String orderText = orderInput.getText().trim();
+        if (orderText.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Missing Input", "Please enter the new page order.");
+            return;
+        }
+
+        processWithSaveDialog("Save Rearranged PDF", "rearranged_document.pdf", (destination, context) -> {
+
+            FileItem firstItem = fileListView.getItems().get(0);
+            pageEditService.rearrangePages(new File(firstItem.getPath()), destination, orderText, JobContext.of(context));
+        });
+    }
+
+    @Override
+    protected boolean isInputValid() {
+        if (fileListView.getItems().isEmpty()) {
+            return false;
+        }
+        for (FileItem item : fileListView.getItems()) {
+            if (!item.getPath().toLowerCase().endsWith(".pdf")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.rdchandrahas.ui;
 
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.PageEditService;
+import com.rdchandrahas.core.PageRanges;
 import com.rdchandrahas.shared.model.FileItem;
-import com.rdchandrahas.shared.util.TempFileManager;
 import com.rdchandrahas.ui.base.BaseToolController;
 import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
@@ -15,13 +17,11 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -31,6 +31,7 @@ import java.util.stream.Collectors;
 public class RotateController extends BaseToolController {
 
     private static final Logger LOGGER = Logger.getLogger(RotateController.class.getName());
+    private final PageEditService pageEditService = new PageEditService();
     private ComboBox<String> angleComboBox;
     private TextField pageRangeInput;
     private Button previewBtn;
@@ -38,6 +39,7 @@ public class RotateController extends BaseToolController {
     @Override
     protected void onInitialize() {
         setTitle("Rotate PDF");
+        setOperationName("rotate");
         setActionText("Rotate & Save");
 
         angleComboBox = new ComboBox<>();
@@ -53,6 +55,7 @@ public class RotateController extends BaseToolController {
         previewBtn.setOnAction(e -> showPreview());
 
         addToolbarItem(angleComboBox, pageRangeInput, previewBtn);
+        enableFanOut();
     }
 
     @Override
@@ -62,7 +65,14 @@ public class RotateController extends BaseToolController {
 
     @Override
     protected void handleAction() {
-        processWithSaveDialog("Save Rotated PDF", "rotated_document.pdf", (destination) -> {
+        if (isFanOutSelected()) {
+            int rotationAngle = getSelectedAngle();
+            String rangeText = pageRangeInput.getText().trim();
+            processEachFile("_rotated", doc -> pageEditService.rotatePages(doc, rotationAngle, rangeText));
+            return;
+        }
+
+        processWithSaveDialog("Save Rotated PDF", "rotated_document.pdf", (destination, context) -> {
             int rotationAngle = getSelectedAngle();
             String rangeText = pageRangeInput.getText().trim();
 
@@ -75,24 +85,16 @@ public class RotateController extends BaseToolController {
             try {
                 String sourcePath;
                 if (filePaths.size() > 1) {
-                    tempMerged = TempFileManager.createTempFile("rotate_merged_", ".pdf");
-                    mergeDocumentsSafe(filePaths, tempMerged);
+                    tempMerged = createMergeTempFile("rotate_merged_", filePaths, context);
+                    mergeDocumentsSafe(filePaths, tempMerged, context);
                     sourcePath = tempMerged.getAbsolutePath();
                 } else {
                     sourcePath = filePaths.get(0);
                 }
 
                 // Process safely from source to destination
-                processPdfSafely(new File(sourcePath), destination, (doc) -> {
-                    Set<Integer> pagesToRotate = parsePageRange(rangeText, doc.getNumberOfPages());
-                    int pageNum = 1;
-                    for (PDPage page : doc.getPages()) {
-                        if (pagesToRotate.contains(pageNum)) {
-                            page.setRotation(page.getRotation() + rotationAngle);
-                        }
-                        pageNum++;
-                    }
-                });
+                processPdfSafely(new File(sourcePath), destination,
+                        (doc) -> pageEditService.rotatePages(doc, rotationAngle, rangeText), JobContext.of(context));
 
             } finally {
                 if (tempMerged != null && tempMerged.exists() && !tempMerged.delete()) {
@@ -114,9 +116,10 @@ public class RotateController extends BaseToolController {
 
         setBusy(true, previewBtn);
 
-        new Thread(() -> {
+        // Runs on the reserved interactive worker, even while a batch job occupies the pool
+        runPreview(previewBtn, () -> {
             try (PDDocument doc = loadDocumentSafe(firstItem.getPath())) {
-                Set<Integer> pagesToRotate = parsePageRange(rangeText, doc.getNumberOfPages());
+                Set<Integer> pagesToRotate = PageRanges.parseSelection(rangeText, doc.getNumberOfPages());
 
                 int firstRequestedPage = pagesToRotate.isEmpty() ? 1 : pagesToRotate.iterator().next();
                 final int pageToPreview = Math.min(firstRequestedPage, doc.getNumberOfPages());
@@ -135,7 +138,7 @@ public class RotateController extends BaseToolController {
                     showAlert(Alert.AlertType.ERROR, "Preview Error", "Could not generate preview: " + e.getMessage());
                 });
             }
-        }).start();
+        });
     }
 
     private void displayPreviewDialog(Image image, int rotationAngle, int pageNum) {
@@ -167,39 +170,6 @@ public class RotateController extends BaseToolController {
         };
     }
 
-    private Set<Integer> parsePageRange(String rangeText, int maxPages) {
-        Set<Integer> pages = new HashSet<>();
-        if (rangeText == null || rangeText.trim().isEmpty()) {
-            for (int i = 1; i <= maxPages; i++)
-                pages.add(i);
-            return pages;
-        }
-
-        String normalizedText = rangeText.replaceAll("\\s+", ",");
-        String[] parts = normalizedText.split(",");
-
-        for (String part : parts) {
-            part = part.trim();
-            if (part.isEmpty())
-                continue;
-
-            try {
-                if (part.contains("-")) {
-                    String[] bounds = part.split("-");
-                    int start = Integer.parseInt(bounds[0].trim());
-                    int end = Integer.parseInt(bounds[1].trim());
-                    for (int i = start; i <= end; i++)
-                        pages.add(i);
-                } else {
-                    pages.add(Integer.parseInt(part));
-                }
-            } catch (NumberFormatException ignored) {
-                // Ignored intentionally: skip invalid user input characters
-            }
-        }
-        return pages;
-    }
-
     @Override
     protected boolean isInputValid() {
         if (fileListView.getItems().isEmpty()) {
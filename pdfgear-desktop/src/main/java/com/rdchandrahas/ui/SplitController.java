@@ -1,18 +1,22 @@
 package com.rdchandrahas.ui;
 
+import com.rdchandrahas.core.PageEditService;
 import com.rdchandrahas.shared.model.FileItem;
 import com.rdchandrahas.ui.base.BaseToolController;
-import org.apache.pdfbox.pdmodel.PDDocument;
+import java.io.File;
+import java.util.concurrent.CancellationException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class SplitController extends BaseToolController {
 
     private static final Logger LOGGER = Logger.getLogger(SplitController.class.getName());
+    private final PageEditService pageEditService = new PageEditService();
 
     @Override
     protected void onInitialize() {
         setTitle("Split PDF");
+        setOperationName("split");
         setActionText("Split & Save");
     }
 
@@ -23,31 +27,16 @@ public class SplitController extends BaseToolController {
 
     @Override
     protected void handleAction() {
-        processWithSaveDialog("Save Split Files", "Split_Output.pdf", (dest) -> {
+        processWithSaveDialog("Save Split Files", "Split_Output.pdf", (dest, context) -> {
 
             String base = dest.getAbsolutePath().replaceAll("(?i)\\.pdf$", "");   
 
-            try (PDDocument doc = loadDocumentSafe(fileListView.getItems().get(0).getPath())) {                
-                
-                int totalPages = doc.getNumberOfPages();
-                LOGGER.log(Level.INFO, "Starting PDF split for {0} pages...", totalPages);
-                
-                // Extract, save, and instantly close one page at a time.
-                // Keeps RAM usage completely flat regardless of PDF size.
-                for (int i = 0; i < totalPages; i++) {
-                    try (PDDocument singlePageDoc = createDocumentSafe()) {
-                        singlePageDoc.addPage(singlePageDoc.importPage(doc.getPage(i)));
-                        singlePageDoc.save(base + "_" + (i + 1) + ".pdf");
-                    }
-                    
-                    // Log progress every 100 pages so we don't spam the console
-                    if ((i + 1) % 100 == 0) {
-                        LOGGER.log(Level.INFO, "Successfully split {0} pages...", (i + 1));
-                    }
-                }
-                
+            try {
+                pageEditService.split(new File(fileListView.getItems().get(0).getPath()), base, context);
                 LOGGER.info("PDF split operation completed successfully.");
-                
+            } catch (CancellationException e) {
+                LOGGER.info("PDF split cancelled.");
+                throw e;
             } catch (Exception e) {
                 LOGGER.log(Level.SEVERE, "An error occurred during the split operation.", e);
                 throw new RuntimeException("Failed to split PDF: " + e.getMessage(), e);
@@ -1,13 +1,14 @@
 package com.rdchandrahas.ui;
 
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.SecurityService;
 import com.rdchandrahas.ui.base.BaseToolController;
-import com.rdchandrahas.shared.model.FileItem;
-import javafx.application.Platform;
 import javafx.scene.control.*;
 import javafx.stage.DirectoryChooser;
-import org.apache.pdfbox.pdmodel.PDDocument;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,10 +16,12 @@ public class UnlockController extends BaseToolController {
     
     private static final Logger LOGGER = Logger.getLogger(UnlockController.class.getName());
     private PasswordField pass;
+    private final SecurityService securityService = new SecurityService();
 
     @Override 
     protected void onInitialize() {
         setTitle("Unlock PDF");
+        setOperationName("unlock");
         setActionText("Unlock & Save All");
         pass = new PasswordField(); 
         pass.setPromptText("Enter Current Password");
@@ -42,47 +45,45 @@ public class UnlockController extends BaseToolController {
 
         if (destDir == null) return;
 
-        setBusy(true, actionBtn);
+        List<File> sources = fileListView.getItems().stream().map(item -> new File(item.getPath())).toList();
+        String password = pass.getText();
 
-        // 2. Run the heavy batch process in the background
-        new Thread(() -> {
+        // 2. Run the heavy batch process on the CPU lane
+        runTask(context -> {
+            JobContext job = JobContext.of(context);
             int successCount = 0;
-            
+
             // 3. Loop through EVERY file the user uploaded
-            for (Object obj : fileListView.getItems()) {
-                FileItem item = (FileItem) obj;
-                File sourceFile = new File(item.getPath());
-                
+            for (int i = 0; i < sources.size(); i++) {
+                context.checkCancelled();
+                File sourceFile = sources.get(i);
+
                 // Create a new filename (e.g., "document_unlocked.pdf")
                 File destFile = new File(destDir, sourceFile.getName().replace(".pdf", "_unlocked.pdf"));
 
                 // 4. Memory-Safe loading and unlocking using the common password
-                try (PDDocument doc = loadDocumentSafe(sourceFile.getAbsolutePath(), pass.getText())) {
-                    doc.setAllSecurityToBeRemoved(true); 
-                    doc.save(destFile);
+                try {
+                    securityService.unlock(sourceFile, destFile, password, job);
                     successCount++;
-                } catch (Exception e) {
+                } catch (IOException e) {
                     LOGGER.log(Level.WARNING, "Failed to unlock file: " + sourceFile.getName() + " (Wrong password or corrupted)", e);
                     // Notice we don't throw the error here. This ensures that if ONE file has a different password, 
                     // the loop continues and unlocks the rest of the files!
                 }
+                context.reportProgress(i + 1, sources.size());
             }
-
-            final int finalSuccessCount = successCount;
-            final int totalFiles = fileListView.getItems().size();
-
+            return successCount;
+        }, successCount -> {
             // 5. Update the UI with the final result
-            Platform.runLater(() -> {
-                setBusy(false, actionBtn);
-                if (finalSuccessCount == totalFiles) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Successfully unlocked all " + finalSuccessCount + " files.");
-                } else if (finalSuccessCount > 0) {
-                    showAlert(Alert.AlertType.WARNING, "Partial Success", "Unlocked " + finalSuccessCount + " out of " + totalFiles + " files. Check if the password was correct for the ones that failed.");
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to unlock files. Please verify the password.");
-                }
-            });
-        }).start();
+            int totalFiles = sources.size();
+            if (successCount == totalFiles) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Successfully unlocked all " + successCount + " files.");
+            } else if (successCount > 0) {
+                showAlert(Alert.AlertType.WARNING, "Partial Success", "Unlocked " + successCount + " out of " + totalFiles + " files. Check if the password was correct for the ones that failed.");
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to unlock files. Please verify the password.");
+            }
+        });
     }
 
     @Override
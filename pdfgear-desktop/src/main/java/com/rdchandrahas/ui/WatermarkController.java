@@ -1,5 +1,8 @@
 package com.rdchandrahas.ui;
 
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.WatermarkConfig;
+import com.rdchandrahas.core.WatermarkService;
 import com.rdchandrahas.shared.model.FileItem;
 import com.rdchandrahas.ui.base.BaseToolController;
 import javafx.application.Platform;
@@ -15,19 +18,12 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
-import org.apache.pdfbox.util.Matrix;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -38,9 +34,9 @@ public class WatermarkController extends BaseToolController {
     private static final Logger LOGGER = Logger.getLogger(WatermarkController.class.getName());
     
     // Constants for SonarQube compliance
-    private static final String FONT_HELVETICA = "Helvetica";
-    private static final String FONT_TIMES = "Times Roman";
-    private static final String FONT_COURIER = "Courier";
+    private static final String FONT_HELVETICA = WatermarkService.FONT_HELVETICA;
+    private static final String FONT_TIMES = WatermarkService.FONT_TIMES;
+    private static final String FONT_COURIER = WatermarkService.FONT_COURIER;
     private static final String FONT_MANUAL = "Manual Select (.ttf)...";
 
     private TextField watermarkInput;
@@ -53,9 +49,12 @@ public class WatermarkController extends BaseToolController {
     private Button previewBtn;
     private File manualCustomFile = null;
 
+    private final WatermarkService watermarkService = new WatermarkService();
+
     @Override
     protected void onInitialize() {
         setTitle("Watermark PDF");
+        setOperationName("watermark");
         setActionText("Apply Watermark");
         
         watermarkInput = new TextField("CONFIDENTIAL");
@@ -102,6 +101,7 @@ public class WatermarkController extends BaseToolController {
             new HBox(10, watermarkInput, colorPicker, fontCombo, boldCheck, italicCheck), 
             new HBox(10, sizeCombo, rotateSlider, opacitySlider, previewBtn)
         ));
+        enableFanOut();
     }
 
     @Override
@@ -112,23 +112,22 @@ public class WatermarkController extends BaseToolController {
     @Override
     protected void handleAction() {
         WatermarkConfig config = getCurrentConfig();
-        processWithSaveDialog("Save Watermarked PDF", "watermarked.pdf", (destination) -> {
+        if (isFanOutSelected()) {
+            processEachFile("_watermarked", doc -> watermarkService.apply(doc, config));
+            return;
+        }
+
+        processWithSaveDialog("Save Watermarked PDF", "watermarked.pdf", (destination, context) -> {
             List<String> paths = fileListView.getItems().stream().map(FileItem::getPath).collect(Collectors.toList());
             
             // FIX: Write merge to a Temporary File first to avoid Read/Write conflict on the same path
-            File tempMerged = File.createTempFile("watermark_merged_", ".pdf");
-            tempMerged.deleteOnExit();
-            
+            File tempMerged = createMergeTempFile("watermark_merged_", paths, context);
+
             try {
-                mergeDocumentsSafe(paths, tempMerged);
+                mergeDocumentsSafe(paths, tempMerged, context);
                 
                 // Now read from temp file, and save to final destination
-                processPdfSafely(tempMerged, destination, (doc) -> {
-                    PDFont font = loadSelectedFont(doc);
-                    for (PDPage page : doc.getPages()) {
-                        applyWatermark(doc, page, config, font);
-                    }
-                });
+                processPdfSafely(tempMerged, destination, (doc) -> watermarkService.apply(doc, config), JobContext.of(context));
             } finally {
                 // Clean up the temp file
                 if (tempMerged.exists() && !tempMerged.delete()) {
@@ -141,11 +140,12 @@ public class WatermarkController extends BaseToolController {
     private void showPreview() {
         WatermarkConfig config = getCurrentConfig();
         setBusy(true, previewBtn);
-        new Thread(() -> {
+        // Interactive priority: the user is waiting, so this must not queue behind thumbnails or batch jobs
+        runPreview(previewBtn, () -> {
             try (PDDocument doc = createDocumentSafe()) {
                 PDPage page = new PDPage(PDRectangle.A4); 
                 doc.addPage(page);
-                applyWatermark(doc, page, config, loadSelectedFont(doc));
+                watermarkService.applyToPage(doc, page, config, watermarkService.loadFont(doc, config));
                 
                 BufferedImage bim = new PDFRenderer(doc).renderImageWithDPI(0, 100, ImageType.RGB);
                 Platform.runLater(() -> { 
@@ -158,56 +158,7 @@ public class WatermarkController extends BaseToolController {
                     showAlert(Alert.AlertType.ERROR, "Error", e.getMessage()); 
                 }); 
             }
-        }).start();
-    }
-
-    private void applyWatermark(PDDocument doc, PDPage page, WatermarkConfig config, PDFont font) throws IOException {
-        try (PDPageContentStream cs = new PDPageContentStream(doc, page, PDPageContentStream.AppendMode.APPEND, true, true)) {
-            PDExtendedGraphicsState gs = new PDExtendedGraphicsState();
-            gs.setNonStrokingAlphaConstant(config.opacity);
-            cs.setGraphicsStateParameters(gs);
-            cs.setNonStrokingColor(config.color);
-            cs.beginText();
-            cs.setFont(font, config.fontSize);
-            
-            PDRectangle box = page.getMediaBox();
-            float txW = font.getStringWidth(config.text) / 1000 * config.fontSize;
-            
-            Matrix m = Matrix.getRotateInstance(Math.toRadians(config.rotation), box.getWidth()/2, box.getHeight()/2);
-            m.translate(-txW/2, 0);
-            
-            cs.setTextMatrix(m);
-            cs.showText(config.text);
-            cs.endText();
-        }
-    }
-
-    private PDFont loadSelectedFont(PDDocument doc) throws IOException {
-        if (manualCustomFile != null) return PDType0Font.load(doc, manualCustomFile);
-        
-        String selection = fontCombo.getValue();
-        boolean b = boldCheck.isSelected();
-        boolean i = italicCheck.isSelected();
-        
-        // FIX: Completed the missing font logic for all combinations without nested ternaries
-        if (FONT_COURIER.equals(selection)) {
-            if (b && i) return PDType1Font.COURIER_BOLD_OBLIQUE;
-            if (b) return PDType1Font.COURIER_BOLD;
-            if (i) return PDType1Font.COURIER_OBLIQUE;
-            return PDType1Font.COURIER;
-        } 
-        else if (FONT_TIMES.equals(selection)) {
-            if (b && i) return PDType1Font.TIMES_BOLD_ITALIC;
-            if (b) return PDType1Font.TIMES_BOLD;
-            if (i) return PDType1Font.TIMES_ITALIC;
-            return PDType1Font.TIMES_ROMAN;
-        } 
-        else { // FONT_HELVETICA or fallback
-            if (b && i) return PDType1Font.HELVETICA_BOLD_OBLIQUE;
-            if (b) return PDType1Font.HELVETICA_BOLD;
-            if (i) return PDType1Font.HELVETICA_OBLIQUE;
-            return PDType1Font.HELVETICA;
-        }
+        });
     }
 
     private WatermarkConfig getCurrentConfig() {
@@ -222,7 +173,11 @@ public class WatermarkController extends BaseToolController {
             size, 
             new java.awt.Color((float)c.getRed(), (float)c.getGreen(), (float)c.getBlue()), 
             (float)rotateSlider.getValue(), 
-            (float)opacitySlider.getValue()
+            (float)opacitySlider.getValue(),
+            fontCombo.getValue(),
+            boldCheck.isSelected(),
+            italicCheck.isSelected(),
+            manualCustomFile
         );
     }
 
@@ -239,6 +194,4 @@ public class WatermarkController extends BaseToolController {
     protected boolean isInputValid() { 
         return super.isInputValid() && !watermarkInput.getText().trim().isEmpty(); 
     }
-
-    private record WatermarkConfig(String text, float fontSize, java.awt.Color color, float rotation, float opacity) {}
 }
\ No newline at end of file
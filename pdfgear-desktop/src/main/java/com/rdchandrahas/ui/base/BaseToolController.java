@@ -0,0 +1,529 @@
+package com.rdchandrahas.ui.base;
+
+import com.rdchandrahas.cli.WorkerPool;
+import com.rdchandrahas.core.CancellableTask;
+import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.JobJournal;
+import com.rdchandrahas.core.MemoryGovernor;
+import com.rdchandrahas.core.NavigationService;
+import com.rdchandrahas.core.OverflowPolicy;
+import com.rdchandrahas.core.PdfLoader;
+import com.rdchandrahas.core.PdfOperation;
+import com.rdchandrahas.core.PdfService;
+import com.rdchandrahas.core.ScratchStorage;
+import com.rdchandrahas.core.PreflightException;
+import com.rdchandrahas.core.TaskContext;
+import com.rdchandrahas.core.TaskHandle;
+import com.rdchandrahas.core.TaskKind;
+import com.rdchandrahas.core.TaskPriority;
+import com.rdchandrahas.ui.SortableToolController;
+import com.rdchandrahas.shared.component.FileListView;
+import com.rdchandrahas.shared.model.FileItem;
+import com.rdchandrahas.shared.util.LogManager;
+import com.rdchandrahas.shared.util.TempFileManager;
+
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.fxml.FXML;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BaseToolController serves as the foundation for all PDF tool controllers.
+ * It provides common UI management, asynchronous task execution, and 
+ * safe PDF handling methods to ensure consistency across the application.
+ */
+public abstract class BaseToolController implements SortableToolController {
+
+    @FXML protected Label toolTitleLabel;
+    @FXML protected Button addFilesBtn;
+    @FXML protected HBox customToolbarArea; 
+    @FXML protected FileListView fileListView;
+    @FXML protected ComboBox<String> sortCombo;
+    @FXML protected ToggleButton listViewBtn;
+    @FXML protected ToggleButton gridViewBtn;
+    @FXML protected ProgressIndicator progressIndicator;
+    @FXML protected Button actionBtn;
+
+    protected NavigationService navigationService;
+    private final PdfService pdfService = new PdfService(); // Instantiate core service
+
+    /** The job started by this tool, cancelled when the user leaves the tool while it runs. */
+    private TaskHandle<?> activeTask;
+
+    /** Files processed at once in fan-out mode. More would only compete for the same cores and heap. */
+    private static final int FAN_OUT_PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** Shown only by tools that call enableFanOut(). */
+    private CheckBox fanOutCheck;
+
+    /** The matching command line name, e.g. "compress"; MemoryGovernor sizes the tool's jobs by it. */
+    private String operationName;
+
+    @FXML
+    public void initialize() {
+        setupSortAndViews();
+        
+        // --- SMART BUTTON LISTENER ---
+        fileListView.getItems().addListener((ListChangeListener<FileItem>) c -> {
+            updateActionBtnState();
+        });
+
+        onInitialize(); 
+        
+        // Set the initial state of the button
+        updateActionBtnState(); 
+    }
+
+    /**
+     * Hook for subclasses to perform specific initialization logic.
+     */
+    protected abstract void onInitialize();
+
+    // --- Dynamic UI State Management ---
+    protected void updateActionBtnState() {
+        actionBtn.getStyleClass().removeAll("action-button", "success-button", "danger-button", "button");
+
+        if (fileListView.getItems().isEmpty()) {
+            actionBtn.setDisable(true);
+            actionBtn.getStyleClass().add("button");
+        } else if (isInputValid()) {
+            actionBtn.setDisable(false);
+            actionBtn.getStyleClass().add("action-button");
+        } else {
+            actionBtn.setDisable(true);
+            actionBtn.getStyleClass().add("danger-button");
+        }
+    }
+
+    protected boolean isInputValid() {
+        return !fileListView.getItems().isEmpty();
+    }
+
+    // --- UI Configuration Helpers ---
+    protected void setTitle(String title) { toolTitleLabel.setText(title); }
+    protected void setActionText(String text) { actionBtn.setText(text); }
+    protected void setOperationName(String name) { operationName = name; }
+    protected void addToolbarItem(Node... nodes) { customToolbarArea.getChildren().addAll(nodes); }
+
+    /**
+     * Utility method for controllers to launch a FileChooser and append items.
+     * Includes batch-addition to prevent UI freezing on massive selections.
+     */
+    protected void addFiles(String filterName, String... extensions) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Select Files");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(filterName, extensions));
+
+        List<File> files = chooser.showOpenMultipleDialog(actionBtn.getScene().getWindow());
+        if (files != null && !files.isEmpty()) {
+            try {
+                // Building a FileItem stats the file, so a large selection is read on the I/O lane
+                ExecutionManager.submit(TaskPriority.INTERACTIVE, TaskKind.IO, OverflowPolicy.REJECT, () -> {
+                    // FIX: Convert files to FileItems in memory first
+                    List<FileItem> newItems = files.stream()
+                            .map(f -> new FileItem(f.getAbsolutePath()))
+                            .toList();
+
+                    // FIX: Add all items at once. This ensures the ListChangeListener 
+                    // in FileListView only triggers ONE refresh cycle instead of thousands.
+                    Platform.runLater(() -> {
+                        fileListView.getItems().addAll(newItems);
+                        updateActionBtnState();
+                    });
+                });
+            } catch (RejectedExecutionException e) {
+                showQueueFull();
+            }
+        }
+    }
+
+    // --- Abstract Handlers ---
+    @FXML protected abstract void handleAddFiles();
+    @FXML protected abstract void handleAction();
+
+    // --- Common UI Handlers ---
+    @FXML 
+    protected void handleBack() { 
+        // An abandoned job should free CPU and disk right away instead of running on unseen
+        if (activeTask != null && !activeTask.isDone()) {
+            logInfo("Cancelling running task before leaving the tool.");
+            activeTask.cancel();
+        }
+        navigationService.navigateTo("/ui/Dashboard.fxml"); 
+    }
+    @FXML protected void onSortAction() { handleSort(); }
+    @FXML protected void onListToggle() { switchToList(); }
+    @FXML protected void onGridToggle() { switchToGrid(); }
+    
+    @FXML 
+    protected void handleRemove() { 
+        fileListView.getItems().clear(); 
+        updateActionBtnState(); 
+    }
+
+    protected void processWithSaveDialog(String title, String defaultName, ToolTask task) {
+        processWithSaveDialog(title, defaultName, (dest, context) -> task.execute(dest));
+    }
+
+    /**
+     * Variant for long running tools: the task receives a TaskContext to check for
+     * cancellation and to drive the progress indicator.
+     */
+    protected void processWithSaveDialog(String title, String defaultName, CancellableToolTask task) {
+        if (!isInputValid()) {
+            showAlert(Alert.AlertType.WARNING, "Invalid Input", "Please check your file requirements.");
+            return;
+        }
+        
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.setInitialFileName(defaultName);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PDF Files", "*.pdf"));
+        File dest = chooser.showSaveDialog(actionBtn.getScene().getWindow());
+
+        if (dest == null) return;
+
+        runTask(context -> {
+            task.execute(dest, context);
+            return null;
+        }, result -> showAlert(Alert.AlertType.INFORMATION, "Success", "Saved to: " + dest.getName()));
+    }
+
+    /**
+     * Runs a job through ExecutionManager while the tool shows its busy state.
+     * The progress indicator follows the progress the job reports, the job is cancelled
+     * when the user navigates back, and failures are shown in an error dialog.
+     * The job receives a JobContext with the settings of the moment it starts, so changing
+     * them in the Settings menu only affects the jobs started afterwards. Its temp files go
+     * to a scope folder that is deleted as soon as the job ends. Like CLI and server jobs, it
+     * waits for a MemoryGovernor budget estimated from the listed files and the tool's
+     * operation, and its documents keep no more than that budget in RAM.
+     * * @param task The job to run.
+     * @param onSuccess Called on the FX thread with the job's result.
+     */
+    protected <T> void runTask(CancellableTask<T> task, Consumer<T> onSuccess) {
+        runTask(TaskKind.CPU, task, onSuccess);
+    }
+
+    /**
+     * Variant for jobs that mostly wait, e.g. on files or on other tasks; they run on the
+     * I/O lane and leave the CPU workers free. I/O jobs take no memory budget of their own,
+     * since the tasks they wait on acquire theirs, as fan-out does per file.
+     */
+    protected <T> void runTask(TaskKind kind, CancellableTask<T> task, Consumer<T> onSuccess) {
+        setBusy(true, actionBtn);
+        long inputBytes = fileListView.getItems().stream().mapToLong(item -> new File(item.getPath()).length()).sum();
+        CancellableTask<T> scoped = context -> {
+            JobContext job = JobContext.capture(context);
+            MemoryGovernor.Grant grant = kind == TaskKind.IO ? null : MemoryGovernor.acquire(operationName, inputBytes, job);
+            try (TempFileManager.Scope scope = TempFileManager.openScope("job")) {
+                return task.run((grant == null ? job : grant.applyTo(job)).withTempDir(scope.getDir()));
+            } finally {
+                if (grant != null) grant.close();
+            }
+        };
+        TaskHandle<T> handle;
+        try {
+            // REJECT rather than BLOCK_CALLER: the FX thread must never wait for queue room
+            handle = ExecutionManager.submit(kind, OverflowPolicy.REJECT, scoped);
+        } catch (RejectedExecutionException e) {
+            setBusy(false, actionBtn);
+            showQueueFull();
+            return;
+        }
+        activeTask = handle;
+        // Only hop to the FX thread when the visible percentage changes, not for every page
+        AtomicInteger shownPercent = new AtomicInteger(-1);
+        handle.onProgress(h -> {
+            double progress = h.getProgress();
+            int percent = (int) (progress * 100);
+            if (progress >= 0 && shownPercent.getAndSet(percent) != percent) {
+                Platform.runLater(() -> progressIndicator.setProgress(progress));
+            }
+        });
+        handle.onComplete((result, error) -> Platform.runLater(() -> {
+            setBusy(false, actionBtn);
+            progressIndicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+            if (error == null) {
+                onSuccess.accept(result);
+            } else if (error instanceof CancellationException) {
+                logInfo("Task cancelled.");
+            } else {
+                logError("Execution failed: " + error.getMessage());
+                showAlert(Alert.AlertType.ERROR, "Error", error.getMessage());
+            }
+        }));
+    }
+
+    // --- Fan-Out Mode ---
+
+    /**
+     * Adds the "One output per file" option to the toolbar. Tools whose operation works on
+     * each document independently call this from onInitialize().
+     */
+    protected void enableFanOut() {
+        fanOutCheck = new CheckBox("One output per file");
+        fanOutCheck.setTooltip(new Tooltip("Process every file on its own, in parallel, instead of merging them into one PDF first."));
+        addToolbarItem(fanOutCheck);
+    }
+
+    protected boolean isFanOutSelected() {
+        return fanOutCheck != null && fanOutCheck.isSelected();
+    }
+
+    /**
+     * Runs the operation on every listed file separately and writes one output per input into
+     * a folder chosen by the user, named after the input ("scan.pdf" -> "scan_rotated.pdf").
+     * Unlike merge-then-process, 2,000 inputs become 2,000 small parallel jobs instead of one
+     * huge serial one. A file that fails is reported at the end and does not stop the others.
+     * * @param outputSuffix Appended to each input name before the extension, e.g. "_rotated".
+     * @param operation Applied to each loaded document before it is saved.
+     */
+    protected void processEachFile(String outputSuffix, PdfOperation operation) {
+        if (!isInputValid()) {
+            showAlert(Alert.AlertType.WARNING, "Invalid Input", "Please check your file requirements.");
+            return;
+        }
+
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Choose Output Folder");
+        File folder = chooser.showDialog(actionBtn.getScene().getWindow());
+        if (folder == null) return;
+
+        List<File> inputs = fileListView.getItems().stream().map(item -> new File(item.getPath())).toList();
+        // The coordinator only waits for the per-file tasks, so it must not hold a CPU worker
+        runTask(TaskKind.IO, context -> fanOut(inputs, folder, outputSuffix, operation, context), result -> {
+            if (result.failures().isEmpty()) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Saved " + result.succeeded() + " files to: " + folder.getName());
+                return;
+            }
+            List<String> shown = result.failures().subList(0, Math.min(10, result.failures().size()));
+            String more = result.failures().size() > shown.size() ? "\n... and " + (result.failures().size() - shown.size()) + " more" : "";
+            logError(result.failures().size() + " files failed in fan-out mode.");
+            showAlert(Alert.AlertType.WARNING, "Partially Completed", "Saved " + result.succeeded() + " of " + inputs.size()
+                    + " files to: " + folder.getName() + "\n\nFailed:\n" + String.join("\n", shown) + more);
+        });
+    }
+
+    private FanOutResult fanOut(List<File> inputs, File folder, String outputSuffix, PdfOperation operation, TaskContext context) throws InterruptedException, IOException {
+        // Bounds the documents open at once, and with them the memory used
+        Semaphore slots = new Semaphore(FAN_OUT_PARALLELISM);
+        List<TaskHandle<Void>> submitted = new ArrayList<>();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        JobContext job = JobContext.of(context);
+        Set<String> usedNames = new HashSet<>();
+        AtomicInteger finished = new AtomicInteger();
+        boolean completed = false;
+
+        try {
+            for (File input : inputs) {
+                context.checkCancelled();
+                File output = uniqueOutput(folder, input, outputSuffix, usedNames);
+                slots.acquire();
+                TaskHandle<Void> handle = ExecutionManager.submit(TaskKind.CPU, OverflowPolicy.BLOCK_CALLER, fileContext -> {
+                    fileContext.checkCancelled();
+                    // The slots bound the open documents; the governor bounds their memory
+                    try (MemoryGovernor.Grant grant = MemoryGovernor.acquire(operationName, input.length(), fileContext)) {
+                        processPdfSafely(input, output, operation, grant.applyTo(job.withTask(fileContext)));
+                    }
+                    return null;
+                });
+                submitted.add(handle);
+                handle.onComplete((ignored, error) -> {
+                    if (error != null && !(error instanceof CancellationException)) {
+                        failures.add(input.getName() + ": " + error.getMessage());
+                    }
+                    context.reportProgress(finished.incrementAndGet(), inputs.size());
+                    slots.release();
+                });
+            }
+            // All slots free again means every file has finished
+            slots.acquire(FAN_OUT_PARALLELISM);
+            completed = true;
+        } finally {
+            if (!completed) {
+                submitted.forEach(TaskHandle::cancel);
+            }
+        }
+        return new FanOutResult(inputs.size() - failures.size(), List.copyOf(failures));
+    }
+
+    /**
+     * Names the output after the input; inputs with the same name from different folders
+     * get a counter instead of overwriting each other.
+     */
+    private static File uniqueOutput(File folder, File input, String outputSuffix, Set<String> usedNames) {
+        String base = input.getName().replaceFirst("(?i)\\.pdf$", "") + outputSuffix;
+        String name = base + ".pdf";
+        for (int n = 2; !usedNames.add(name.toLowerCase()); n++) {
+            name = base + "_" + n + ".pdf";
+        }
+        return new File(folder, name);
+    }
+
+    private record FanOutResult(int succeeded, List<String> failures) { }
+
+    // --- DEPENDENCY INJECTION / TEMPLATE METHOD (The Gold Standard) ---
+    /**
+     * Centralized execution method. 
+     * Injects the global UI memory settings dynamically and handles closing streams automatically.
+     */
+    protected void processPdfSafely(File inputFile, File outputFile, PdfOperation operation) throws IOException, GeneralSecurityException {
+        processPdfSafely(inputFile, outputFile, operation, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * Variant for code running inside a job, which keeps the job's memory limit and temp folder.
+     */
+    protected void processPdfSafely(File inputFile, File outputFile, PdfOperation operation, JobContext job) throws IOException, GeneralSecurityException {
+        try (PDDocument document = PdfLoader.load(inputFile, job.getMemorySetting())) {
+            operation.execute(document, job);
+            document.save(outputFile);
+        }
+    }
+
+    // --- PDF Safe Fallback Methods ---
+    // For edge-cases where a child controller MUST manage the document lifecycle manually
+    protected PDDocument loadDocumentSafe(String path) throws IOException {
+        return PdfLoader.load(new File(path));
+    }
+    
+    protected PDDocument loadDocumentSafe(String path, String pass) throws IOException {
+        return PdfLoader.load(new File(path), pass);
+    }
+    
+    protected PDDocument createDocumentSafe() {
+        return ScratchStorage.newDocument();
+    }
+    
+    /**
+     * Runs a headless command in a worker process when worker isolation is on
+     * (Settings > Performance > Worker Processes). A document that exhausts the worker's
+     * memory then fails only this job instead of taking down the application.
+     * * @param args The command line, as typed after HeadlessLauncher.
+     * @return The command's report, or null if isolation is off and the caller should do the work itself.
+     */
+    protected String runInWorker(TaskContext context, String... args) throws IOException {
+        WorkerPool workers = WorkerPool.getShared();
+        if (workers == null) return null;
+        List<String> command = new ArrayList<>(List.of(args));
+        if (!JobJournal.isEnabled()) command.add(1, "--no-resume");
+        if (ScratchStorage.isOffHeapEnabled()) command.add(1, "--offheap-mb=" + ScratchStorage.getOffHeapLimit() / (1024 * 1024));
+        if (TempFileManager.getQuota() > 0) command.add(1, "--temp-quota-mb=" + TempFileManager.getQuota() / (1024 * 1024));
+        return workers.run(command, context);
+    }
+
+    /**
+     * Creates the file a tool merges several inputs into before processing them, in the job's
+     * temp folder and only if the temp quota and the disk have room for all of them.
+     */
+    protected File createMergeTempFile(String prefix, List<String> paths, TaskContext context) throws IOException {
+        long totalBytes = paths.stream().mapToLong(path -> new File(path).length()).sum();
+        return JobContext.of(context).createTempFile(prefix, ".pdf", totalBytes);
+    }
+
+    /**
+     * Delegates to the highly-optimized PdfService to prevent OS file limits
+     * and memory exhaustion on massive batches.
+     */
+    protected void mergeDocumentsSafe(List<String> paths, File dest) throws IOException, GeneralSecurityException {
+        mergeDocumentsSafe(paths, dest, TaskContext.NONE);
+    }
+
+    protected void mergeDocumentsSafe(List<String> paths, File dest, TaskContext context) throws IOException, GeneralSecurityException {
+        if (WorkerPool.getShared() != null) {
+            List<String> args = new ArrayList<>(List.of("merge", "--output=" + dest.getAbsolutePath(),
+                    "--mode=" + PdfService.getMergeMode().name(), "--preflight=" + PdfService.getPreflightPolicy().name()));
+            if (PdfService.isResourceDeduplicationEnabled()) args.add("--dedup");
+            if (PdfService.isFastPathMergeEnabled()) args.add("--fast-path");
+            args.add("--");
+            args.addAll(paths);
+            runInWorker(context, args.toArray(String[]::new));
+            return;
+        }
+        try {
+            pdfService.merge(paths, dest.getAbsolutePath(), context);
+        } catch (PreflightException | CancellationException e) {
+            // The pre-flight summary names the bad files and cancellation is not an error, don't wrap either
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Merge operation failed", e);
+        }
+    }
+
+    // --- Interface Implementations & Helpers ---
+    @Override public FileListView getFileListView() { return fileListView; }
+    @Override public ComboBox<String> getSortCombo() { return sortCombo; }
+    @Override public ToggleButton getListViewBtn() { return listViewBtn; }
+    @Override public ToggleButton getGridViewBtn() { return gridViewBtn; }
+    @Override public void setNavigationService(NavigationService nav) { this.navigationService = nav; }
+
+    /**
+     * Runs a preview on the reserved interactive worker, ahead of batch jobs and thumbnails.
+     * * @param busyButton Shown as busy by the caller; released here if the preview cannot be queued.
+     */
+    protected void runPreview(Button busyButton, Runnable preview) {
+        try {
+            ExecutionManager.submit(TaskPriority.INTERACTIVE, TaskKind.CPU, OverflowPolicy.REJECT, preview);
+        } catch (RejectedExecutionException e) {
+            setBusy(false, busyButton);
+            showQueueFull();
+        }
+    }
+
+    private void showQueueFull() {
+        showAlert(Alert.AlertType.WARNING, "Busy", "Too many tasks are waiting. Please try again in a moment.");
+    }
+
+    protected void setBusy(boolean b, Button btn) {
+        progressIndicator.setVisible(b);
+        btn.setDisable(b);
+        if(!b) updateActionBtnState(); 
+    }
+
+    protected void showAlert(Alert.AlertType t, String title, String content) {
+        Alert a = new Alert(t); 
+        a.setTitle(title); 
+        a.setHeaderText(null); 
+        a.setContentText(content); 
+        a.show();
+    }
+
+    @FunctionalInterface 
+    public interface ToolTask { 
+        void execute(File destination) throws IOException, GeneralSecurityException; 
+    }
+
+    @FunctionalInterface 
+    public interface CancellableToolTask { 
+        void execute(File destination, TaskContext context) throws IOException, GeneralSecurityException; 
+    }
+
+    protected void logInfo(String message) {
+        LogManager.log("INFO", message);
+    }
+
+    protected void logError(String message) {
+        LogManager.log("ERROR", message);
+    }
+}
\ No newline at end of file
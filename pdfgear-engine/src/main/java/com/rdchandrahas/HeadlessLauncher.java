@@ -0,0 +1,25 @@
+package com.rdchandrahas;
+
+import com.rdchandrahas.cli.CliRunner;
+
+/**
+ * The HeadlessLauncher is the command-line entry point for batch servers and cron jobs.
+ * It runs the same tools as the desktop application without a window: the JavaFX toolkit
+ * is never started, so no display is needed and startup stays fast.
+ *
+ * Example: java -cp PDFGear.jar com.rdchandrahas.HeadlessLauncher rotate --angle 90 "in/*.pdf"
+ */
+public class HeadlessLauncher {
+
+    /**
+     * Runs one command and exits with its status code.
+     * * @param args The command followed by its options and inputs; "help" lists the commands.
+     */
+    public static void main(String[] args) {
+        // AWT is used for image encoding only; never let it look for a display
+        System.setProperty("java.awt.headless", "true");
+
+        int exitCode = new CliRunner(System.out, System.err).run(args);
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,79 @@
+package com.rdchandrahas.cli;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CliCommand is one verb of the headless command line (merge, split, rotate, ...).
+ * Commands are registered in CommandRegistry and run by CliRunner.
+ */
+public interface CliCommand {
+
+    /**
+     * @return The verb typed on the command line, e.g. "rotate".
+     */
+    String getName();
+
+    /**
+     * @return A one-line description for the command list.
+     */
+    String getSummary();
+
+    /**
+     * @return The usage text of the command, one option per line.
+     */
+    String getUsage();
+
+    /**
+     * @return The command-specific options it accepts, without the leading dashes.
+     */
+    Set<String> getOptions();
+
+    /**
+     * @return The file extensions picked up when an input is a directory or a glob.
+     */
+    default List<String> getInputExtensions() {
+        return List.of(".pdf");
+    }
+
+    /**
+     * @return true if all inputs form one output named with --output, false if every input
+     * gets its own output next to it or in --out-dir.
+     */
+    default boolean isCombining() {
+        return false;
+    }
+
+    /**
+     * Runs the command over the resolved inputs.
+     * * @param line The parsed command line, for options and the output location.
+     * @param inputs The input files, in command line order.
+     * @param jobs Executes the jobs and reports their outcome.
+     * @throws UsageException If the options are invalid; nothing has been processed yet.
+     */
+    void run(CommandLine line, List<File> inputs, JobSink jobs) throws UsageException;
+
+    /**
+     * @return true if the command can read one PDF from standard input ("-") and write its
+     * result to standard output ("-o -"), for use in shell pipelines.
+     */
+    default boolean isStreamable() {
+        return false;
+    }
+
+    /**
+     * Runs the command on a single document passed through the process instead of the file system.
+     * * @param line The parsed command line, for options.
+     * @param input The input file, or null to read the document from stdin.
+     * @param stdin The process input, read to its end when input is null.
+     * @param output Receives the result; it is flushed but not closed.
+     * @param jobs Executes the job and reports its outcome.
+     * @throws UsageException If the command cannot stream or the options are invalid.
+     */
+    default void runStream(CommandLine line, File input, InputStream stdin, OutputStream output, JobSink jobs) throws UsageException {
+        throw new UsageException(getName() + " cannot read standard input or write standard output.");
+    }
+}
@@ -0,0 +1,563 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.CancellableTask;
+import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.JobJournal;
+import com.rdchandrahas.core.MemoryGovernor;
+import com.rdchandrahas.core.PdfService;
+import com.rdchandrahas.core.ScratchStorage;
+import com.rdchandrahas.core.TaskHandle;
+import com.rdchandrahas.shared.util.TempFileManager;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * CliRunner executes one headless command: it parses the arguments, resolves the inputs,
+ * runs the jobs through ExecutionManager and turns the outcome into a process exit code.
+ * Nothing here touches JavaFX, so it runs on servers without a display.
+ */
+public class CliRunner {
+
+    public static final int EXIT_OK = 0;
+    /** At least one input failed; the others were still processed. */
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    /** Options understood by every command. */
+    private static final Set<String> GLOBAL_OPTIONS = Set.of("output", "out-dir", "memory-mb", "offheap-mb", "memory-pool-mb", "serial", "quiet",
+            "help", "isolate", "workers", "worker-heap-mb", "no-resume", "journal-dir", "temp-quota-mb", "fast-temp");
+
+    private static final String SERVE = "serve";
+    private static final String WATCH = "watch";
+    private static final Set<String> WATCH_OPTIONS = Set.of("run", "out-dir", "error-dir", "archive-dir", "settle-ms", "max-in-flight",
+            "memory-mb", "offheap-mb", "memory-pool-mb", "serial", "quiet", "isolate", "workers", "worker-heap-mb", "no-resume", "journal-dir",
+            "temp-quota-mb", "fast-temp");
+    private static final Set<String> SERVE_OPTIONS = Set.of("port", "token-env", "input-root", "max-upload-mb", "job-ttl-min", "max-jobs",
+            "memory-mb", "offheap-mb", "memory-pool-mb", "serial", "quiet", "help", "temp-quota-mb", "fast-temp");
+
+    /**
+     * Failed jobs are already reported with one line each, so the stack trace TaskHandle logs
+     * for every failure is silenced. Held in a field because the logging framework keeps
+     * loggers only weakly and would forget the level.
+     */
+    private static final Logger TASK_LOGGER = Logger.getLogger(TaskHandle.class.getName());
+
+    /** The input or output name that stands for stdin or stdout. */
+    private static final String STDIO = "-";
+
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public CliRunner(PrintStream out, PrintStream err) {
+        this(System.in, out, err);
+    }
+
+    /**
+     * @param in Read by streaming commands given "-" as their input.
+     */
+    public CliRunner(InputStream in, PrintStream out, PrintStream err) {
+        this.in = in;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * @param args The command line arguments.
+     * @return The process exit code.
+     */
+    public int run(String[] args) {
+        CommandLine line;
+        try {
+            line = CommandLine.parse(args);
+        } catch (UsageException e) {
+            err.println("Error: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        String name = line.getCommand();
+        if (name == null || name.equals("help")) {
+            String topicName = line.getInputs().isEmpty() ? "" : line.getInputs().get(0);
+            CliCommand topic = CommandRegistry.get(topicName);
+            if (topic != null) printCommandUsage(out, topic);
+            else if (topicName.equals(SERVE)) printServeUsage(out);
+            else if (topicName.equals(WATCH)) printWatchUsage(out);
+            else printUsage(out);
+            return name == null && !line.isSet("help") ? EXIT_USAGE : EXIT_OK;
+        }
+        if (name.equals(SERVE)) {
+            if (line.isSet("help")) {
+                printServeUsage(out);
+                return EXIT_OK;
+            }
+            try {
+                return serve(line);
+            } catch (UsageException e) {
+                err.println("Error: " + e.getMessage());
+                err.println("Run 'help serve' for the options of the server.");
+                return EXIT_USAGE;
+            }
+        }
+
+        if (name.equals(WATCH)) {
+            if (line.isSet("help")) {
+                printWatchUsage(out);
+                return EXIT_OK;
+            }
+            try {
+                return watch(line);
+            } catch (UsageException e) {
+                err.println("Error: " + e.getMessage());
+                err.println("Run 'help watch' for the options of the watcher.");
+                return EXIT_USAGE;
+            }
+        }
+
+        CliCommand command = CommandRegistry.get(name);
+        if (command == null) {
+            err.println("Error: Unknown command '" + name + "'.");
+            printUsage(err);
+            return EXIT_USAGE;
+        }
+        if (line.isSet("help")) {
+            printCommandUsage(out, command);
+            return EXIT_OK;
+        }
+
+        try {
+            return execute(command, line);
+        } catch (UsageException e) {
+            err.println("Error: " + e.getMessage());
+            err.println("Run 'help " + command.getName() + "' for the options of this command.");
+            return EXIT_USAGE;
+        }
+    }
+
+    private int execute(CliCommand command, CommandLine line) throws UsageException {
+        Set<String> unknown = new HashSet<>(line.getOptionNames());
+        unknown.removeAll(GLOBAL_OPTIONS);
+        unknown.removeAll(command.getOptions());
+        if (!unknown.isEmpty()) {
+            throw new UsageException("Unknown option(s) for " + command.getName() + ": --" + String.join(", --", unknown));
+        }
+        if (line.getInputs().isEmpty()) {
+            throw new UsageException("No input files given.");
+        }
+        if (line.getInputs().contains(STDIO) || STDIO.equals(line.get("output", null))) {
+            return executeStream(command, line);
+        }
+
+        applyProcessOptions(line);
+        boolean quiet = line.isSet("quiet");
+
+        List<File> inputs;
+        try {
+            inputs = InputResolver.resolve(line.getInputs(), command.getInputExtensions());
+        } catch (IOException e) {
+            throw new UsageException("Cannot read inputs: " + e.getMessage());
+        }
+
+        long start = System.nanoTime();
+        JobRunner runner = new JobRunner(out, err, quiet);
+        // A scheduler stopping the job should not have to wait for the whole backlog
+        Thread cancelOnExit = new Thread(runner::cancelAll, "cli-shutdown");
+        Runtime.getRuntime().addShutdownHook(cancelOnExit);
+        try {
+            command.run(line, inputs, runner);
+            runner.awaitAll();
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(cancelOnExit);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down and the hook is running
+            }
+        }
+
+        long seconds = (System.nanoTime() - start) / 1_000_000_000;
+        if (!quiet || runner.getFailed() > 0) {
+            out.println(command.getName() + ": " + runner.getSucceeded() + " succeeded, "
+                    + runner.getFailed() + " failed in " + seconds + " s");
+        }
+        return runner.getFailed() == 0 ? EXIT_OK : EXIT_FAILED;
+    }
+
+    /**
+     * Runs a streaming command: "-" as the input reads the document from stdin, and the result
+     * goes to stdout unless -o names a file. Since stdout may carry the document, every report
+     * goes to stderr.
+     */
+    private int executeStream(CliCommand command, CommandLine line) throws UsageException {
+        if (!command.isStreamable()) {
+            throw new UsageException(command.getName() + " cannot read standard input or write standard output. Streaming commands: "
+                    + String.join(", ", CommandRegistry.getCommands().stream().filter(CliCommand::isStreamable).map(CliCommand::getName).toList()) + ".");
+        }
+        if (line.getInputs().size() != 1) {
+            throw new UsageException("Streaming takes exactly one input: a file, or - for standard input.");
+        }
+        if (line.has("out-dir")) {
+            throw new UsageException("--out-dir cannot be combined with streaming; use -o <file> or -o -.");
+        }
+
+        File input = null;
+        if (!line.getInputs().get(0).equals(STDIO)) {
+            input = new File(line.getInputs().get(0)).getAbsoluteFile();
+            if (!input.isFile()) throw new UsageException("Input not found: " + line.getInputs().get(0));
+        }
+        String outputName = line.get("output", STDIO);
+        File outputFile = outputName.equals(STDIO) ? null : new File(outputName).getAbsoluteFile();
+        if (outputFile != null && outputFile.equals(input)) {
+            throw new UsageException("The output would overwrite the input.");
+        }
+
+        applyProcessOptions(line);
+        boolean quiet = line.isSet("quiet");
+        JobRunner runner = new JobRunner(err, err, quiet);
+        Thread cancelOnExit = new Thread(runner::cancelAll, "cli-shutdown");
+        Runtime.getRuntime().addShutdownHook(cancelOnExit);
+        try (OutputStream output = outputFile == null ? new UnclosedStream(out) : new FileOutputStream(outputFile)) {
+            command.runStream(line, input, in, output, runner);
+            runner.awaitAll();
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return EXIT_FAILED;
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(cancelOnExit);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down and the hook is running
+            }
+        }
+
+        if (runner.getFailed() > 0) {
+            // Do not leave a truncated document behind for the next step of a script
+            if (outputFile != null && !outputFile.delete()) {
+                err.println("Warning: could not delete incomplete output " + outputFile);
+            }
+            return EXIT_FAILED;
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Lets the try-with-resources above close file outputs without closing the process stdout.
+     */
+    private static final class UnclosedStream extends FilterOutputStream {
+        UnclosedStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Runs the HTTP job server until the process is stopped.
+     */
+    private int serve(CommandLine line) throws UsageException {
+        Set<String> unknown = new HashSet<>(line.getOptionNames());
+        unknown.removeAll(SERVE_OPTIONS);
+        if (!unknown.isEmpty() || !line.getInputs().isEmpty()) {
+            throw new UsageException("Unknown option(s) or arguments for serve: " + String.join(", ", unknown) + " " + String.join(" ", line.getInputs()));
+        }
+        applyProcessOptions(line);
+
+        // Any local user could otherwise submit jobs, so a server without --token-env gets a random token
+        String token;
+        boolean generatedToken = !line.has("token-env");
+        if (generatedToken) {
+            byte[] secret = new byte[24];
+            new SecureRandom().nextBytes(secret);
+            token = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        } else {
+            token = System.getenv(line.get("token-env", ""));
+            if (token == null || token.isEmpty()) {
+                throw new UsageException("Environment variable " + line.get("token-env", "") + " is not set.");
+            }
+        }
+        Path inputRoot = null;
+        if (line.has("input-root")) {
+            try {
+                inputRoot = Path.of(line.get("input-root", "")).toRealPath();
+            } catch (IOException | InvalidPathException e) {
+                throw new UsageException("--input-root must be an existing folder: " + line.get("input-root", ""));
+            }
+            if (!Files.isDirectory(inputRoot)) {
+                throw new UsageException("--input-root must be an existing folder: " + line.get("input-root", ""));
+            }
+        }
+        JobServer server = new JobServer(line.getInt("port", 8765), token, inputRoot,
+                line.getInt("max-upload-mb", 512) * 1024L * 1024L,
+                line.getInt("job-ttl-min", 60) * 60_000L,
+                line.getInt("max-jobs", 10_000));
+        try {
+            server.start();
+        } catch (IOException e) {
+            err.println("Error: Cannot start the server: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+        out.println("Listening on " + server.getAddress() + " (Ctrl+C to stop)");
+        if (generatedToken) {
+            out.println("Token: " + token + " (send \"Authorization: Bearer <token>\"; use --token-env to choose it)");
+        }
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            stopped.countDown();
+        }, "server-shutdown"));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Watches a folder and runs one command on every file that arrives, until the process is stopped.
+     */
+    private int watch(CommandLine line) throws UsageException {
+        if (line.getInputs().size() != 1) {
+            throw new UsageException("Give exactly one folder to watch.");
+        }
+        CliCommand command = CommandRegistry.get(line.require("run"));
+        if (command == null || command.isCombining()) {
+            throw new UsageException("--run needs a command that processes each file on its own, e.g. compress or pipeline.");
+        }
+
+        Map<String, String> commandOptions = new HashMap<>();
+        for (String option : line.getOptionNames()) {
+            if (command.getOptions().contains(option)) {
+                commandOptions.put(option, line.get(option, null));
+            } else if (!WATCH_OPTIONS.contains(option)) {
+                throw new UsageException("Unknown option --" + option + " for watch or " + command.getName() + ".");
+            }
+        }
+        if (line.isSet(WorkerPool.OPT_ISOLATE)) {
+            commandOptions.put(WorkerPool.OPT_ISOLATE, "true");
+            // Workers are separate processes and need the journal and temp settings on their own command line
+            if (line.isSet("no-resume")) commandOptions.put("no-resume", "true");
+            if (line.has("journal-dir")) commandOptions.put("journal-dir", line.get("journal-dir", null));
+            if (line.has("temp-quota-mb")) commandOptions.put("temp-quota-mb", line.get("temp-quota-mb", null));
+        }
+
+        Path inbox = existingFolder(line.getInputs().get(0));
+        Path outDir = folder(line.require("out-dir"));
+        Path errorDir = line.has("error-dir") ? folder(line.get("error-dir", null)) : inbox.resolve("failed");
+        Path archiveDir = line.has("archive-dir") ? folder(line.get("archive-dir", null)) : null;
+        if (outDir.equals(inbox) || errorDir.equals(inbox) || inbox.equals(archiveDir)) {
+            throw new UsageException("The output, error and archive folders must differ from the watched folder.");
+        }
+        int maxInFlight = line.getInt("max-in-flight", Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+        if (maxInFlight < 1) throw new UsageException("--max-in-flight must be at least 1.");
+
+        // A dry run without inputs checks the command's options once instead of failing every file
+        command.run(CommandLine.of(command.getName(), commandOptions, List.of()), List.of(), new JobSink() {
+            @Override public void submit(String label, CancellableTask<String> task) { /* No inputs */ }
+            @Override public void reject(String label, String reason) { /* No inputs */ }
+        });
+        applyProcessOptions(line);
+
+        HotFolder hotFolder = new HotFolder(inbox, outDir, errorDir, archiveDir, command, commandOptions,
+                line.getInt("settle-ms", 2000), maxInFlight, out, err);
+        CountDownLatch finished = new CountDownLatch(1);
+        Thread stopOnExit = new Thread(() -> {
+            hotFolder.stop();
+            try {
+                finished.await(40, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "watch-shutdown");
+        Runtime.getRuntime().addShutdownHook(stopOnExit);
+
+        out.println("Watching " + inbox + " -> " + outDir + " with " + command.getName() + " (Ctrl+C to stop)");
+        try {
+            hotFolder.run();
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return EXIT_FAILED;
+        } finally {
+            finished.countDown();
+            out.println(WATCH + ": " + hotFolder.getSucceeded() + " succeeded, " + hotFolder.getFailed() + " failed");
+        }
+        return EXIT_OK;
+    }
+
+    private static Path existingFolder(String path) throws UsageException {
+        Path dir = new File(path).getAbsoluteFile().toPath().normalize();
+        if (!Files.isDirectory(dir)) throw new UsageException("Not a folder: " + path);
+        return dir;
+    }
+
+    private static Path folder(String path) throws UsageException {
+        Path dir = new File(path).getAbsoluteFile().toPath().normalize();
+        try {
+            return Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UsageException("Cannot create folder " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static void printWatchUsage(PrintStream stream) {
+        stream.println("Usage: HeadlessLauncher watch <folder> --run <command> --out-dir <dir> [command options]");
+        stream.println("Process every file dropped into the folder, as soon as it is completely written.");
+        stream.println();
+        stream.print("""
+                  --run <command>           The command applied to each file, e.g. compress or pipeline
+                  --out-dir <dir>           Where the results go (required)
+                  --error-dir <dir>         Where failed files go, with a .error.txt note (default <folder>/failed)
+                  --archive-dir <dir>       Keep processed originals here instead of deleting them
+                  --settle-ms <n>           How long a file must stay unchanged before it is processed (default 2000)
+                  --max-in-flight <n>       Files processed at once (default twice the CPU count)
+                  --memory-mb, --serial, --quiet, --isolate as for the other commands
+
+                Example: watch /srv/scans --run pipeline --recipe board-pack.txt --out-dir /srv/ready
+                """);
+    }
+
+    /**
+     * Applies the options that change process-wide settings: logging, memory and threading.
+     */
+    private static void applyProcessOptions(CommandLine line) throws UsageException {
+        TASK_LOGGER.setLevel(Level.OFF);
+        if (line.isSet("quiet")) {
+            Logger.getLogger("").setLevel(Level.WARNING);
+        }
+        if (line.has("memory-mb")) {
+            PdfService.setMemoryLimit(line.getMemoryLimitBytes());
+        }
+        if (line.has("offheap-mb")) {
+            ScratchStorage.setOffHeapLimit(line.getInt("offheap-mb", 0) * 1024L * 1024L);
+        }
+        if (line.has("memory-pool-mb")) {
+            MemoryGovernor.setPoolSize(line.getInt("memory-pool-mb", 0) * 1024L * 1024L);
+        }
+        if (line.has("temp-quota-mb")) {
+            TempFileManager.setQuota(line.getInt("temp-quota-mb", 0) * 1024L * 1024L);
+        }
+        if (line.has("fast-temp")) {
+            String fastTemp = line.get("fast-temp", "");
+            TempFileManager.setPreferredDirs(fastTemp.equalsIgnoreCase("off") ? List.of() : List.of(Path.of(fastTemp)));
+        }
+        if (line.isSet("serial")) {
+            ExecutionManager.setMultiThreading(false);
+        }
+        if (line.isSet("no-resume")) {
+            JobJournal.setEnabled(false);
+        }
+        if (line.has("journal-dir")) {
+            JobJournal.setDirectory(Path.of(line.get("journal-dir", null)));
+        }
+        if (line.isSet(WorkerPool.OPT_ISOLATE)) {
+            int workers = line.getInt("workers", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+            int heapMb = line.getInt("worker-heap-mb", 1024);
+            if (workers < 1 || heapMb < 64) {
+                throw new UsageException("--workers must be at least 1 and --worker-heap-mb at least 64.");
+            }
+            WorkerPool.configure(workers, heapMb);
+        }
+    }
+
+    private static void printServeUsage(PrintStream stream) {
+        stream.println("Usage: HeadlessLauncher serve [options]");
+        stream.println("Serve the commands over HTTP on 127.0.0.1 for other processes on this host.");
+        stream.println();
+        stream.print("""
+                  --port <n>                Port to listen on (default 8765)
+                  --token-env <VAR>         Take the token for "Authorization: Bearer <token>" from VAR
+                                            (default: a random token, printed at startup)
+                  --input-root <dir>        Allow ?input= for files below this folder (default: uploads only)
+                  --max-upload-mb <n>       Largest accepted input upload (default 512)
+                  --job-ttl-min <n>         Minutes a finished job's files are kept (default 60)
+                  --max-jobs <n>            Jobs kept at once before new ones get 503 (default 10000)
+                  --memory-mb, --memory-pool-mb, --serial, --quiet as for the other commands
+
+                Endpoints:
+                  POST   /jobs/<command>?option=value   Body: the input file, or ?input=path (repeatable, needs --input-root)
+                  GET    /jobs/<id>                     Status: QUEUED, RUNNING, DONE, FAILED or CANCELLED
+                  GET    /jobs/<id>/result              The output, or a zip if there are several
+                  DELETE /jobs/<id>                     Cancel and delete the job
+                  GET    /jobs, /commands, /metrics
+                """);
+    }
+
+    private static void printUsage(PrintStream stream) {
+        stream.println("Usage: HeadlessLauncher <command> [options] <inputs...>");
+        stream.println();
+        stream.println("Inputs may be files, folders or quoted globs like \"scans/**/*.pdf\".");
+        stream.println();
+        stream.println("Commands:");
+        for (CliCommand command : CommandRegistry.getCommands()) {
+            stream.printf("  %-16s %s%n", command.getName(), command.getSummary());
+        }
+        stream.printf("  %-16s %s%n", SERVE, "Run a local HTTP job server");
+        stream.printf("  %-16s %s%n", WATCH, "Process every file dropped into a folder");
+        stream.println();
+        stream.println("Options for all commands:");
+        stream.println("  --out-dir <dir>           Write outputs here instead of next to each input");
+        stream.println("  -o, --output <file>       The output file, for a single input");
+        stream.println("  --memory-mb <n>           RAM per document before PDFBox spills to disk (0: no limit)");
+        stream.println("  --offheap-mb <n>          Keep document data outside the Java heap, up to n MB for all");
+        stream.println("                            documents together, then in a memory-mapped temp file");
+        stream.println("  --memory-pool-mb <n>      Heap all running jobs may claim together; jobs that do not fit");
+        stream.println("                            wait for a free budget (default: 70% of the maximum heap)");
+        stream.println("  --temp-quota-mb <n>       Fail a job before it writes if temp files would exceed n MB");
+        stream.println("  --fast-temp <dir|off>     Put temp files on this fast disk while it has room");
+        stream.println("                            (default off: the system temp folder)");
+        stream.println("  --serial                  Process one file at a time");
+        stream.println("  --quiet                   Only report failures");
+        stream.println("  --isolate                 Run each job in a separate worker JVM, so a huge or broken PDF");
+        stream.println("                            only fails its own job (with --workers <n>, --worker-heap-mb <n>)");
+        stream.println("  --no-resume               Start merge, split and to-image from scratch instead of resuming");
+        stream.println("                            an interrupted run; checkpoints go to --journal-dir <dir>");
+        stream.println("                            (default ~/.pdfgear/journal)");
+        stream.println();
+        stream.println("Streaming commands also read one PDF from standard input given - as the input,");
+        stream.println("and write to standard output with -o - (the default for standard input):");
+        stream.println("  cat in.pdf | HeadlessLauncher compress --percent 40 - > out.pdf");
+        stream.println();
+        stream.println("Run 'help <command>' for the options of a command.");
+        stream.println("Exit codes: 0 success, 1 some inputs failed, 2 invalid command line.");
+    }
+
+    private static void printCommandUsage(PrintStream stream, CliCommand command) {
+        stream.println("Usage: HeadlessLauncher " + command.getName() + " [options] <inputs...>");
+        stream.println(command.getSummary());
+        if (!command.getUsage().isEmpty()) {
+            stream.println();
+            stream.print(command.getUsage());
+        }
+        if (command.isStreamable()) {
+            stream.println();
+            stream.println("Streams: use - as the input for standard input and -o - for standard output.");
+        }
+    }
+}
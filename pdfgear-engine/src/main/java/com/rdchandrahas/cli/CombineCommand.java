@@ -0,0 +1,80 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.JobContext;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CombineCommand turns all inputs into a single output file, e.g. merge or images-to-pdf.
+ * The output must be named with --output; the inputs keep their command line order.
+ */
+class CombineCommand implements CliCommand {
+
+    /**
+     * The work done for the whole input set.
+     */
+    @FunctionalInterface
+    interface CombineJob {
+        void run(List<String> inputs, File output, JobContext job) throws Exception;
+    }
+
+    /**
+     * Validates the options once, before any file is touched, and builds the job.
+     */
+    @FunctionalInterface
+    interface JobFactory {
+        CombineJob create(CommandLine line) throws UsageException;
+    }
+
+    private final String name;
+    private final String summary;
+    private final String usage;
+    private final Set<String> options;
+    private final List<String> inputExtensions;
+    private final JobFactory jobFactory;
+
+    CombineCommand(String name, String summary, String usage, Set<String> options,
+                   List<String> inputExtensions, JobFactory jobFactory) {
+        this.name = name;
+        this.summary = summary;
+        this.usage = usage;
+        this.options = options;
+        this.inputExtensions = inputExtensions;
+        this.jobFactory = jobFactory;
+    }
+
+    @Override public String getName() { return name; }
+    @Override public String getSummary() { return summary; }
+    @Override public String getUsage() { return usage; }
+    @Override public Set<String> getOptions() { return options; }
+    @Override public List<String> getInputExtensions() { return inputExtensions; }
+    @Override public boolean isCombining() { return true; }
+
+    @Override
+    public void run(CommandLine line, List<File> inputs, JobSink jobs) throws UsageException {
+        CombineJob job = jobFactory.create(line);
+        File output = new File(line.require("output")).getAbsoluteFile();
+        if (inputs.contains(output)) {
+            throw new UsageException("The output " + output + " is also an input.");
+        }
+
+        List<String> paths = inputs.stream().map(File::getAbsolutePath).toList();
+        WorkerPool workers = line.isSet(WorkerPool.OPT_ISOLATE) ? WorkerPool.getShared() : null;
+        if (workers != null) {
+            List<String> command = WorkerPool.commandFor(line, "output", output, paths);
+            jobs.submit(inputs.size() + " files", context -> {
+                workers.run(command, context);
+                return output.getPath() + " (worker)";
+            });
+            return;
+        }
+        long inputBytes = inputs.stream().mapToLong(File::length).sum();
+        JobSettings settings = JobSettings.of(line);
+        jobs.submit(inputs.size() + " files", context -> settings.run(inputBytes, context, jobContext -> {
+            job.run(paths, output, jobContext);
+            return output.getPath();
+        }));
+    }
+}
@@ -0,0 +1,170 @@
+package com.rdchandrahas.cli;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CommandLine is the parsed form of "command [--option value | --flag]... inputs...".
+ * Options may also be written as --option=value, "-o" is short for "--output",
+ * and "--" ends option parsing so that inputs may start with dashes.
+ */
+public class CommandLine {
+
+    /** Options that take no value. Every other option consumes the next argument. */
+    private static final Set<String> FLAGS = Set.of("help", "quiet", "serial", "bold", "italic", "dedup", "fast-path", "isolate", "no-resume");
+
+    /** Set by the job server only: the folder for the temp files of the request's jobs. */
+    static final String OPT_TEMP_DIR = "temp-dir";
+
+    private final String command;
+    private final Map<String, String> options;
+    private final List<String> inputs;
+
+    private CommandLine(String command, Map<String, String> options, List<String> inputs) {
+        this.command = command;
+        this.options = options;
+        this.inputs = inputs;
+    }
+
+    /**
+     * @param args The raw arguments; the first one that is not an option is the command.
+     * @return The parsed command line. The command is null if none was given.
+     * @throws UsageException If an option is missing its value.
+     */
+    public static CommandLine parse(String[] args) throws UsageException {
+        String command = null;
+        Map<String, String> options = new HashMap<>();
+        List<String> inputs = new ArrayList<>();
+        boolean optionsEnded = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!optionsEnded && arg.equals("--")) {
+                optionsEnded = true;
+            } else if (!optionsEnded && (arg.startsWith("--") || arg.equals("-o") || arg.equals("-h"))) {
+                String name = switch (arg) {
+                    case "-o" -> "output";
+                    case "-h" -> "help";
+                    default -> arg.substring(2);
+                };
+                String value;
+                int eq = name.indexOf('=');
+                if (eq >= 0) {
+                    value = name.substring(eq + 1);
+                    name = name.substring(0, eq);
+                } else if (FLAGS.contains(name)) {
+                    value = "true";
+                } else if (i + 1 < args.length) {
+                    value = args[++i];
+                } else {
+                    throw new UsageException("Option --" + name + " requires a value.");
+                }
+                options.put(name, value);
+            } else if (command == null) {
+                command = arg;
+            } else {
+                inputs.add(arg);
+            }
+        }
+        return new CommandLine(command, options, inputs);
+    }
+
+    /**
+     * Builds a command line from already separated parts, e.g. the path and query of an HTTP request.
+     */
+    static CommandLine of(String command, Map<String, String> options, List<String> inputs) {
+        return new CommandLine(command, new HashMap<>(options), new ArrayList<>(inputs));
+    }
+
+    /**
+     * Turns the command and its options back into arguments, as "--name=value" so that values
+     * starting with dashes survive, e.g. to run the same command in a worker process.
+     * * @param excluded Options to leave out.
+     * @return The command followed by its options; the inputs are not included.
+     */
+    List<String> toArguments(Set<String> excluded) {
+        List<String> args = new ArrayList<>();
+        args.add(command);
+        options.forEach((name, value) -> {
+            if (!excluded.contains(name)) args.add("--" + name + "=" + value);
+        });
+        return args;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public List<String> getInputs() {
+        return inputs;
+    }
+
+    public Set<String> getOptionNames() {
+        return options.keySet();
+    }
+
+    public boolean has(String name) {
+        return options.containsKey(name);
+    }
+
+    public boolean isSet(String name) {
+        return Boolean.parseBoolean(options.get(name));
+    }
+
+    public String get(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    public String require(String name) throws UsageException {
+        String value = options.get(name);
+        if (value == null || value.isBlank()) {
+            throw new UsageException("Missing required option --" + name + ".");
+        }
+        return value;
+    }
+
+    public int getInt(String name, int defaultValue) throws UsageException {
+        String value = options.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new UsageException("Option --" + name + " expects a whole number, got '" + value + "'.");
+        }
+    }
+
+    /**
+     * Reads --memory-mb as bytes; zero or a negative value means no limit.
+     * * @return The limit in bytes, or -1 for unlimited.
+     */
+    public long getMemoryLimitBytes() throws UsageException {
+        int megabytes = getInt("memory-mb", 0);
+        return megabytes <= 0 ? -1 : megabytes * 1024L * 1024L;
+    }
+
+    public float getFloat(String name, float defaultValue) throws UsageException {
+        String value = options.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            throw new UsageException("Option --" + name + " expects a number, got '" + value + "'.");
+        }
+    }
+
+    /**
+     * Reads an option that must be one of a fixed set of values, ignoring case.
+     * * @return The matching entry of the allowed values, in its canonical spelling.
+     */
+    public String getChoice(String name, List<String> allowed, String defaultValue) throws UsageException {
+        String value = options.get(name);
+        if (value == null) return defaultValue;
+        for (String candidate : allowed) {
+            if (candidate.equalsIgnoreCase(value.trim())) return candidate;
+        }
+        throw new UsageException("Option --" + name + " must be one of " + allowed + ", got '" + value + "'.");
+    }
+}
@@ -0,0 +1,395 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.CompressService;
+import com.rdchandrahas.core.ExtractionService;
+import com.rdchandrahas.core.ImageToPdfService;
+import com.rdchandrahas.core.MergeMode;
+import com.rdchandrahas.core.MetadataEditorService;
+import com.rdchandrahas.core.PageEditService;
+import com.rdchandrahas.core.PageNumberConfig;
+import com.rdchandrahas.core.PageNumberService;
+import com.rdchandrahas.core.PdfPipeline;
+import com.rdchandrahas.core.PdfService;
+import com.rdchandrahas.core.PipelineRecipe;
+import com.rdchandrahas.core.PreflightPolicy;
+import com.rdchandrahas.core.SecurityService;
+import com.rdchandrahas.core.WatermarkConfig;
+import com.rdchandrahas.core.WatermarkService;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * CommandRegistry defines every command of the headless CLI. Each command only parses
+ * its options and delegates to the same core services the desktop tools use, so both
+ * front ends always produce identical files.
+ */
+public class CommandRegistry {
+
+    private CommandRegistry() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    private static final String OPT_PAGES = "pages";
+    private static final String OPT_PASSWORD = "password";
+    private static final String OPT_PASSWORD_ENV = "password-env";
+    private static final String OPT_FONT = "font";
+    private static final String OPT_SIZE = "size";
+    private static final String OPT_COLOR = "color";
+
+    private static final String PASSWORD_USAGE = """
+              --password <pw>         The password (visible in the process list)
+              --password-env <VAR>    Read the password from an environment variable instead
+            """;
+
+    private static final Map<String, CliCommand> commands = new LinkedHashMap<>();
+
+    static {
+        register(new CombineCommand("merge", "Merge all inputs into one PDF, in the given order", """
+                  -o, --output <file>       The merged PDF (required)
+                  --mode <mode>             batched, tree_reduce or streaming (default: current setting)
+                  --preflight <policy>      off, skip or abort: validate inputs before merging
+                  --dedup                   De-duplicate identical fonts and images across inputs
+                  --fast-path               Copy simple inputs without per-page reconciliation
+                """, Set.of("mode", "preflight", "dedup", "fast-path"), List.of(".pdf"), line -> {
+            // Only this job's context changes, never the process-wide defaults other jobs start with
+            MergeMode mode = line.has("mode") ? parseEnum(line, "mode", MergeMode.class) : null;
+            PreflightPolicy preflight = line.has("preflight") ? parseEnum(line, "preflight", PreflightPolicy.class) : null;
+            boolean dedup = line.isSet("dedup");
+            boolean fastPath = line.isSet("fast-path");
+            PdfService pdfService = new PdfService();
+            return (inputs, output, job) -> pdfService.merge(inputs, output.getAbsolutePath(),
+                    job.withMergeOptions(job.getMergeOptions().override(mode, preflight, dedup, fastPath)));
+        }));
+
+        register(new CombineCommand("images-to-pdf", "Convert images into one PDF, one image per page", """
+                  -o, --output <file>       The PDF to create (required)
+                """, Set.of(), List.of(".png", ".jpg", ".jpeg", ".webp"), line -> {
+            ImageToPdfService service = new ImageToPdfService();
+            return (inputs, output, job) -> service.convertImagesToPdf(inputs, output.getAbsolutePath(), job);
+        }));
+
+        PageEditService pageEditService = new PageEditService();
+
+        register(new PerFileCommand("split", "Split each PDF into one file per page (name_1.pdf, name_2.pdf, ...)", "",
+                Set.of(), "", false, line -> (input, output, job) -> {
+            int pages = pageEditService.split(input, output.getPath(), job);
+            return pages + " files " + output.getPath() + "_N.pdf";
+        }));
+
+        register(new PerFileCommand("rotate", "Rotate pages clockwise", """
+                  --angle <degrees>         90, 180 or 270 (default 90)
+                  --pages <range>           Pages to rotate, e.g. "1,3,5-10" (default: all)
+                """, Set.of("angle", OPT_PAGES), "_rotated.pdf", false, line -> {
+            int angle = parseAngle(line);
+            String pages = line.get(OPT_PAGES, "");
+            return (input, output, job) -> {
+                pageEditService.rotate(input, output, angle, pages, job);
+                return output.getPath();
+            };
+        }).streaming(line -> {
+            int angle = parseAngle(line);
+            String pages = line.get(OPT_PAGES, "");
+            return (input, output, job) -> {
+                pageEditService.rotate(input, output, angle, pages, job);
+                return "rotated";
+            };
+        }));
+
+        register(new PerFileCommand("delete-pages", "Remove pages", """
+                  --pages <range>           Pages to delete, e.g. "1,3,5-10" (required)
+                """, Set.of(OPT_PAGES), "_pages_deleted.pdf", false, line -> {
+            String pages = line.require(OPT_PAGES);
+            return (input, output, job) -> {
+                pageEditService.deletePages(input, output, pages, job);
+                return output.getPath();
+            };
+        }));
+
+        register(new PerFileCommand("rearrange", "Reorder pages", """
+                  --order <order>           The new page order, e.g. "3,1,2,10-4" (required)
+                """, Set.of("order"), "_rearranged.pdf", false, line -> {
+            String order = line.require("order");
+            return (input, output, job) -> {
+                pageEditService.rearrangePages(input, output, order, job);
+                return output.getPath();
+            };
+        }));
+
+        register(new PerFileCommand("compress", "Re-encode images to reach a target size", """
+                  --percent <n>             Reduce the size by n percent (1-99)
+                  --target-size <size>      Reduce to at most this size, e.g. 500KB or 5MB
+                """, Set.of("percent", "target-size"), "_compressed.pdf", false, line -> {
+            CompressService service = new CompressService();
+            LongUnaryOperator target = parseCompressTarget(line);
+            return (input, output, job) -> {
+                boolean compressed = service.compress(input, output, target.applyAsLong(input.length()), job);
+                return output.getPath() + (compressed ? "" : " (already under target, copied)");
+            };
+        }).streaming(line -> {
+            CompressService service = new CompressService();
+            LongUnaryOperator target = parseCompressTarget(line);
+            return (input, output, job) -> {
+                boolean compressed = service.compress(input, output, target.applyAsLong(input.length()), job);
+                return compressed ? "compressed" : "already under target, copied";
+            };
+        }));
+
+        register(new PerFileCommand("watermark", "Stamp a text watermark across every page", """
+                  --text <text>             The watermark text (required)
+                  --font <font>             helvetica, times, courier or a .ttf file (default helvetica)
+                  --bold, --italic          Style of the standard fonts
+                  --size <points>           Font size (default 72)
+                  --color <#RRGGBB>         Text color (default #A9A9A9)
+                  --rotation <degrees>      Counter-clockwise angle (default 45)
+                  --opacity <0.1-1.0>       Fill opacity (default 0.3)
+                """, Set.of("text", OPT_FONT, "bold", "italic", OPT_SIZE, OPT_COLOR, "rotation", "opacity"),
+                "_watermarked.pdf", false, line -> {
+            String font = line.get(OPT_FONT, "helvetica");
+            File customFont = font.toLowerCase(Locale.ROOT).endsWith(".ttf") ? existingFile(font) : null;
+            String family = WatermarkService.FONT_KEYS.getOrDefault(font.toLowerCase(Locale.ROOT), WatermarkService.FONT_HELVETICA);
+            if (customFont == null && !WatermarkService.FONT_KEYS.containsKey(font.toLowerCase(Locale.ROOT))) {
+                throw new UsageException("Unknown --font " + font);
+            }
+            WatermarkConfig config = new WatermarkConfig(line.require("text"), line.getFloat(OPT_SIZE, 72),
+                    parseColor(line.get(OPT_COLOR, "#A9A9A9")), line.getFloat("rotation", 45),
+                    line.getFloat("opacity", 0.3f), family, line.isSet("bold"), line.isSet("italic"), customFont);
+            WatermarkService service = new WatermarkService();
+            return (input, output, job) -> {
+                service.watermark(input, output, config, job);
+                return output.getPath();
+            };
+        }));
+
+        register(new PerFileCommand("page-numbers", "Add page numbers", """
+                  --position <pos>          e.g. "Bottom Center", "Top Right" (default Bottom Center)
+                  --style <style>           number, page or page-of-total (default number)
+                  --language <lang>         English, Bengali, Hindi, French or Spanish (default English)
+                  --font <font>             A font name from the fonts folder or a .ttf file (default Helvetica)
+                  --size <points>           Font size (default 12)
+                  --color <#RRGGBB>         Text color (default #000000)
+                """, Set.of("position", "style", "language", OPT_FONT, OPT_SIZE, OPT_COLOR), "_numbered.pdf", false, line -> {
+            String language = line.getChoice("language", PageNumberService.LANGUAGES, PageNumberService.LANG_ENGLISH);
+            File fontFile = null;
+            if (line.has(OPT_FONT)) {
+                String font = line.get(OPT_FONT, null);
+                fontFile = font.toLowerCase(Locale.ROOT).endsWith(".ttf") ? existingFile(font) : existingFile(PageNumberService.resolveFont(font).getPath());
+            } else if (PageNumberService.requiresCustomFont(language)) {
+                throw new UsageException(language + " page numbers need a --font that covers its script.");
+            }
+            String style = PageNumberService.STYLE_KEYS.get(line.getChoice("style", List.of("number", "page", "page-of-total"), "number"));
+            PageNumberConfig config = new PageNumberConfig(
+                    line.getChoice("position", PageNumberService.POSITIONS, PageNumberService.POSITIONS.get(0)),
+                    style, language, fontFile, line.getFloat(OPT_SIZE, 12), parseColor(line.get(OPT_COLOR, "#000000")));
+            PageNumberService service = new PageNumberService();
+            return (input, output, job) -> {
+                service.addPageNumbers(input, output, config, job);
+                return output.getPath();
+            };
+        }));
+
+        SecurityService securityService = new SecurityService();
+
+        register(new PerFileCommand("protect", "Encrypt with a password", PASSWORD_USAGE,
+                Set.of(OPT_PASSWORD, OPT_PASSWORD_ENV), "_protected.pdf", false, line -> {
+            String password = readPassword(line);
+            return (input, output, job) -> {
+                securityService.protect(input, output, password, job);
+                return output.getPath();
+            };
+        }));
+
+        register(new PerFileCommand("unlock", "Remove the password and restrictions", PASSWORD_USAGE,
+                Set.of(OPT_PASSWORD, OPT_PASSWORD_ENV), "_unlocked.pdf", false, line -> {
+            String password = readPassword(line);
+            return (input, output, job) -> {
+                securityService.unlock(input, output, password, job);
+                return output.getPath();
+            };
+        }).streaming(line -> {
+            String password = readPassword(line);
+            return (input, output, job) -> {
+                securityService.unlock(input, output, password, job);
+                return "unlocked";
+            };
+        }));
+
+        register(new PerFileCommand("metadata", "Set document information fields", """
+                  --title, --author, --subject, --keywords <text>
+                """, Set.of("title", "author", "subject", "keywords"), "_edited.pdf", false, line -> {
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (String field : List.of("Title", "Author", "Subject", "Keywords")) {
+                String key = field.toLowerCase(Locale.ROOT);
+                if (line.has(key)) fields.put(field, line.get(key, ""));
+            }
+            if (fields.isEmpty()) throw new UsageException("Give at least one field to set.");
+            MetadataEditorService service = new MetadataEditorService();
+            return (input, output, job) -> {
+                service.updateMetadata(input.getPath(), output.getPath(), fields, job);
+                return output.getPath();
+            };
+        }));
+
+        register(new PerFileCommand("pipeline", "Run several operations with one load and one save per file", """
+                  --recipe <file>           A recipe with one step per line (required), e.g.
+                                              rotate angle=90 pages=1-2
+                                              watermark text="DRAFT" opacity=0.2
+                                              page-numbers style=page-of-total
+                                              metadata title="Board Pack"
+                                              protect password-env=PDF_PASSWORD
+                """, Set.of("recipe"), "_processed.pdf", false, line -> {
+            PdfPipeline pipeline = loadPipeline(line);
+            return (input, output, job) -> {
+                pipeline.run(input, output, job);
+                return output.getPath() + " (" + pipeline.getSteps().size() + " steps)";
+            };
+        }).streaming(line -> {
+            PdfPipeline pipeline = loadPipeline(line);
+            return (input, output, job) -> {
+                pipeline.run(input, output, job);
+                return pipeline.getSteps().size() + " steps";
+            };
+        }));
+
+        ExtractionService extractionService = new ExtractionService();
+
+        register(new PerFileCommand("extract-text", "Save the text of each PDF as a .txt file", "",
+                Set.of(), ".txt", false, line -> (input, output, job) -> {
+            extractionService.extractText(List.of(input.getPath()), output, job);
+            return output.getPath();
+        }).streaming(line -> (input, output, job) -> {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            extractionService.extractText(input, writer, job);
+            writer.flush();
+            return "text";
+        }));
+
+        register(new PerFileCommand("extract-images", "Save the embedded images (name_pN_imgM.ext)", "",
+                Set.of(), "", true, line -> (input, output, job) ->
+                extractionService.extractImages(input, output, job) + " images in " + output.getPath()));
+
+        register(new PerFileCommand("to-image", "Render every page as an image (name_page_N.png)", """
+                  --format <fmt>            png or jpeg (default png)
+                  --dpi <n>                 Resolution (default 150)
+                """, Set.of("format", "dpi"), "", true, line -> {
+            String format = line.getChoice("format", List.of("png", "jpeg"), "png");
+            int dpi = line.getInt("dpi", 150);
+            if (dpi < 10 || dpi > 1200) throw new UsageException("--dpi must be between 10 and 1200.");
+            return (input, output, job) ->
+                    extractionService.renderPages(input, output, format, dpi, job) + " pages in " + output.getPath();
+        }));
+    }
+
+    private static void register(CliCommand command) {
+        commands.put(command.getName(), command);
+    }
+
+    /**
+     * @return The command with the given name, or null if there is none.
+     */
+    public static CliCommand get(String name) {
+        return commands.get(name);
+    }
+
+    public static List<CliCommand> getCommands() {
+        return List.copyOf(commands.values());
+    }
+
+    // --- Option Parsing Helpers ---
+
+    private static <E extends Enum<E>> E parseEnum(CommandLine line, String option, Class<E> type) throws UsageException {
+        String value = line.get(option, "").trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new UsageException("Invalid --" + option + " '" + line.get(option, "") + "'.");
+        }
+    }
+
+    private static int parseAngle(CommandLine line) throws UsageException {
+        int angle = line.getInt("angle", 90);
+        if (angle != 90 && angle != 180 && angle != 270) {
+            throw new UsageException("--angle must be 90, 180 or 270.");
+        }
+        return angle;
+    }
+
+    /**
+     * @return Maps the size of an input to the size to compress it to.
+     */
+    private static LongUnaryOperator parseCompressTarget(CommandLine line) throws UsageException {
+        if (line.has("percent") == line.has("target-size")) {
+            throw new UsageException("Give exactly one of --percent or --target-size.");
+        }
+        if (line.has("target-size")) {
+            long targetBytes = parseSize(line.get("target-size", null));
+            return size -> targetBytes;
+        }
+        float percent = line.getFloat("percent", 0);
+        if (percent <= 0 || percent >= 100) {
+            throw new UsageException("--percent must be between 1 and 99.");
+        }
+        return size -> CompressService.percentageTarget(size, percent);
+    }
+
+    private static PdfPipeline loadPipeline(CommandLine line) throws UsageException {
+        File recipeFile = existingFile(line.require("recipe"));
+        try {
+            return new PdfPipeline(PipelineRecipe.load(recipeFile));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new UsageException("Invalid recipe " + recipeFile + ": " + e.getMessage());
+        }
+    }
+
+    private static Color parseColor(String value) throws UsageException {
+        try {
+            return Color.decode(value.startsWith("#") || value.startsWith("0x") ? value : "#" + value);
+        } catch (NumberFormatException e) {
+            throw new UsageException("Invalid color '" + value + "', expected #RRGGBB.");
+        }
+    }
+
+    /**
+     * Parses sizes like "500KB", "5MB" or "1.5 GB"; a plain number is taken as bytes.
+     */
+    static long parseSize(String value) throws UsageException {
+        String text = value.trim().toUpperCase(Locale.ROOT).replace(" ", "");
+        long multiplier = 1;
+        if (text.endsWith("KB")) multiplier = 1024;
+        else if (text.endsWith("MB")) multiplier = 1024L * 1024;
+        else if (text.endsWith("GB")) multiplier = 1024L * 1024 * 1024;
+        String number = multiplier == 1 ? text.replaceFirst("B$", "") : text.substring(0, text.length() - 2);
+        try {
+            return (long) (Double.parseDouble(number) * multiplier);
+        } catch (NumberFormatException e) {
+            throw new UsageException("Invalid size '" + value + "', expected e.g. 500KB or 5MB.");
+        }
+    }
+
+    private static File existingFile(String path) throws UsageException {
+        File file = new File(path);
+        if (!file.isFile()) throw new UsageException("File not found: " + path);
+        return file;
+    }
+
+    private static String readPassword(CommandLine line) throws UsageException {
+        if (line.has(OPT_PASSWORD_ENV)) {
+            String password = System.getenv(line.get(OPT_PASSWORD_ENV, ""));
+            if (password == null || password.isEmpty()) {
+                throw new UsageException("Environment variable " + line.get(OPT_PASSWORD_ENV, "") + " is not set.");
+            }
+            return password;
+        }
+        return line.require(OPT_PASSWORD);
+    }
+}
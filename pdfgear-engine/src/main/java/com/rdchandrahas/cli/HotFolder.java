@@ -0,0 +1,397 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.CancellableTask;
+import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.OverflowPolicy;
+import com.rdchandrahas.core.TaskHandle;
+import com.rdchandrahas.core.TaskKind;
+import com.rdchandrahas.shared.util.TempFileManager;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * HotFolder watches an inbox folder and runs one command on every file that arrives.
+ * A file is only picked up once its size and modification time have stopped changing,
+ * so scanners still writing a page are left alone. It is then moved into a private
+ * ".processing" folder, processed on the ExecutionManager CPU lane, and its outputs are
+ * moved into the output folder; failed originals go to the error folder with a note.
+ *
+ * At most maxInFlight files are processed at once and the rest wait in arrival order,
+ * so a burst of thousands of files neither floods the work queue nor opens thousands
+ * of documents.
+ */
+public class HotFolder {
+
+    private static final Logger LOGGER = Logger.getLogger(HotFolder.class.getName());
+
+    /** How often waiting files are checked for having settled. */
+    private static final long TICK_MILLIS = 250;
+    /** Change events are unreliable on network shares, so the inbox is also listed at this interval. */
+    private static final long RESCAN_MILLIS = 10_000;
+
+    private static final String PROCESSING_DIR = ".processing";
+    private static final String STAGING_DIR = ".staging";
+
+    /** Size and modification time when the file was last seen changing. */
+    private record Observation(long size, long modified, long sinceMillis) { }
+
+    private final Path inbox;
+    private final Path processingDir;
+    private final Path outDir;
+    private final Path errorDir;
+    private final Path archiveDir;
+    private final CliCommand command;
+    private final Map<String, String> commandOptions;
+    private final long settleMillis;
+    private final int maxInFlight;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    // Touched only by the watch loop thread
+    private final Map<Path, Observation> settling = new HashMap<>();
+    private final Set<Path> ready = new LinkedHashSet<>();
+
+    private final Semaphore slots;
+    private final Set<TaskHandle<String>> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile boolean running = true;
+
+    /**
+     * @param commandOptions The options passed to the command for every file, without --out-dir.
+     * @param archiveDir Where processed originals are moved, or null to delete them.
+     * @param settleMillis How long a file must stay unchanged before it is processed.
+     * @param maxInFlight The number of files processed at once.
+     */
+    public HotFolder(Path inbox, Path outDir, Path errorDir, Path archiveDir, CliCommand command,
+                     Map<String, String> commandOptions, long settleMillis, int maxInFlight,
+                     PrintStream out, PrintStream err) {
+        this.inbox = inbox;
+        this.processingDir = inbox.resolve(PROCESSING_DIR);
+        this.outDir = outDir;
+        this.errorDir = errorDir;
+        this.archiveDir = archiveDir;
+        this.command = command;
+        this.commandOptions = Map.copyOf(commandOptions);
+        this.settleMillis = settleMillis;
+        this.maxInFlight = maxInFlight;
+        this.slots = new Semaphore(maxInFlight);
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Watches the inbox until stop() is called. Files left in the processing folder by a
+     * previous run that was killed are put back into the inbox first.
+     */
+    public void run() throws IOException {
+        for (Path dir : List.of(processingDir, outDir.resolve(STAGING_DIR), errorDir)) {
+            Files.createDirectories(dir);
+        }
+        if (archiveDir != null) Files.createDirectories(archiveDir);
+        recoverClaimedFiles();
+
+        try (WatchService watcher = inbox.getFileSystem().newWatchService()) {
+            inbox.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+            scanInbox();
+            long lastScan = System.currentTimeMillis();
+
+            while (running) {
+                WatchKey key = watcher.poll(TICK_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            scanInbox();
+                        } else {
+                            observe(inbox.resolve((Path) event.context()));
+                        }
+                    }
+                    if (!key.reset()) {
+                        throw new IOException("The watched folder is no longer accessible: " + inbox);
+                    }
+                }
+                if (System.currentTimeMillis() - lastScan >= RESCAN_MILLIS) {
+                    scanInbox();
+                    lastScan = System.currentTimeMillis();
+                }
+                promoteSettledFiles();
+                dispatchReadyFiles();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            drain();
+        }
+    }
+
+    /**
+     * Makes run() return. Files being processed are cancelled and go back to the inbox.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    public int getSucceeded() {
+        return succeeded.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    // --- Detecting Arrivals ---
+
+    private void scanInbox() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox)) {
+            for (Path file : files) {
+                observe(file);
+            }
+        }
+    }
+
+    private void observe(Path file) {
+        if (!isCandidate(file) || ready.contains(file)) return;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) return;
+            Observation previous = settling.get(file);
+            long modified = attributes.lastModifiedTime().toMillis();
+            if (previous == null || previous.size() != attributes.size() || previous.modified() != modified) {
+                settling.put(file, new Observation(attributes.size(), modified, System.currentTimeMillis()));
+            }
+        } catch (IOException e) {
+            // Deleted or renamed again before we looked
+            settling.remove(file);
+        }
+    }
+
+    private boolean isCandidate(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        // Scanners and copy tools write under temporary names and rename when done
+        if (name.startsWith(".") || name.startsWith("~") || name.endsWith(".tmp") || name.endsWith(".part")) {
+            return false;
+        }
+        return command.getInputExtensions().stream().anyMatch(name::endsWith);
+    }
+
+    /**
+     * Moves files whose size and modification time have not changed for the settle time
+     * and that can be opened into the ready queue.
+     */
+    private void promoteSettledFiles() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Path, Observation>> it = settling.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Observation> entry = it.next();
+            Path file = entry.getKey();
+            Observation seen = entry.getValue();
+            if (now - seen.sinceMillis() < settleMillis) continue;
+            try {
+                long size = Files.size(file);
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                if (size != seen.size() || modified != seen.modified()) {
+                    entry.setValue(new Observation(size, modified, now));
+                } else if (size > 0 && canOpen(file)) {
+                    it.remove();
+                    ready.add(file);
+                }
+            } catch (IOException e) {
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean canOpen(Path file) {
+        // On Windows a file still open by the scanner cannot be opened; elsewhere this always succeeds
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.size() >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // --- Processing ---
+
+    private void dispatchReadyFiles() {
+        Iterator<Path> it = ready.iterator();
+        while (running && it.hasNext() && slots.tryAcquire()) {
+            Path file = it.next();
+            it.remove();
+            Path claimed;
+            try {
+                claimed = Files.move(file, uniqueTarget(processingDir, file.getFileName().toString()));
+            } catch (IOException e) {
+                // Still locked or already gone; a later event or rescan brings it back
+                slots.release();
+                continue;
+            }
+            process(claimed, file.getFileName().toString());
+        }
+    }
+
+    private void process(Path claimed, String name) {
+        long start = System.nanoTime();
+        Path staging = outDir.resolve(STAGING_DIR).resolve(UUID.randomUUID().toString());
+        AtomicInteger outcomes = new AtomicInteger();
+        JobSink sink = new JobSink() {
+            @Override
+            public void submit(String label, CancellableTask<String> task) {
+                TaskHandle<String> handle = ExecutionManager.submit(TaskKind.CPU, OverflowPolicy.BLOCK_CALLER, task);
+                inFlight.add(handle);
+                handle.onComplete((result, error) -> {
+                    inFlight.remove(handle);
+                    if (outcomes.getAndIncrement() == 0) finish(claimed, name, staging, error, start);
+                });
+            }
+
+            @Override
+            public void reject(String label, String reason) {
+                if (outcomes.getAndIncrement() == 0) finish(claimed, name, staging, new IOException(reason), start);
+            }
+        };
+
+        try {
+            Files.createDirectories(staging);
+            Map<String, String> options = new HashMap<>(commandOptions);
+            options.put("out-dir", staging.toString());
+            command.run(CommandLine.of(command.getName(), options, List.of()), List.of(claimed.toFile()), sink);
+        } catch (IOException | UsageException | RuntimeException e) {
+            // A bad option value (e.g. an out-of-range target) fails like a bad file: the file
+            // goes to the error folder and its slot is released instead of staying claimed
+            if (outcomes.getAndIncrement() == 0) finish(claimed, name, staging, e, start);
+        }
+    }
+
+    /**
+     * Publishes the outputs and disposes of the original. Runs on the worker that processed the file.
+     */
+    private void finish(Path claimed, String name, Path staging, Throwable error, long start) {
+        try {
+            if (error instanceof CancellationException) {
+                // Stopped before finishing: leave the file for the next run
+                Files.move(claimed, uniqueTarget(inbox, name));
+            } else if (error == null) {
+                List<String> published = publish(staging);
+                if (archiveDir != null) {
+                    Files.move(claimed, uniqueTarget(archiveDir, name));
+                } else {
+                    Files.delete(claimed);
+                }
+                succeeded.incrementAndGet();
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                out.println("OK      " + name + " -> " + String.join(", ", published) + " (" + millis + " ms)");
+            } else {
+                Path target = uniqueTarget(errorDir, name);
+                Files.move(claimed, target);
+                String message = error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+                Files.writeString(errorDir.resolve(target.getFileName() + ".error.txt"), message + System.lineSeparator(), StandardCharsets.UTF_8);
+                failed.incrementAndGet();
+                err.println("FAILED  " + name + ": " + message);
+            }
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            LOGGER.log(Level.SEVERE, "Could not move " + name + " out of " + processingDir, e);
+        } finally {
+            TempFileManager.cleanup(staging);
+            slots.release();
+        }
+    }
+
+    /**
+     * Moves every output from the staging folder into the output folder. Outputs are only
+     * written to staging first so that nothing watching the output folder sees half a file.
+     * An output whose name is already taken gets a numbered name, like files in the error folder.
+     * * @return The names the outputs were published under.
+     */
+    private List<String> publish(Path staging) throws IOException {
+        List<Path> outputs;
+        try (Stream<Path> files = Files.list(staging)) {
+            outputs = files.sorted().toList();
+        }
+        List<String> published = new ArrayList<>();
+        for (Path output : outputs) {
+            // Never overwrite an earlier result; a parallel job may take the same name between check and move
+            while (true) {
+                Path target = uniqueTarget(outDir, output.getFileName().toString());
+                try {
+                    Files.move(output, target);
+                    published.add(target.getFileName().toString());
+                    break;
+                } catch (FileAlreadyExistsException e) {
+                    LOGGER.log(Level.FINE, "Output name taken meanwhile, retrying: {0}", target);
+                }
+            }
+        }
+        return published;
+    }
+
+    private void recoverClaimedFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(processingDir)) {
+            for (Path file : files) {
+                LOGGER.log(Level.INFO, "Requeueing {0} left over from a previous run", file.getFileName());
+                Files.move(file, uniqueTarget(inbox, file.getFileName().toString()));
+            }
+        }
+    }
+
+    /**
+     * Cancels the files still being processed and waits briefly for them to go back to the inbox.
+     */
+    private void drain() {
+        inFlight.forEach(TaskHandle::cancel);
+        try {
+            if (slots.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS)) {
+                slots.release(maxInFlight);
+            } else {
+                LOGGER.warning("Some files did not stop in time and stay in " + processingDir);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path uniqueTarget(Path dir, String name) {
+        Path target = dir.resolve(name);
+        if (!Files.exists(target)) return target;
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int n = 2; ; n++) {
+            target = dir.resolve(base + "_" + n + extension);
+            if (!Files.exists(target)) return target;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.rdchandrahas.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * InputResolver expands the input arguments of a command into files.
+ * An argument may be a file, a directory (its direct children with a matching extension),
+ * or a glob such as "scans/*.pdf", where "**" also descends into subfolders.
+ * Globs are expanded here rather than by the shell, so they work the same from cron,
+ * Windows and quoted arguments, and are not limited by the maximum command line length.
+ */
+public class InputResolver {
+
+    private InputResolver() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param arguments The input arguments in command line order.
+     * @param extensions The accepted lower-case extensions (e.g. ".pdf") for directories and globs.
+     * @return The matching files. Each glob is sorted by path, duplicates are dropped.
+     * @throws UsageException If an argument names a missing file or a glob matches nothing.
+     */
+    public static List<File> resolve(List<String> arguments, List<String> extensions) throws UsageException, IOException {
+        Set<File> files = new LinkedHashSet<>();
+        for (String argument : arguments) {
+            if (isGlob(argument)) {
+                List<File> matches = expandGlob(argument, extensions);
+                if (matches.isEmpty()) {
+                    throw new UsageException("No files match " + argument);
+                }
+                files.addAll(matches);
+            } else {
+                File file = new File(argument).getAbsoluteFile();
+                if (file.isDirectory()) {
+                    files.addAll(listDirectory(file.toPath(), extensions));
+                } else if (file.isFile()) {
+                    files.add(file);
+                } else {
+                    throw new UsageException("Input not found: " + argument);
+                }
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static boolean isGlob(String argument) {
+        return argument.indexOf('*') >= 0 || argument.indexOf('?') >= 0
+                || argument.indexOf('[') >= 0 || argument.indexOf('{') >= 0;
+    }
+
+    private static List<File> expandGlob(String glob, List<String> extensions) throws IOException {
+        String normalized = glob.replace(File.separatorChar, '/');
+
+        // The longest leading run of literal segments is the directory to search
+        String[] segments = normalized.split("/");
+        StringBuilder base = new StringBuilder();
+        int firstPattern = 0;
+        while (firstPattern < segments.length - 1 && !isGlob(segments[firstPattern])) {
+            base.append(segments[firstPattern]).append('/');
+            firstPattern++;
+        }
+        String pattern = String.join("/", Arrays.copyOfRange(segments, firstPattern, segments.length));
+
+        Path root = Paths.get(base.length() == 0 ? "." : base.toString()).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) return List.of();
+
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        // Like a shell with globstar, a leading "**/" also matches zero folders
+        PathMatcher topLevel = pattern.startsWith("**/")
+                ? FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(3))
+                : matcher;
+        // Without "**" a pattern can only match at the depth of its own segment count
+        int maxDepth = pattern.contains("**") ? Integer.MAX_VALUE : segments.length - firstPattern;
+
+        try (Stream<Path> walk = Files.walk(root, maxDepth)) {
+            return walk.filter(Files::isRegularFile)
+                    .filter(p -> hasExtension(p, extensions))
+                    .filter(p -> matcher.matches(root.relativize(p)) || topLevel.matches(root.relativize(p)))
+                    .sorted()
+                    .map(Path::toFile)
+                    .toList();
+        }
+    }
+
+    private static List<File> listDirectory(Path dir, List<String> extensions) throws IOException {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.filter(Files::isRegularFile)
+                    .filter(p -> hasExtension(p, extensions))
+                    .sorted()
+                    .map(Path::toFile)
+                    .toList();
+        }
+    }
+
+    private static boolean hasExtension(Path path, List<String> extensions) {
+        String name = path.getFileName().toString().toLowerCase();
+        return extensions.stream().anyMatch(name::endsWith);
+    }
+}
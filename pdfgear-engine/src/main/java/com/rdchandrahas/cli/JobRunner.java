@@ -0,0 +1,111 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.CancellableTask;
+import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.OverflowPolicy;
+import com.rdchandrahas.core.TaskHandle;
+import com.rdchandrahas.core.TaskKind;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * JobRunner fans CLI jobs out over the ExecutionManager CPU lane and reports one line
+ * per job as they finish in submission order. Submission blocks when the lane queue is full,
+ * so a glob matching a hundred thousand files never queues more than the lane can hold.
+ * Jobs still pending when the JVM is asked to stop (Ctrl+C, SIGTERM from a scheduler)
+ * are cancelled, so the process exits promptly instead of working through the backlog.
+ */
+public class JobRunner implements JobSink {
+
+    private record Job(String label, long startNanos, TaskHandle<String> handle) { }
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final boolean quiet;
+    private final List<Job> jobs = new ArrayList<>();
+
+    private int succeeded = 0;
+    private int failed = 0;
+
+    JobRunner(PrintStream out, PrintStream err, boolean quiet) {
+        this.out = out;
+        this.err = err;
+        this.quiet = quiet;
+    }
+
+    @Override
+    public void submit(String label, CancellableTask<String> task) {
+        TaskHandle<String> handle = ExecutionManager.submit(TaskKind.CPU, OverflowPolicy.BLOCK_CALLER, task);
+        synchronized (jobs) {
+            jobs.add(new Job(label, System.nanoTime(), handle));
+        }
+    }
+
+    @Override
+    public void reject(String label, String reason) {
+        err.println("FAILED  " + label + ": " + reason);
+        failed++;
+    }
+
+    /**
+     * Waits for every submitted job and prints its outcome.
+     * * @return The number of failed jobs, including rejected ones.
+     */
+    int awaitAll() {
+        for (Job job : snapshot()) {
+            try {
+                String result = job.handle().get();
+                succeeded++;
+                if (!quiet) {
+                    long millis = (System.nanoTime() - job.startNanos()) / 1_000_000;
+                    out.println("OK      " + job.label() + " -> " + result + " (" + millis + " ms)");
+                }
+            } catch (CancellationException e) {
+                failed++;
+                err.println("CANCEL  " + job.label());
+            } catch (ExecutionException e) {
+                failed++;
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                err.println("FAILED  " + job.label() + ": " + describe(cause));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                failed++;
+                err.println("CANCEL  " + job.label());
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Cancels every job that has not finished yet.
+     */
+    void cancelAll() {
+        for (Job job : snapshot()) {
+            job.handle().cancel();
+        }
+    }
+
+    int getSucceeded() {
+        return succeeded;
+    }
+
+    int getFailed() {
+        return failed;
+    }
+
+    private List<Job> snapshot() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getMessage();
+        return message == null || message.isBlank() ? error.getClass().getSimpleName() : message;
+    }
+}
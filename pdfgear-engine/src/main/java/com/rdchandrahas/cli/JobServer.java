@@ -0,0 +1,569 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.PdfService;
+import com.rdchandrahas.shared.util.TempFileManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * JobServer exposes the CLI commands over HTTP on the loopback interface, so other
+ * processes on the same host can submit PDF jobs to one long-lived JVM instead of
+ * starting a new one per file. Jobs run on the shared ExecutionManager lanes, so the
+ * lane sizes and queue bounds limit the server exactly as they limit the desktop app.
+ * Each request's jobs run with their own JobContext: their temp files go into the job
+ * folder, and ?memory-mb= gives them a lower memory limit than the server's.
+ *
+ * Every request needs the bearer token, and its Host header must name the loopback
+ * interface, so a web page cannot reach the server through DNS rebinding. Files already on
+ * disk can only be named with ?input= when the server was given an input root, and only
+ * below it.
+ *
+ * <pre>
+ * POST   /jobs/{command}?option=value    Body: the input file (or ?input=path below the input root, repeatable)
+ * GET    /jobs                           Status of every job
+ * GET    /jobs/{id}                      Status of one job
+ * GET    /jobs/{id}/result               The output file, or a zip if there are several
+ * DELETE /jobs/{id}                      Cancel the job and delete its files
+ * GET    /commands                       The available commands
+ * GET    /metrics                        ExecutionManager queue and latency report
+ * </pre>
+ */
+public class JobServer {
+
+    private static final Logger LOGGER = Logger.getLogger(JobServer.class.getName());
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String JOBS_PATH = "/jobs";
+
+    /**
+     * Set by the server itself; a request must not redirect outputs or change process settings.
+     * A recipe and --password-env would read files and environment variables of the server.
+     */
+    private static final Set<String> RESERVED_OPTIONS = Set.of("output", "out-dir", CommandLine.OPT_TEMP_DIR, "offheap-mb", "memory-pool-mb",
+            "serial", "quiet", "help", "temp-quota-mb", "fast-temp", "recipe", "password-env");
+
+    /** A --font that is a file rather than a font name must lie below the input root, like ?input=. */
+    private static final String OPT_FONT = "font";
+
+    /** Options every command accepts because they only tune the request's own jobs. */
+    private static final Set<String> JOB_OPTIONS = Set.of("memory-mb");
+
+    /** Host header values a browser only sends for pages served from this machine. */
+    private static final Set<String> LOCAL_HOSTS = Set.of("127.0.0.1", "localhost", "[::1]");
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            ".pdf", "application/pdf",
+            ".txt", "text/plain; charset=utf-8",
+            ".png", "image/png",
+            ".jpg", "image/jpeg",
+            ".jpeg", "image/jpeg");
+
+    private final int port;
+    private final String token;
+    private final Path inputRoot;
+    private final long maxUploadBytes;
+    private final long jobTtlMillis;
+    private final int maxJobs;
+
+    private final Map<String, ServerJob> jobs = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService requestExecutor;
+    private ScheduledExecutorService reaper;
+
+    /**
+     * @param port The loopback port to listen on; 0 picks a free one.
+     * @param token Every request must send "Authorization: Bearer token".
+     * @param inputRoot The real path of the folder ?input= may name files in, or null to refuse ?input=.
+     * @param maxUploadBytes The largest accepted request body.
+     * @param jobTtlMillis How long a finished job and its files are kept.
+     * @param maxJobs The number of jobs kept at once, finished or not.
+     */
+    public JobServer(int port, String token, Path inputRoot, long maxUploadBytes, long jobTtlMillis, int maxJobs) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("The job server needs a token.");
+        }
+        this.port = port;
+        this.token = token;
+        this.inputRoot = inputRoot;
+        this.maxUploadBytes = maxUploadBytes;
+        this.jobTtlMillis = jobTtlMillis;
+        this.maxJobs = maxJobs;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        // Request threads only parse, copy and wait; the PDF work itself runs on the ExecutionManager lanes
+        requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(requestExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+
+        reaper = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("job-reaper").daemon().factory());
+        reaper.scheduleWithFixedDelay(this::reapExpiredJobs, 1, 1, TimeUnit.MINUTES);
+        LOGGER.log(Level.INFO, "Job server listening on {0}", getAddress());
+    }
+
+    /**
+     * Stops accepting requests, cancels every job and deletes its files.
+     */
+    public void stop() {
+        if (server == null) return;
+        server.stop(1);
+        requestExecutor.shutdownNow();
+        reaper.shutdownNow();
+        jobs.values().forEach(ServerJob::delete);
+        jobs.clear();
+    }
+
+    public String getAddress() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    // --- Routing ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!isLocalHost(exchange)) {
+                sendJson(exchange, 403, error("Requests must be addressed to 127.0.0.1 or localhost."));
+                return;
+            }
+            if (!isAuthorized(exchange)) {
+                sendJson(exchange, 401, error("Missing or wrong bearer token."));
+                return;
+            }
+            route(exchange);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Request failed: " + exchange.getRequestURI(), e);
+            try {
+                sendJson(exchange, 500, error(e.getMessage()));
+            } catch (IOException ignored) {
+                // The response was already started or the client went away
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+
+        if (parts.length == 1 && parts[0].equals("commands") && method.equals("GET")) {
+            sendCommands(exchange);
+        } else if (parts.length == 1 && parts[0].equals("metrics") && method.equals("GET")) {
+            send(exchange, 200, "text/plain; charset=utf-8", ExecutionManager.getMetricsReport().getBytes(StandardCharsets.UTF_8));
+        } else if (parts.length == 1 && parts[0].equals("jobs") && method.equals("GET")) {
+            sendJobList(exchange);
+        } else if (parts.length == 2 && parts[0].equals("jobs") && method.equals("POST")) {
+            submitJob(exchange, parts[1]);
+        } else if (parts.length >= 2 && parts[0].equals("jobs")) {
+            ServerJob job = jobs.get(parts[1]);
+            if (job == null) {
+                sendJson(exchange, 404, error("No job " + parts[1] + "."));
+            } else if (parts.length == 2 && method.equals("GET")) {
+                sendJson(exchange, 200, status(job));
+            } else if (parts.length == 2 && method.equals("DELETE")) {
+                jobs.remove(job.getId());
+                job.delete();
+                send(exchange, 204, null, null);
+            } else if (parts.length == 3 && parts[2].equals("result") && method.equals("GET")) {
+                sendResult(exchange, job);
+            } else {
+                sendJson(exchange, 405, error("Unsupported request."));
+            }
+        } else {
+            sendJson(exchange, 404, error("Unknown path. Try GET /commands."));
+        }
+    }
+
+    // --- Jobs ---
+
+    private void submitJob(HttpExchange exchange, String commandName) throws IOException {
+        CliCommand command = CommandRegistry.get(commandName);
+        if (command == null) {
+            sendJson(exchange, 404, error("Unknown command '" + commandName + "'."));
+            return;
+        }
+        reapExpiredJobs();
+        if (jobs.size() >= maxJobs) {
+            exchange.getResponseHeaders().set("Retry-After", "60");
+            sendJson(exchange, 503, error("Too many jobs kept; delete finished jobs or retry later."));
+            return;
+        }
+
+        Map<String, String> options = new HashMap<>();
+        List<String> inputPaths = new ArrayList<>();
+        String uploadName = "input.pdf";
+        for (String[] pair : parseQuery(exchange.getRequestURI().getRawQuery())) {
+            switch (pair[0]) {
+                case "input" -> inputPaths.add(pair[1]);
+                case "filename" -> {
+                    // Only the name is kept, the upload always lands in the job's own folder
+                    if (!pair[1].isBlank()) uploadName = new File(pair[1]).getName();
+                }
+                default -> options.put(pair[0], pair[1].isEmpty() ? "true" : pair[1]);
+            }
+        }
+
+        String id = UUID.randomUUID().toString();
+        ServerJob job = new ServerJob(id, command.getName(), Files.createTempDirectory(TempFileManager.getTempDir(), "job_"));
+        boolean accepted = false;
+        try {
+            List<File> inputs = new ArrayList<>();
+            Path upload = job.getDir().resolve("in").resolve(uploadName);
+            Files.createDirectories(upload.getParent());
+            if (receiveBody(exchange, upload)) {
+                inputs.add(upload.toFile());
+            }
+            if (!inputPaths.isEmpty()) {
+                inputs.addAll(resolveLocalInputs(inputPaths, command));
+            }
+            if (inputs.isEmpty()) {
+                throw new UsageException("Send the input as the request body" + (inputRoot != null ? " or name it with ?input=path." : "."));
+            }
+
+            for (String option : options.keySet()) {
+                if (RESERVED_OPTIONS.contains(option) && command.getOptions().contains(option)) {
+                    throw new UsageException("Option '" + option + "' is not available on the job server.");
+                }
+                if (RESERVED_OPTIONS.contains(option) || !(command.getOptions().contains(option) || JOB_OPTIONS.contains(option))) {
+                    throw new UsageException("Unknown option '" + option + "' for " + command.getName() + ".");
+                }
+            }
+            if (options.containsKey("memory-mb")) {
+                checkMemoryLimit(options.get("memory-mb"));
+            }
+            String font = options.get(OPT_FONT);
+            if (font != null && isFontFile(font)) {
+                options.put(OPT_FONT, confine(font).toString());
+            }
+            // Temp files of the request's jobs live and die with the job folder
+            Path tempDir = Files.createDirectories(job.getDir().resolve("tmp"));
+            options.put(CommandLine.OPT_TEMP_DIR, tempDir.toString());
+            Files.createDirectories(job.getOutDir());
+            if (command.isCombining()) {
+                options.put("output", job.getOutDir().resolve("result.pdf").toString());
+            } else {
+                options.put("out-dir", job.getOutDir().toString());
+            }
+
+            command.run(CommandLine.of(command.getName(), options, List.of()), inputs, job);
+            jobs.put(id, job);
+            accepted = true;
+            exchange.getResponseHeaders().set("Location", JOBS_PATH + "/" + id);
+            sendJson(exchange, 202, status(job));
+        } catch (UploadTooLargeException e) {
+            sendJson(exchange, 413, error("The upload exceeds " + maxUploadBytes / (1024 * 1024) + " MB."));
+        } catch (UsageException e) {
+            sendJson(exchange, 400, error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            sendJson(exchange, 503, error("The work queue is full, retry later."));
+        } finally {
+            if (!accepted) {
+                job.delete();
+            }
+        }
+    }
+
+    /**
+     * Resolves ?input= paths against the input root. Relative paths are taken from the root,
+     * and every file found, after following symbolic links, has to lie below it.
+     * * @throws UsageException If the server has no input root or a path leaves it.
+     */
+    private List<File> resolveLocalInputs(List<String> paths, CliCommand command) throws UsageException, IOException {
+        if (inputRoot == null) {
+            throw new UsageException("Local inputs are disabled; send the file as the request body.");
+        }
+        List<String> rooted = new ArrayList<>();
+        for (String path : paths) {
+            rooted.add(confine(path).toString());
+        }
+        List<File> files = InputResolver.resolve(rooted, command.getInputExtensions());
+        for (File file : files) {
+            if (!file.toPath().toRealPath().startsWith(inputRoot)) {
+                throw new UsageException("Input '" + inputRoot.relativize(file.toPath().normalize()) + "' is outside the server's input folder.");
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Resolves a path a request names against the input root.
+     * * @throws UsageException If the server has no input root or the path leaves it.
+     */
+    private Path confine(String path) throws UsageException, IOException {
+        if (inputRoot == null) {
+            throw new UsageException("Local files are disabled; send the file as the request body.");
+        }
+        Path resolved = inputRoot.resolve(path).normalize();
+        if (!resolved.startsWith(inputRoot) || (Files.exists(resolved) && !resolved.toRealPath().startsWith(inputRoot))) {
+            throw new UsageException("'" + path + "' is outside the server's input folder.");
+        }
+        return resolved;
+    }
+
+    /**
+     * @return true if a --font value names a file; plain font names are looked up in the fonts folder.
+     */
+    private static boolean isFontFile(String font) {
+        return font.toLowerCase(Locale.ROOT).endsWith(".ttf") || font.contains("/") || font.contains("\\") || font.contains("..");
+    }
+
+    /**
+     * A request may run its jobs with less memory than the server's own limit, never with more.
+     */
+    private static void checkMemoryLimit(String value) throws UsageException {
+        long requested;
+        try {
+            requested = Long.parseLong(value.trim()) * 1024L * 1024L;
+        } catch (NumberFormatException e) {
+            throw new UsageException("Option 'memory-mb' expects a whole number, got '" + value + "'.");
+        }
+        long limit = PdfService.getMemoryLimit();
+        if (requested <= 0 || (limit != -1 && requested > limit)) {
+            throw new UsageException(limit == -1 ? "Option 'memory-mb' must be positive."
+                    : "Option 'memory-mb' must be between 1 and " + limit / (1024 * 1024) + ".");
+        }
+    }
+
+    private void sendResult(HttpExchange exchange, ServerJob job) throws IOException {
+        if (job.getState() != ServerJob.State.DONE) {
+            sendJson(exchange, 409, status(job));
+            return;
+        }
+        List<Path> outputs;
+        try (Stream<Path> walk = Files.walk(job.getOutDir())) {
+            outputs = walk.filter(Files::isRegularFile).sorted().toList();
+        }
+
+        if (outputs.size() == 1) {
+            Path output = outputs.get(0);
+            exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + output.getFileName() + "\"");
+            exchange.getResponseHeaders().set("Content-Type", contentType(output));
+            exchange.sendResponseHeaders(200, Files.size(output));
+            try (OutputStream out = exchange.getResponseBody()) {
+                Files.copy(output, out);
+            }
+            return;
+        }
+
+        // Several outputs (split, to-image, ...) are streamed as one zip without staging it on disk
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + job.getId() + ".zip\"");
+        exchange.getResponseHeaders().set("Content-Type", "application/zip");
+        exchange.sendResponseHeaders(200, 0);
+        try (ZipOutputStream zip = new ZipOutputStream(exchange.getResponseBody())) {
+            for (Path output : outputs) {
+                zip.putNextEntry(new ZipEntry(job.getOutDir().relativize(output).toString().replace('\\', '/')));
+                Files.copy(output, zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private void reapExpiredJobs() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired(jobTtlMillis, now)) return false;
+            job.delete();
+            return true;
+        });
+    }
+
+    // --- Request Helpers ---
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        String expected = "Bearer " + token;
+        return header != null && MessageDigest.isEqual(header.getBytes(StandardCharsets.UTF_8), expected.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Only accepts requests whose Host header, without the port, names the loopback interface.
+     */
+    private static boolean isLocalHost(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (host == null) return false;
+        String name = host.trim().toLowerCase(Locale.ROOT);
+        if (name.startsWith("[")) {
+            name = name.substring(0, name.indexOf(']') + 1);
+        } else if (name.contains(":")) {
+            name = name.substring(0, name.lastIndexOf(':'));
+        }
+        return LOCAL_HOSTS.contains(name);
+    }
+
+    /**
+     * Streams the request body into the file, refusing bodies above the upload limit.
+     * * @return false if the request has no body.
+     * @throws UsageException If the Content-Length header is not a number.
+     */
+    private boolean receiveBody(HttpExchange exchange, Path target) throws IOException, UploadTooLargeException, UsageException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            long declared;
+            try {
+                declared = Long.parseLong(length.trim());
+            } catch (NumberFormatException e) {
+                throw new UsageException("Invalid Content-Length '" + length + "'.");
+            }
+            if (declared > maxUploadBytes) throw new UploadTooLargeException();
+        }
+        long total = 0;
+        try (InputStream in = exchange.getRequestBody(); OutputStream out = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadBytes) throw new UploadTooLargeException();
+                out.write(buffer, 0, read);
+            }
+        }
+        if (total == 0) {
+            Files.delete(target);
+            return false;
+        }
+        return true;
+    }
+
+    private static List<String[]> parseQuery(String rawQuery) {
+        List<String[]> pairs = new ArrayList<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return pairs;
+        for (String part : rawQuery.split("&")) {
+            if (part.isEmpty()) continue;
+            int eq = part.indexOf('=');
+            String key = eq < 0 ? part : part.substring(0, eq);
+            String value = eq < 0 ? "" : part.substring(eq + 1);
+            pairs.add(new String[]{
+                    URLDecoder.decode(key, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8)});
+        }
+        return pairs;
+    }
+
+    private static String contentType(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "application/octet-stream" : CONTENT_TYPES.getOrDefault(name.substring(dot), "application/octet-stream");
+    }
+
+    // --- Responses ---
+
+    private void sendCommands(HttpExchange exchange) throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+        for (CliCommand command : CommandRegistry.getCommands()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"name\":").append(quote(command.getName()))
+              .append(",\"summary\":").append(quote(command.getSummary()))
+              .append(",\"options\":").append(quoteAll(Stream.concat(command.getOptions().stream(), JOB_OPTIONS.stream()).sorted().toList()))
+              .append('}');
+        }
+        sendJson(exchange, 200, sb.append(']').toString());
+    }
+
+    private void sendJobList(HttpExchange exchange) throws IOException {
+        List<ServerJob> snapshot = new ArrayList<>(jobs.values());
+        snapshot.sort((a, b) -> Long.compare(a.getCreatedMillis(), b.getCreatedMillis()));
+        StringBuilder sb = new StringBuilder("[");
+        for (ServerJob job : snapshot) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(status(job));
+        }
+        sendJson(exchange, 200, sb.append(']').toString());
+    }
+
+    private static String status(ServerJob job) {
+        ServerJob.State state = job.getState();
+        return "{\"id\":" + quote(job.getId())
+                + ",\"command\":" + quote(job.getCommand())
+                + ",\"state\":" + quote(state.name())
+                + ",\"progress\":" + String.format(Locale.ROOT, "%.3f", job.getProgress())
+                + ",\"errors\":" + quoteAll(job.getErrors())
+                + (state == ServerJob.State.DONE ? ",\"result\":" + quote(JOBS_PATH + "/" + job.getId() + "/result") : "")
+                + "}";
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message == null ? "Unknown error" : message) + "}";
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        send(exchange, status, JSON, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String quoteAll(List<String> values) {
+        StringBuilder sb = new StringBuilder("[");
+        for (String value : values) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(quote(value));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static class UploadTooLargeException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UploadTooLargeException() {
+            super(null, null, false, false);
+        }
+    }
+}
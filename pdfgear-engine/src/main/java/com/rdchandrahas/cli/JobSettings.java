@@ -0,0 +1,61 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.MemoryGovernor;
+import com.rdchandrahas.core.TaskContext;
+import com.rdchandrahas.shared.util.TempFileManager;
+
+import java.nio.file.Path;
+
+/**
+ * JobSettings reads the options of a command line that tune each job rather than the command
+ * (--memory-mb and the server's temp-dir) and runs the jobs with them: every job gets its own
+ * JobContext, a temp scope that is deleted when the job returns, and a memory budget from the
+ * MemoryGovernor. Everything else comes from the process-wide settings at the time the job starts.
+ */
+final class JobSettings {
+
+    /**
+     * The work of one job.
+     */
+    @FunctionalInterface
+    interface JobBody<T> {
+        T run(JobContext job) throws Exception;
+    }
+
+    private final String operation;
+    private final Long memoryLimitBytes;
+    private final Path tempDir;
+
+    private JobSettings(String operation, Long memoryLimitBytes, Path tempDir) {
+        this.operation = operation;
+        this.memoryLimitBytes = memoryLimitBytes;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * @throws UsageException If --memory-mb is not a number.
+     */
+    static JobSettings of(CommandLine line) throws UsageException {
+        Long memoryLimit = line.has("memory-mb") ? line.getMemoryLimitBytes() : null;
+        Path tempDir = line.has(CommandLine.OPT_TEMP_DIR) ? Path.of(line.get(CommandLine.OPT_TEMP_DIR, null)) : null;
+        return new JobSettings(line.getCommand(), memoryLimit, tempDir);
+    }
+
+    /**
+     * Runs one job once its memory budget is granted.
+     * * @param inputBytes The total size of the job's inputs, for the memory estimate.
+     * @param task The task the job reports to.
+     */
+    <T> T run(long inputBytes, TaskContext task, JobBody<T> body) throws Exception {
+        JobContext job = JobContext.capture(task);
+        if (memoryLimitBytes != null) job = job.withMemoryLimit(memoryLimitBytes);
+        if (tempDir != null) job = job.withTempDir(tempDir);
+
+        // Queued jobs wait for memory before they create anything on disk
+        MemoryGovernor.Grant grant = MemoryGovernor.acquire(operation, inputBytes, job);
+        try (grant; TempFileManager.Scope scope = TempFileManager.openScope(job.getTempDir(), operation)) {
+            return body.run(grant.applyTo(job).withTempDir(scope.getDir()));
+        }
+    }
+}
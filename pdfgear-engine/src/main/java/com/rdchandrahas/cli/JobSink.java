@@ -0,0 +1,22 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.CancellableTask;
+
+/**
+ * JobSink receives the jobs a command creates. The command line runs them through
+ * JobRunner and prints one line each; the job server tracks them per request instead.
+ */
+public interface JobSink {
+
+    /**
+     * Queues a job.
+     * * @param label Identifies the job in the report, usually the input file name.
+     * @param task Returns a short description of what it wrote, e.g. the output path.
+     */
+    void submit(String label, CancellableTask<String> task);
+
+    /**
+     * Records a job that failed before it could be submitted, e.g. because of an output conflict.
+     */
+    void reject(String label, String reason);
+}
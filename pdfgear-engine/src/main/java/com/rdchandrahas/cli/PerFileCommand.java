@@ -0,0 +1,173 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.JobContext;
+import com.rdchandrahas.core.SpooledPdf;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * PerFileCommand processes every input independently, one parallel job per file.
+ * Outputs are written next to each input, or into --out-dir, named after the input
+ * with a command-specific suffix ("report.pdf" -> "report_rotated.pdf").
+ * With a single input, --output names the output file directly.
+ * Commands given a StreamJobFactory can also run on stdin and stdout.
+ */
+class PerFileCommand implements CliCommand {
+
+    /**
+     * The work done for one input file.
+     */
+    @FunctionalInterface
+    interface FileJob {
+        /**
+         * @param input The input file.
+         * @param output The output file, or the output folder for commands writing several files.
+         * @param job The job's settings; checked for cancellation by long running jobs.
+         * @return A short description of what was written.
+         */
+        String run(File input, File output, JobContext job) throws Exception;
+    }
+
+    /**
+     * Validates the options once, before any file is touched, and builds the job.
+     */
+    @FunctionalInterface
+    interface JobFactory {
+        FileJob create(CommandLine line) throws UsageException;
+    }
+
+    /**
+     * The work done for one document read from a stream.
+     */
+    @FunctionalInterface
+    interface StreamJob {
+        /**
+         * @param input The spooled input document.
+         * @param output Receives the result.
+         * @param job The job's settings; checked for cancellation by long running jobs.
+         * @return A short description of what was written.
+         */
+        String run(SpooledPdf input, OutputStream output, JobContext job) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface StreamJobFactory {
+        StreamJob create(CommandLine line) throws UsageException;
+    }
+
+    private static final String STDIN_LABEL = "<stdin>";
+
+    private final String name;
+    private final String summary;
+    private final String usage;
+    private final Set<String> options;
+    private final String outputSuffix;
+    private final boolean outputIsFolder;
+    private final JobFactory jobFactory;
+    private StreamJobFactory streamJobFactory;
+
+    /**
+     * @param outputSuffix Replaces the ".pdf" extension of the input to form the output name.
+     * @param outputIsFolder true if the job writes several files into a folder instead of one output.
+     */
+    PerFileCommand(String name, String summary, String usage, Set<String> options,
+                   String outputSuffix, boolean outputIsFolder, JobFactory jobFactory) {
+        this.name = name;
+        this.summary = summary;
+        this.usage = usage;
+        this.options = options;
+        this.outputSuffix = outputSuffix;
+        this.outputIsFolder = outputIsFolder;
+        this.jobFactory = jobFactory;
+    }
+
+    @Override public String getName() { return name; }
+    @Override public String getSummary() { return summary; }
+    @Override public String getUsage() { return usage; }
+    @Override public Set<String> getOptions() { return options; }
+    @Override public boolean isStreamable() { return streamJobFactory != null; }
+
+    /**
+     * Lets the command also run on stdin and stdout.
+     * * @return This command, for registration in one expression.
+     */
+    PerFileCommand streaming(StreamJobFactory factory) {
+        this.streamJobFactory = factory;
+        return this;
+    }
+
+    @Override
+    public void run(CommandLine line, List<File> inputs, JobSink jobs) throws UsageException {
+        FileJob job = jobFactory.create(line);
+        JobSettings settings = JobSettings.of(line);
+
+        File outputFile = null;
+        if (line.has("output")) {
+            if (outputIsFolder || inputs.size() != 1) {
+                throw new UsageException("--output needs exactly one input and a single-file command; use --out-dir instead.");
+            }
+            outputFile = new File(line.get("output", null)).getAbsoluteFile();
+        }
+        File outDir = resolveOutDir(line);
+        WorkerPool workers = line.isSet(WorkerPool.OPT_ISOLATE) ? WorkerPool.getShared() : null;
+
+        for (File input : inputs) {
+            File output = outputFile != null ? outputFile : outputFor(input, outDir);
+            if (!outputIsFolder && output.equals(input)) {
+                jobs.reject(input.getPath(), "output would overwrite the input");
+                continue;
+            }
+            if (workers != null) {
+                List<String> command = WorkerPool.commandFor(line, outputIsFolder ? "out-dir" : "output", output, List.of(input.getPath()));
+                jobs.submit(input.getPath(), context -> {
+                    workers.run(command, context);
+                    return output.getPath() + " (worker)";
+                });
+            } else {
+                jobs.submit(input.getPath(), context -> settings.run(input.length(), context,
+                        jobContext -> job.run(input, output, jobContext)));
+            }
+        }
+    }
+
+    @Override
+    public void runStream(CommandLine line, File input, InputStream stdin, OutputStream output, JobSink jobs) throws UsageException {
+        if (streamJobFactory == null) {
+            CliCommand.super.runStream(line, input, stdin, output, jobs);
+            return;
+        }
+        StreamJob job = streamJobFactory.create(line);
+        JobSettings settings = JobSettings.of(line);
+        jobs.submit(input == null ? STDIN_LABEL : input.getPath(), context -> {
+            try (SpooledPdf source = input == null ? SpooledPdf.read(stdin) : SpooledPdf.of(input)) {
+                return settings.run(source.length(), context, jobContext -> {
+                    BufferedOutputStream buffered = new BufferedOutputStream(output);
+                    String result = job.run(source, buffered, jobContext);
+                    buffered.flush();
+                    return result;
+                });
+            }
+        });
+    }
+
+    private File outputFor(File input, File outDir) {
+        File dir = outDir != null ? outDir : input.getAbsoluteFile().getParentFile();
+        if (outputIsFolder) return dir;
+        String base = input.getName().replaceFirst("(?i)\\.pdf$", "");
+        return new File(dir, base + outputSuffix);
+    }
+
+    static File resolveOutDir(CommandLine line) throws UsageException {
+        if (!line.has("out-dir")) return null;
+        File outDir = new File(line.get("out-dir", null)).getAbsoluteFile();
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            throw new UsageException("Cannot create output folder " + outDir);
+        }
+        return outDir;
+    }
+}
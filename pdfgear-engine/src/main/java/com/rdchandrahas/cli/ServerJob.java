@@ -0,0 +1,172 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.CancellableTask;
+import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.OverflowPolicy;
+import com.rdchandrahas.core.TaskHandle;
+import com.rdchandrahas.core.TaskKind;
+import com.rdchandrahas.shared.util.TempFileManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ServerJob is one request to the job server: the tasks its command submitted and the
+ * private folder holding its uploaded input and its outputs.
+ */
+class ServerJob implements JobSink {
+
+    enum State { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+
+    private record Entry(String label, TaskHandle<String> handle) { }
+
+    private final String id;
+    private final String command;
+    private final Path dir;
+    private final Path outDir;
+    private final List<Entry> entries = new CopyOnWriteArrayList<>();
+    private final List<String> rejected = new CopyOnWriteArrayList<>();
+    private final AtomicInteger started = new AtomicInteger();
+    private final long createdMillis = System.currentTimeMillis();
+    private volatile long lastCompletionMillis = createdMillis;
+
+    ServerJob(String id, String command, Path dir) {
+        this.id = id;
+        this.command = command;
+        this.dir = dir;
+        this.outDir = dir.resolve("out");
+    }
+
+    String getId() { return id; }
+    String getCommand() { return command; }
+    Path getDir() { return dir; }
+    Path getOutDir() { return outDir; }
+
+    /**
+     * Queues a task on the CPU lane. The lane rejects instead of blocking when its queue is
+     * full, so a flood of requests is answered with 503 instead of parking HTTP threads.
+     * * @throws java.util.concurrent.RejectedExecutionException If the CPU lane queue is full.
+     */
+    @Override
+    public void submit(String label, CancellableTask<String> task) {
+        TaskHandle<String> handle = ExecutionManager.submit(TaskKind.CPU, OverflowPolicy.REJECT, context -> {
+            started.incrementAndGet();
+            return task.run(context);
+        });
+        handle.onComplete((result, error) -> lastCompletionMillis = System.currentTimeMillis());
+        entries.add(new Entry(clientLabel(label), handle));
+    }
+
+    @Override
+    public void reject(String label, String reason) {
+        rejected.add(clientLabel(label) + ": " + reason);
+    }
+
+    /**
+     * Uploaded inputs live in the server's temp folder; clients only need to see their file name.
+     */
+    private String clientLabel(String label) {
+        return label.startsWith(dir.toString()) ? Path.of(label).getFileName().toString() : label;
+    }
+
+    State getState() {
+        boolean cancelled = false;
+        boolean failed = !rejected.isEmpty();
+        for (Entry entry : entries) {
+            TaskHandle<String> handle = entry.handle();
+            if (!handle.isDone()) {
+                return started.get() > 0 ? State.RUNNING : State.QUEUED;
+            }
+            Throwable error = errorOf(handle);
+            if (error instanceof CancellationException) cancelled = true;
+            else if (error != null) failed = true;
+        }
+        if (cancelled) return State.CANCELLED;
+        return failed ? State.FAILED : State.DONE;
+    }
+
+    boolean isFinished() {
+        State state = getState();
+        return state != State.QUEUED && state != State.RUNNING;
+    }
+
+    /**
+     * @return The share of work done from 0 to 1, with finished tasks counting as complete.
+     */
+    double getProgress() {
+        if (entries.isEmpty()) return isFinished() ? 1 : 0;
+        double sum = 0;
+        for (Entry entry : entries) {
+            double progress = entry.handle().isDone() ? 1 : entry.handle().getProgress();
+            sum += Math.max(0, progress);
+        }
+        return sum / entries.size();
+    }
+
+    List<String> getErrors() {
+        List<String> errors = new ArrayList<>(rejected);
+        for (Entry entry : entries) {
+            if (!entry.handle().isDone()) continue;
+            Throwable error = errorOf(entry.handle());
+            if (error != null && !(error instanceof CancellationException)) {
+                String message = error.getMessage();
+                errors.add(entry.label() + ": " + (message == null ? error.getClass().getSimpleName() : message));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * @return true if the job finished more than the given time ago and may be deleted.
+     */
+    boolean isExpired(long ttlMillis, long nowMillis) {
+        return isFinished() && nowMillis - lastCompletionMillis > ttlMillis;
+    }
+
+    long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    void cancel() {
+        for (Entry entry : entries) {
+            entry.handle().cancel();
+        }
+    }
+
+    /**
+     * Cancels what is still running and removes the job's files once the last task has stopped.
+     */
+    void delete() {
+        cancel();
+        List<Entry> snapshot = List.copyOf(entries);
+        if (snapshot.isEmpty()) {
+            TempFileManager.cleanup(dir);
+            return;
+        }
+        AtomicInteger running = new AtomicInteger(snapshot.size());
+        for (Entry entry : snapshot) {
+            entry.handle().onComplete((result, error) -> {
+                if (running.decrementAndGet() == 0) TempFileManager.cleanup(dir);
+            });
+        }
+    }
+
+    private static Throwable errorOf(TaskHandle<String> handle) {
+        try {
+            handle.get();
+            return null;
+        } catch (CancellationException e) {
+            return e;
+        } catch (ExecutionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new CancellationException("Interrupted");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.rdchandrahas.cli;
+
+/**
+ * Thrown when the command line is malformed. The runner prints the message with the
+ * usage of the command and exits with CliRunner.EXIT_USAGE.
+ */
+public class UsageException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public UsageException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,111 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.ExecutionManager;
+import com.rdchandrahas.core.JobJournal;
+import com.rdchandrahas.core.MemoryGovernor;
+import com.rdchandrahas.core.PdfService;
+import com.rdchandrahas.core.ScratchStorage;
+import com.rdchandrahas.shared.util.TempFileManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * WorkerMain is the entry point of a child JVM started by WorkerPool. It reads one command
+ * line at a time from stdin, runs it with CliRunner and answers with the exit code and the
+ * report the command printed. It exits when the parent closes stdin, which also happens when
+ * the parent process dies.
+ *
+ * Protocol (DataInput/DataOutput): request = int count, count x UTF argument;
+ * response = int exit code, UTF report.
+ *
+ * Options like --memory-mb or --serial change process-wide settings. A worker serves many
+ * jobs, so those settings are put back to the worker's defaults before every command.
+ */
+public class WorkerMain {
+
+    /** Longest report sent back; DataOutput.writeUTF is limited to 64 KB. */
+    private static final int MAX_REPORT_CHARS = 16_000;
+
+    private WorkerMain() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        // stdout carries the protocol; anything else printing there would corrupt it
+        DataOutputStream responses = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        DataInputStream requests = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        System.setOut(System.err);
+
+        // The default RAM budget assumes the whole desktop heap; keep to a share of this worker's own -Xmx
+        PdfService.setMemoryLimit(Runtime.getRuntime().maxMemory() / 4);
+        Defaults defaults = Defaults.capture();
+
+        while (true) {
+            String[] command;
+            try {
+                command = new String[requests.readInt()];
+            } catch (EOFException e) {
+                return;
+            }
+            for (int i = 0; i < command.length; i++) {
+                command[i] = requests.readUTF();
+            }
+
+            defaults.restore();
+            ByteArrayOutputStream report = new ByteArrayOutputStream();
+            int exitCode;
+            try (PrintStream capture = new PrintStream(report, true, StandardCharsets.UTF_8)) {
+                exitCode = new CliRunner(InputStream.nullInputStream(), capture, capture).run(command);
+            }
+
+            String text = report.toString(StandardCharsets.UTF_8);
+            responses.writeInt(exitCode);
+            responses.writeUTF(text.length() > MAX_REPORT_CHARS ? text.substring(0, MAX_REPORT_CHARS) : text);
+            responses.flush();
+        }
+    }
+
+    /**
+     * The process-wide settings a command line can change, as they were before the first job.
+     */
+    private record Defaults(Level rootLevel, long memoryLimit, long offHeapLimit, long poolSize, long tempQuota,
+                            List<Path> preferredTempDirs, boolean multiThreading, boolean journalEnabled, Path journalDir) {
+
+        static Defaults capture() {
+            return new Defaults(Logger.getLogger("").getLevel(), PdfService.getMemoryLimit(), ScratchStorage.getOffHeapLimit(),
+                    MemoryGovernor.getPoolSize(), TempFileManager.getQuota(), TempFileManager.getPreferredDirs(),
+                    ExecutionManager.isMultiThreadingEnabled(), JobJournal.isEnabled(), JobJournal.getDirectory());
+        }
+
+        // Only settings that differ are reset, so an unchanged worker logs nothing
+        void restore() {
+            Logger.getLogger("").setLevel(rootLevel);
+            if (PdfService.getMemoryLimit() != memoryLimit) PdfService.setMemoryLimit(memoryLimit);
+            if (ScratchStorage.getOffHeapLimit() != offHeapLimit) ScratchStorage.setOffHeapLimit(offHeapLimit);
+            if (MemoryGovernor.getPoolSize() != poolSize) MemoryGovernor.setPoolSize(poolSize);
+            if (TempFileManager.getQuota() != tempQuota) TempFileManager.setQuota(tempQuota);
+            if (!TempFileManager.getPreferredDirs().equals(preferredTempDirs)) TempFileManager.setPreferredDirs(preferredTempDirs);
+            ExecutionManager.setMultiThreading(multiThreading);
+            if (JobJournal.isEnabled() != journalEnabled) JobJournal.setEnabled(journalEnabled);
+            if (!JobJournal.getDirectory().equals(journalDir)) JobJournal.setDirectory(journalDir);
+        }
+    }
+}
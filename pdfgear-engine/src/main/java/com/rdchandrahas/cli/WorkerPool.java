@@ -0,0 +1,241 @@
+package com.rdchandrahas.cli;
+
+import com.rdchandrahas.core.TaskContext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * WorkerPool runs commands in child JVMs, each with its own -Xmx, so a malformed or
+ * gigantic PDF can only exhaust the heap of the worker handling it. The main process (the
+ * desktop UI or the CLI) and every other job keep running: the job on the crashed worker
+ * fails, and the worker is replaced with a fresh process for the next job.
+ *
+ * Workers are started lazily, run one command at a time and talk to this process over
+ * their stdin and stdout (see WorkerMain). The pool used by the desktop and the CLI is
+ * configured once with configure() and reached with getShared().
+ */
+public class WorkerPool implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerPool.class.getName());
+
+    /** HotSpot's exit code for -XX:+ExitOnOutOfMemoryError. */
+    private static final int EXIT_OUT_OF_MEMORY = 3;
+    private static final long POLL_MILLIS = 20;
+
+    /** The CLI options that configure isolation; they are not passed on to the workers. */
+    static final String OPT_ISOLATE = "isolate";
+    static final Set<String> OPTIONS = Set.of(OPT_ISOLATE, "workers", "worker-heap-mb");
+    private static final Set<String> NOT_FORWARDED = Set.of(OPT_ISOLATE, "workers", "worker-heap-mb", "output", "out-dir", "help");
+
+    private static volatile WorkerPool shared;
+
+    private final int heapMb;
+    private final BlockingQueue<Worker> idle;
+    private final List<Worker> all = new ArrayList<>();
+    private volatile boolean closed = false;
+
+    /**
+     * @param size The number of worker processes, at least 1.
+     * @param heapMb The maximum heap of each worker in MB.
+     */
+    public WorkerPool(int size, int heapMb) {
+        if (size < 1) throw new IllegalArgumentException("A worker pool needs at least one worker.");
+        this.heapMb = heapMb;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            Worker worker = new Worker();
+            all.add(worker);
+            idle.add(worker);
+        }
+    }
+
+    /**
+     * Replaces the shared pool. The previous pool's workers are stopped once their jobs finish.
+     * * @param size The number of workers; 0 turns isolation off.
+     */
+    public static synchronized void configure(int size, int heapMb) {
+        WorkerPool previous = shared;
+        shared = size > 0 ? new WorkerPool(size, heapMb) : null;
+        if (previous != null) previous.close();
+        LOGGER.log(Level.INFO, "Worker isolation: {0} workers with {1} MB heap each", new Object[]{size, heapMb});
+    }
+
+    /**
+     * @return The shared pool, or null if heavy jobs run in this process.
+     */
+    public static WorkerPool getShared() {
+        return shared;
+    }
+
+    public int getSize() {
+        return all.size();
+    }
+
+    public int getHeapMb() {
+        return heapMb;
+    }
+
+    /**
+     * Runs a headless command line on the next free worker and waits for it.
+     * * @param args The command line, exactly as typed after HeadlessLauncher.
+     * @param context Cancelling it kills the worker, which is then replaced.
+     * @return What the command reported.
+     * @throws IOException If the command failed or the worker died; the message explains why.
+     */
+    public String run(List<String> args, TaskContext context) throws IOException {
+        Worker worker;
+        try {
+            worker = idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a worker");
+        }
+        try {
+            return worker.run(args, context);
+        } finally {
+            if (closed) worker.stop();
+            else idle.add(worker);
+        }
+    }
+
+    /**
+     * Builds the worker's command line for one job of a CLI command.
+     * * @param outputOption "output" for a single output file, "out-dir" for a folder.
+     */
+    static List<String> commandFor(CommandLine line, String outputOption, File output, List<String> inputs) {
+        List<String> args = line.toArguments(NOT_FORWARDED);
+        args.add("--" + outputOption + "=" + output.getAbsolutePath());
+        args.add("--");
+        args.addAll(inputs);
+        return args;
+    }
+
+    /**
+     * Stops idle workers now; busy workers stop when their job returns.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        List<Worker> idleWorkers = new ArrayList<>();
+        idle.drainTo(idleWorkers);
+        idleWorkers.forEach(Worker::stop);
+    }
+
+    /**
+     * One child JVM, restarted on demand after it dies.
+     */
+    private final class Worker {
+
+        private Process process;
+        private DataOutputStream requests;
+        private DataInputStream responses;
+
+        String run(List<String> args, TaskContext context) throws IOException {
+            ensureStarted();
+            try {
+                requests.writeInt(args.size());
+                for (String arg : args) requests.writeUTF(arg);
+                requests.flush();
+
+                // Poll rather than block, so cancellation and a crash are both noticed promptly
+                while (responses.available() < Integer.BYTES) {
+                    if (context.isCancelled()) {
+                        stop();
+                        throw new CancellationException("Cancelled; worker process stopped");
+                    }
+                    if (!process.isAlive() && responses.available() < Integer.BYTES) {
+                        throw crashed();
+                    }
+                    TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+                }
+                int exitCode = responses.readInt();
+                String report = responses.readUTF();
+                if (exitCode != CliRunner.EXIT_OK) {
+                    throw new IOException(failureMessage(report, exitCode));
+                }
+                return report;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop();
+                throw new CancellationException("Interrupted; worker process stopped");
+            } catch (IOException e) {
+                // A broken pipe or a truncated response also means the worker is gone
+                if (process != null && !process.isAlive()) throw crashed();
+                throw e;
+            }
+        }
+
+        private void ensureStarted() throws IOException {
+            if (process != null && process.isAlive()) return;
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            ProcessBuilder builder = new ProcessBuilder(java,
+                    "-Xmx" + heapMb + "m",
+                    "-XX:+ExitOnOutOfMemoryError",
+                    "-Djava.awt.headless=true",
+                    "-cp", System.getProperty("java.class.path"),
+                    WorkerMain.class.getName());
+            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            process = builder.start();
+            requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            LOGGER.log(Level.INFO, "Started worker process {0}", process.pid());
+        }
+
+        /**
+         * Builds the failure for a worker that died, and leaves it to be restarted by the next job.
+         */
+        private IOException crashed() {
+            int exitCode;
+            try {
+                exitCode = process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exitCode = -1;
+            }
+            LOGGER.log(Level.WARNING, "Worker process {0} died with exit code {1}", new Object[]{process.pid(), exitCode});
+            stop();
+            if (exitCode == EXIT_OUT_OF_MEMORY) {
+                return new IOException("Worker ran out of memory (" + heapMb + " MB heap); the document is too large or malformed.");
+            }
+            return new IOException("Worker process crashed with exit code " + exitCode + ".");
+        }
+
+        void stop() {
+            if (process == null) return;
+            process.destroyForcibly();
+            process = null;
+        }
+    }
+
+    /**
+     * @return The reason a command gave for failing, without the CLI's line prefixes.
+     */
+    private static String failureMessage(String report, int exitCode) {
+        for (String reportLine : report.split("\\R")) {
+            if (reportLine.startsWith("FAILED")) {
+                String message = reportLine.substring("FAILED".length()).trim();
+                int colon = message.indexOf(": ");
+                return colon >= 0 ? message.substring(colon + 2) : message;
+            }
+            if (reportLine.startsWith("Error: ")) {
+                return reportLine.substring("Error: ".length());
+            }
+        }
+        return "Command failed with exit code " + exitCode + ".";
+    }
+}
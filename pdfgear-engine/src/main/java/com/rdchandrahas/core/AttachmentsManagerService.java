@@ -23,7 +23,7 @@ public class AttachmentsManagerService {
     public void addAttachment(String inputPath, String outputPath, String attachmentFilePath) throws IOException{
         LOGGER.log(Level.INFO, "Adding attachment to {0}", inputPath);
 
-        try (PDDocument document = PDDocument.load(new File(inputPath), PdfService.getGlobalMemorySetting())) {
+        try (PDDocument document = PdfLoader.load(new File(inputPath))) {
             PDDocumentNameDictionary namesDictionary = new PDDocumentNameDictionary(document.getDocumentCatalog());
             PDEmbeddedFilesNameTreeNode efTree = namesDictionary.getEmbeddedFiles();
             
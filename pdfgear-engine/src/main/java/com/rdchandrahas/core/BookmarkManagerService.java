@@ -29,7 +29,7 @@ public class BookmarkManagerService {
     public void addBookmarks(String inputPath, String outputPath, List<BookmarkEntry> bookmarks) throws IOException {
         LOGGER.log(Level.INFO, "Adding bookmarks to {0}", inputPath);
 
-        try (PDDocument document = PDDocument.load(new File(inputPath), PdfService.getGlobalMemorySetting())) {
+        try (PDDocument document = PdfLoader.load(new File(inputPath))) {
             PDDocumentOutline outline = document.getDocumentCatalog().getDocumentOutline();
             
             if (outline == null) {
@@ -0,0 +1,117 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.io.RandomAccessRead;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * ByteBufferRandomAccess lets PDFBox parse a document straight from a ByteBuffer
+ * (a heap array or a direct buffer) without first copying it into its own buffers.
+ * ByteBuffer positions are ints, so a single buffer holds at most 2 GB.
+ */
+class ByteBufferRandomAccess implements RandomAccessRead {
+
+    private final ByteBuffer buffer;
+    private boolean closed = false;
+
+    /**
+     * @param buffer The bytes from its position to its limit are the document. The buffer's own
+     * position and limit are left untouched.
+     */
+    ByteBufferRandomAccess(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int length) throws IOException {
+        checkClosed();
+        if (length == 0) return 0;
+        if (!buffer.hasRemaining()) return -1;
+        int count = Math.min(length, buffer.remaining());
+        buffer.get(b, offset, count);
+        return count;
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        checkClosed();
+        return buffer.position();
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        checkClosed();
+        if (position < 0) {
+            throw new IOException("Invalid position " + position);
+        }
+        buffer.position((int) Math.min(position, buffer.limit()));
+    }
+
+    @Override
+    public long length() throws IOException {
+        checkClosed();
+        return buffer.limit();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public int peek() throws IOException {
+        checkClosed();
+        return buffer.hasRemaining() ? buffer.get(buffer.position()) & 0xFF : -1;
+    }
+
+    @Override
+    public void rewind(int bytes) throws IOException {
+        seek(getPosition() - bytes);
+    }
+
+    @Override
+    public byte[] readFully(int length) throws IOException {
+        checkClosed();
+        if (buffer.remaining() < length) {
+            throw new EOFException("Premature end of buffer reached");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        return peek() == -1;
+    }
+
+    @Override
+    public int available() throws IOException {
+        checkClosed();
+        return buffer.remaining();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private void checkClosed() throws IOException {
+        if (closed) {
+            throw new IOException("ByteBufferRandomAccess already closed");
+        }
+    }
+}
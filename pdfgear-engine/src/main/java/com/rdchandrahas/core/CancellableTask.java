@@ -0,0 +1,11 @@
+package com.rdchandrahas.core;
+
+/**
+ * CancellableTask is a unit of background work that receives a TaskContext
+ * for cooperative cancellation and progress reporting.
+ * * @param <T> The type of the result.
+ */
+@FunctionalInterface
+public interface CancellableTask<T> {
+    T run(TaskContext context) throws Exception;
+}
@@ -0,0 +1,230 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * CompressService reduces PDF file sizes with an iterative compression engine that
+ * progressively lowers image quality and dimensions until a target size is met.
+ */
+public class CompressService {
+
+    private static final Logger LOGGER = Logger.getLogger(CompressService.class.getName());
+
+    /** {JPEG quality, scale factor} pairs, from gentle to extreme. */
+    private static final float[][] STRATEGIES = {
+            { 0.8f, 1.0f }, // High quality, original dimensions
+            { 0.6f, 1.0f }, // Medium quality, original dimensions
+            { 0.4f, 0.8f }, // Low quality, 80% dimensions
+            { 0.2f, 0.5f }, // Very low quality, 50% dimensions
+            { 0.1f, 0.3f }  // Extreme compression
+    };
+
+    /**
+     * @param originalSizeBytes The size of the source file.
+     * @param percentage The reduction in percent, between 1 and 99.
+     * @return The target size in bytes.
+     */
+    public static long percentageTarget(long originalSizeBytes, double percentage) {
+        if (percentage <= 0 || percentage >= 100) {
+            throw new IllegalArgumentException("Percentage must be between 1 and 99.");
+        }
+        double factor = 1.0 - (percentage / 100.0);
+        return (long) (originalSizeBytes * factor);
+    }
+
+    /**
+     * Compresses the source towards the target size. If no strategy reaches the target,
+     * the smallest attempt is kept.
+     * * @return false if the source was already under the target and was copied as-is.
+     */
+    public boolean compress(File sourceFile, File destination, long targetSizeBytes) throws IOException {
+        return compress(sourceFile, destination, targetSizeBytes, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * Compresses with the settings of a job: its memory limit for every attempt, and its temp
+     * folder for the attempt files. The job is checked for cancellation between attempts.
+     * * @return false if the source was already under the target and was copied as-is.
+     */
+    public boolean compress(File sourceFile, File destination, long targetSizeBytes, JobContext job) throws IOException {
+        long originalSizeBytes = sourceFile.length();
+        LOGGER.log(Level.INFO, "Starting compression. Original size: {0} bytes, Target size: {1} bytes",
+                new Object[]{originalSizeBytes, targetSizeBytes});
+
+        // Optimization: If the file is already under the target, just copy it
+        if (targetSizeBytes >= originalSizeBytes) {
+            Files.copy(sourceFile.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return false;
+        }
+
+        File bestResultFile = null;
+        try {
+            bestResultFile = executeIterativeCompression(() -> PdfLoader.load(sourceFile, job.getMemorySetting()),
+                    targetSizeBytes, originalSizeBytes, job);
+            Files.copy(bestResultFile.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("Compression complete. Final file saved.");
+        } finally {
+            deleteBestResult(bestResultFile);
+        }
+        return true;
+    }
+
+    /**
+     * Compresses a spooled document, e.g. one read from standard input, and writes the result to a stream.
+     * * @return false if the source was already under the target and was copied as-is.
+     */
+    public boolean compress(SpooledPdf source, OutputStream destination, long targetSizeBytes) throws IOException {
+        return compress(source, destination, targetSizeBytes, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * Compresses a spooled document with the settings of a job; see compress(File, File, long, JobContext).
+     * * @return false if the source was already under the target and was copied as-is.
+     */
+    public boolean compress(SpooledPdf source, OutputStream destination, long targetSizeBytes, JobContext job) throws IOException {
+        if (targetSizeBytes >= source.length()) {
+            source.copyTo(destination);
+            return false;
+        }
+
+        File bestResultFile = null;
+        try {
+            bestResultFile = executeIterativeCompression(() -> source.load(null, job.getMemorySetting()),
+                    targetSizeBytes, source.length(), job);
+            Files.copy(bestResultFile.toPath(), destination);
+        } finally {
+            deleteBestResult(bestResultFile);
+        }
+        return true;
+    }
+
+    /**
+     * Opens a fresh copy of the source for every attempt, since each attempt rewrites its images.
+     */
+    @FunctionalInterface
+    private interface SourceLoader {
+        PDDocument load() throws IOException;
+    }
+
+    /**
+     * Progressively applies more aggressive compression strategies until
+     * the target size is reached or strategies are exhausted.
+     * Uses Temporary Disk files to prevent RAM exhaustion.
+     * * @param sourceSizeBytes An attempt is rarely larger than the source, so this much room is checked for.
+     * @return The smallest attempt; the caller deletes it.
+     */
+    private File executeIterativeCompression(SourceLoader loader, long targetSizeBytes, long sourceSizeBytes, JobContext job) throws IOException {
+        File bestResultFile = null;
+
+        try {
+            for (int i = 0; i < STRATEGIES.length; i++) {
+                job.checkCancelled();
+                float quality = STRATEGIES[i][0];
+                float scale = STRATEGIES[i][1];
+
+                LOGGER.log(Level.INFO, "Attempting compression strategy {0}: Quality={1}, Scale={2}",
+                        new Object[]{i + 1, quality, scale});
+
+                File tempAttempt = job.createTempFile("compress_attempt_", ".pdf", sourceSizeBytes);
+
+                try (PDDocument doc = loader.load()) {
+                    compressImages(doc, quality, scale);
+                    doc.save(tempAttempt);
+                }
+
+                long attemptSize = tempAttempt.length();
+                LOGGER.log(Level.INFO, "Strategy {0} resulted in size: {1} bytes", new Object[]{i + 1, attemptSize});
+
+                // Track the smallest file in case we never hit the target
+                if (bestResultFile == null || attemptSize < bestResultFile.length()) {
+                    if (bestResultFile != null && !bestResultFile.delete()) {
+                        LOGGER.log(Level.WARNING, "Failed to delete old best result file");
+                    }
+                    bestResultFile = tempAttempt;
+                } else if (!tempAttempt.delete()) {
+                    LOGGER.log(Level.WARNING, "Failed to delete temporary attempt file");
+                }
+
+                if (attemptSize <= targetSizeBytes) {
+                    LOGGER.info("Target size reached! Stopping iterative compression.");
+                    break;
+                }
+            }
+
+            if (bestResultFile == null) {
+                throw new IOException("Failed to process document.");
+            }
+            return bestResultFile;
+        } catch (IOException | RuntimeException e) {
+            deleteBestResult(bestResultFile);
+            throw e;
+        }
+    }
+
+    private static void deleteBestResult(File bestResultFile) {
+        // Whether the loop crashed or finished, the temp file must not outlive the job
+        if (bestResultFile != null && bestResultFile.exists() && !bestResultFile.delete()) {
+            LOGGER.log(Level.WARNING, "Failed to clean up best result temp file from the temp directory.");
+        }
+    }
+
+    /**
+     * Traverses the page resources and re-encodes every image with the given quality and scale.
+     * * @param quality The JPEG quality between 0 and 1.
+     * @param scaleFactor The factor applied to both image dimensions.
+     */
+    public void compressImages(PDDocument doc, float quality, float scaleFactor) throws IOException {
+        for (PDPage page : doc.getPages()) {
+            PDResources resources = page.getResources();
+            if (resources != null) {
+                processPageResources(doc, resources, quality, scaleFactor);
+            }
+        }
+    }
+
+    private void processPageResources(PDDocument doc, PDResources resources, float quality, float scaleFactor) throws IOException {
+        for (COSName name : resources.getXObjectNames()) {
+            PDXObject xObject = resources.getXObject(name);
+            if (xObject instanceof PDImageXObject pdImage) {
+                compressSingleImage(doc, resources, name, pdImage, quality, scaleFactor);
+            }
+        }
+    }
+
+    private void compressSingleImage(PDDocument doc, PDResources resources, COSName name, PDImageXObject pdImage, float quality, float scaleFactor) throws IOException {
+        BufferedImage bImage = pdImage.getImage();
+        if (bImage != null) {
+            int newWidth = (int) (bImage.getWidth() * scaleFactor);
+            int newHeight = (int) (bImage.getHeight() * scaleFactor);
+
+            if (newWidth >= 10 && newHeight >= 10) {
+                // Resize using AWT
+                BufferedImage resizedImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g2d = resizedImage.createGraphics();
+                g2d.drawImage(bImage.getScaledInstance(newWidth, newHeight, Image.SCALE_FAST), 0, 0, null);
+                g2d.dispose();
+
+                // Re-encode as a compressed JPEG XObject and replace the original resource
+                PDImageXObject compressedImage = JPEGFactory.createFromImage(doc, resizedImage, quality);
+                resources.put(name, compressedImage);
+            }
+        }
+    }
+}
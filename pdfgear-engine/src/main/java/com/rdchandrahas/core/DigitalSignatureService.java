@@ -46,7 +46,7 @@ public class DigitalSignatureService {
         PrivateKey privateKey = (PrivateKey) keystore.getKey(alias, passwordChar);
         Certificate[] certificateChain = keystore.getCertificateChain(alias);
 
-        try (PDDocument document = PDDocument.load(new File(inputPath), PdfService.getGlobalMemorySetting());
+        try (PDDocument document = PdfLoader.load(new File(inputPath));
              FileOutputStream fos = new FileOutputStream(outputPath)) {
 
             PDSignature signature = new PDSignature();
@@ -0,0 +1,55 @@
+package com.rdchandrahas.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DirectBuffers releases direct and memory-mapped buffers as soon as their owner is done with
+ * them. Without it the native memory (or the mapping) is only returned when the garbage
+ * collector happens to clear the buffer object, which on a large heap can take a long time.
+ */
+final class DirectBuffers {
+
+    private static final Logger LOGGER = Logger.getLogger(DirectBuffers.class.getName());
+
+    /** sun.misc.Unsafe.invokeCleaner, or null where it is not available. */
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Direct buffers are released by the garbage collector", e);
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private DirectBuffers() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Frees a direct buffer or unmaps a mapped one. The buffer, and every slice or duplicate
+     * of it, must not be touched afterwards.
+     * * @param buffer A buffer from allocateDirect() or FileChannel.map(), not a slice of one.
+     */
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || buffer == null || !buffer.isDirect()) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.FINE, "Could not release a direct buffer", e);
+        }
+    }
+}
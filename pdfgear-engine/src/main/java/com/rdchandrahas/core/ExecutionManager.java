@@ -0,0 +1,315 @@
+package com.rdchandrahas.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ExecutionManager handles the application's threading model.
+ * It provides a centralized way to submit tasks for either background (asynchronous) 
+ * or foreground (synchronous) execution, and manages the lifecycle of the executor services.
+ * Tasks run on one of two lanes: a CPU lane sized to the processor cores and an I/O lane
+ * backed by virtual threads, so disk-bound work and rendering don't starve each other.
+ * Both lanes have bounded queues; what happens on overflow is chosen per task.
+ */
+public class ExecutionManager {
+    
+    private static final Logger LOGGER = Logger.getLogger(ExecutionManager.class.getName());
+    
+    // Safety limit to guarantee we always have at least 2 threads, but max out at CPU cores.
+    // This prevents the "Thread Bomb" when uploading 5,000 files.
+    private static final int MAX_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** Concurrent blocking operations on the I/O lane. Virtual threads make this cheap, the disk sets the limit. */
+    private static final int MAX_IO_THREADS = 64;
+
+    // Queue bounds. Large enough for every real job, small enough that a flood of thumbnails can't pile up.
+    private static final int CPU_QUEUE_CAPACITY = 1024;
+    private static final int IO_QUEUE_CAPACITY = 4096;
+
+    /** Workers per lane held back for INTERACTIVE tasks, so previews never wait for a batch job to finish. */
+    private static final int INTERACTIVE_THREADS = 1;
+    
+    private ExecutionManager() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    // --- State Variables ---
+    
+    /** Default: Run in background (Async) to keep the UI responsive. */
+    private static boolean async = true;
+    
+    /** Flag to track if multi-threading is active or if tasks are serialized on a single thread. */
+    private static boolean multiThreadingEnabled = true;
+
+    // Metrics live outside the executors so they survive a lane restart
+    private static final LaneMetrics cpuMetrics = new LaneMetrics("cpu");
+    private static final LaneMetrics ioMetrics = new LaneMetrics("io");
+
+    /** The CPU lane. Replaced when the multi-threading mode changes. */
+    private static LaneExecutor executor = newCpuLane(MAX_THREADS);
+
+    /**
+     * The I/O lane. Its workers are virtual threads, so blocked reads cost no platform threads.
+     * Serial mode only affects the CPU lane; blocking I/O never benefits from being queued.
+     */
+    private static final LaneExecutor ioExecutor =
+            new LaneExecutor("io", MAX_IO_THREADS, INTERACTIVE_THREADS, IO_QUEUE_CAPACITY, Thread.ofVirtual().factory(), ioMetrics);
+
+    // --- Configuration Methods ---
+
+    /**
+     * Toggles between background threading and blocking execution.
+     * @param enabled true for background threads (Async), false for blocking the UI thread (Sync).
+     */
+    public static void setAsync(boolean enabled) {
+        async = enabled;
+        LOGGER.log(Level.INFO, "Execution Mode: {0}", (async ? "Background Threads" : "Blocking/Sync"));
+    }
+
+    /**
+     * Toggles between multi-threaded execution and single-thread execution.
+     * If the mode changes, the current executor is shut down and replaced with the appropriate pool type.
+     * @param enabled true for multi-threading (Pool), false for single background thread (Serial).
+     */
+    public static void setMultiThreading(boolean enabled) {
+        // Prevent redundant restarts if the state hasn't changed
+        if (multiThreadingEnabled == enabled) return;
+        
+        multiThreadingEnabled = enabled;
+        LaneExecutor oldExecutor = executor;
+        
+        if (multiThreadingEnabled) {
+            // Create a pool optimized for the system's CPU core count
+            executor = newCpuLane(MAX_THREADS);
+        } else {
+            // Create an executor that handles tasks one by one in order
+            executor = newCpuLane(1);
+        }
+        
+        // Gracefully shut down the previous executor service; its queued tasks still run
+        if (oldExecutor != null) {
+            oldExecutor.shutdown();
+        }
+        
+        LOGGER.log(Level.INFO, "Multi-threading Mode: {0}", (multiThreadingEnabled ? "Enabled" : "Disabled"));
+    }
+
+    /**
+     * Checks if multi-threading is currently active.
+     * @return true if multi-threading is enabled.
+     */
+    public static boolean isMultiThreadingEnabled() {
+        return multiThreadingEnabled;
+    }
+
+    // --- Execution Methods ---
+
+    /**
+     * Submits a task for execution based on the current 'async' configuration.
+     * Fails with a RejectedExecutionException if the CPU lane queue is full.
+     * @param task The Runnable task to be performed.
+     */
+    public static void submit(Runnable task) {
+        submit(TaskKind.CPU, task);
+    }
+
+    /**
+     * Submits a task to the lane matching its kind, based on the current 'async' configuration.
+     * Uses OverflowPolicy.REJECT, so the caller never waits and the queue stays bounded.
+     * Batch producers that may wait pass BLOCK_CALLER, speculative work passes DROP_OLDEST.
+     * @param kind Whether the task is compute-bound or waits on the disk.
+     * @param task The Runnable task to be performed.
+     */
+    public static void submit(TaskKind kind, Runnable task) {
+        submit(kind, OverflowPolicy.REJECT, task);
+    }
+
+    /**
+     * Submits a task to the lane matching its kind with an explicit overflow policy.
+     * @param kind Whether the task is compute-bound or waits on the disk.
+     * @param overflow What happens when the lane queue is full.
+     * @param task The Runnable task to be performed.
+     * @throws java.util.concurrent.RejectedExecutionException If the queue is full and the policy is REJECT.
+     */
+    public static void submit(TaskKind kind, OverflowPolicy overflow, Runnable task) {
+        submit(TaskPriority.BATCH, kind, overflow, task);
+    }
+
+    /**
+     * Submits a task with an explicit priority class. Higher priority tasks are picked up
+     * before anything of lower priority that is already waiting.
+     * @param priority The priority class of the task.
+     * @param kind Whether the task is compute-bound or waits on the disk.
+     * @param overflow What happens when the lane queue is full.
+     * @param task The Runnable task to be performed.
+     */
+    public static void submit(TaskPriority priority, TaskKind kind, OverflowPolicy overflow, Runnable task) {
+        if (async) {
+            // Run in a background thread to ensure the UI remains responsive
+            laneFor(kind).submit(task, priority, overflow);
+        } else {
+            // Run immediately on the current (UI) thread, which will cause the interface to freeze until finished
+            try {
+                task.run();
+            } catch (Exception e) {
+                // Log errors occurring during synchronous execution instead of printStackTrace
+                LOGGER.log(Level.SEVERE, "Task execution failed during synchronous mode", e);
+            }
+        }
+    }
+
+    /**
+     * Submits a cancellable task and returns a handle to control and observe it.
+     * Honours the 'async' configuration like submit(Runnable); in blocking mode the task
+     * runs on the calling thread and the returned handle is already complete.
+     * * @param task The task to be performed.
+     * @return A handle for cancellation, progress and completion callbacks.
+     */
+    public static <T> TaskHandle<T> submit(CancellableTask<T> task) {
+        return submit(TaskKind.CPU, task);
+    }
+
+    /**
+     * Submits a cancellable task to the lane matching its kind. Like submit(TaskKind, Runnable),
+     * it never makes the caller wait and fails if the lane queue is full.
+     * @param kind Whether the task is compute-bound or waits on the disk.
+     * @param task The task to be performed.
+     * @return A handle for cancellation, progress and completion callbacks.
+     */
+    public static <T> TaskHandle<T> submit(TaskKind kind, CancellableTask<T> task) {
+        return submit(kind, OverflowPolicy.REJECT, task);
+    }
+
+    /**
+     * Submits a cancellable task with an explicit overflow policy.
+     * If the task is dropped from a full queue, its handle completes as cancelled.
+     * @param kind Whether the task is compute-bound or waits on the disk.
+     * @param overflow What happens when the lane queue is full.
+     * @param task The task to be performed.
+     * @return A handle for cancellation, progress and completion callbacks.
+     */
+    public static <T> TaskHandle<T> submit(TaskKind kind, OverflowPolicy overflow, CancellableTask<T> task) {
+        return submit(TaskPriority.BATCH, kind, overflow, task);
+    }
+
+    /**
+     * Submits a cancellable task with an explicit priority class.
+     * @param priority The priority class of the task.
+     * @param kind Whether the task is compute-bound or waits on the disk.
+     * @param overflow What happens when the lane queue is full.
+     * @param task The task to be performed.
+     * @return A handle for cancellation, progress and completion callbacks.
+     */
+    public static <T> TaskHandle<T> submit(TaskPriority priority, TaskKind kind, OverflowPolicy overflow, CancellableTask<T> task) {
+        TaskHandle<T> handle = new TaskHandle<>();
+        if (async) {
+            FutureTask<Void> execution = new FutureTask<>(() -> handle.run(task), null) {
+                @Override
+                protected void done() {
+                    if (isCancelled()) handle.cancel();
+                }
+            };
+            handle.setExecution(execution);
+            laneFor(kind).submit(execution, priority, overflow);
+        } else {
+            handle.run(task);
+        }
+        return handle;
+    }
+
+    // --- Backpressure ---
+
+    /**
+     * Returns the number of tasks waiting for a worker, so callers can throttle
+     * before the queue overflows.
+     * @param kind The lane to inspect.
+     * @return The current queue depth.
+     */
+    public static int getQueueDepth(TaskKind kind) {
+        return laneFor(kind).getQueueDepth();
+    }
+
+    /**
+     * @param kind The lane to inspect.
+     * @return The maximum number of tasks that can wait in the lane's queue.
+     */
+    public static int getQueueCapacity(TaskKind kind) {
+        return laneFor(kind).getCapacity();
+    }
+
+    /**
+     * @param kind The lane to inspect.
+     * @return The number of workers currently running a task.
+     */
+    public static int getActiveThreads(TaskKind kind) {
+        return metricsFor(kind).getActiveThreads();
+    }
+
+    /**
+     * @param kind The lane to inspect.
+     * @return The number of submissions refused because the queue was full (REJECT policy).
+     */
+    public static long getRejectedCount(TaskKind kind) {
+        return metricsFor(kind).getRejectedCount();
+    }
+
+    // --- Metrics ---
+
+    /**
+     * Builds a plain-text report of both lanes: queue depth, active threads, submitted,
+     * completed, dropped and rejected counts, plus queue-wait and run-time histograms.
+     * @return The report, suitable for the debug console or a support file.
+     */
+    public static String getMetricsReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Execution Metrics (").append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date())).append(") ===")
+          .append(System.lineSeparator());
+        sb.append("Mode: ").append(async ? "Background Threads" : "Blocking/Sync")
+          .append(", ").append(multiThreadingEnabled ? "Multi-threaded" : "Serial")
+          .append(System.lineSeparator());
+        cpuMetrics.appendTo(sb, executor);
+        ioMetrics.appendTo(sb, ioExecutor);
+        return sb.toString();
+    }
+
+    /**
+     * Writes the metrics report to a file.
+     * @param file The destination; an existing file is overwritten.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void dumpMetrics(Path file) throws IOException {
+        Files.writeString(file, getMetricsReport(), StandardCharsets.UTF_8);
+        LOGGER.log(Level.INFO, "Execution metrics written to: {0}", file);
+    }
+
+    private static LaneMetrics metricsFor(TaskKind kind) {
+        return kind == TaskKind.IO ? ioMetrics : cpuMetrics;
+    }
+
+    private static LaneExecutor laneFor(TaskKind kind) {
+        return kind == TaskKind.IO ? ioExecutor : executor;
+    }
+
+    private static LaneExecutor newCpuLane(int threads) {
+        return new LaneExecutor("cpu", threads, INTERACTIVE_THREADS, CPU_QUEUE_CAPACITY, Executors.defaultThreadFactory(), cpuMetrics);
+    }
+
+    /**
+     * Initiates an orderly shutdown of the executor services.
+     * Should be called when the application is closing to release system resources.
+     */
+    public static void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        ioExecutor.shutdown();
+    }
+}
\ No newline at end of file
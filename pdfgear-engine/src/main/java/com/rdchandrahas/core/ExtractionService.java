@@ -0,0 +1,154 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * ExtractionService pulls content out of PDFs: plain text, embedded images and rendered pages.
+ */
+public class ExtractionService {
+
+    /**
+     * Writes the text of the given documents into one file. When there are several
+     * documents, each one is preceded by a header with its file name.
+     */
+    public void extractText(List<String> sourcePaths, File destination) throws IOException {
+        extractText(sourcePaths, destination, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * @param job Sets the memory limit of each document and is checked for cancellation between them.
+     */
+    public void extractText(List<String> sourcePaths, File destination, JobContext job) throws IOException {
+        try (FileWriter writer = new FileWriter(destination)) {
+            PDFTextStripper textStripper = new PDFTextStripper();
+
+            for (String path : sourcePaths) {
+                job.checkCancelled();
+                if (sourcePaths.size() > 1) {
+                    writer.write("\n\n--- Document: " + new File(path).getName() + " ---\n\n");
+                }
+                try (PDDocument doc = PdfLoader.load(new File(path), job.getMemorySetting())) {
+                    textStripper.writeText(doc, writer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the text of a spooled document as it is extracted, without holding it all in memory.
+     */
+    public void extractText(SpooledPdf source, Writer writer) throws IOException {
+        extractText(source, writer, JobContext.capture(TaskContext.NONE));
+    }
+
+    public void extractText(SpooledPdf source, Writer writer, JobContext job) throws IOException {
+        try (PDDocument doc = source.load(null, job.getMemorySetting())) {
+            new PDFTextStripper().writeText(doc, writer);
+        }
+    }
+
+    /**
+     * Saves every raster image of the source as sourceName_pN_imgM.ext in the destination folder.
+     * * @return The number of images written.
+     */
+    public int extractImages(File sourceFile, File destDir) throws IOException {
+        return extractImages(sourceFile, destDir, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * @param job Sets the memory limit of the document and is checked for cancellation before every page.
+     */
+    public int extractImages(File sourceFile, File destDir, JobContext job) throws IOException {
+        int count = 0;
+        String baseName = baseName(sourceFile);
+
+        try (PDDocument doc = PdfLoader.load(sourceFile, job.getMemorySetting())) {
+            int pageNum = 1;
+            for (PDPage page : doc.getPages()) {
+                job.checkCancelled();
+                PDResources resources = page.getResources();
+                if (resources != null) {
+                    count += extractPageImages(resources, destDir, baseName + "_p" + pageNum);
+                }
+                pageNum++;
+            }
+        }
+        return count;
+    }
+
+    private int extractPageImages(PDResources resources, File destDir, String prefix) throws IOException {
+        int imageNum = 1;
+        for (COSName name : resources.getXObjectNames()) {
+            PDXObject xObject = resources.getXObject(name);
+            if (xObject instanceof PDImageXObject pdImage) {
+                BufferedImage bImage = pdImage.getImage();
+                if (bImage != null) {
+                    String format = pdImage.getSuffix();
+                    if (format == null || format.isEmpty()) {
+                        format = "png";
+                    }
+                    ImageIO.write(bImage, format, new File(destDir, prefix + "_img" + imageNum + "." + format));
+                    imageNum++;
+                }
+            }
+        }
+        return imageNum - 1;
+    }
+
+    /**
+     * Renders every page of the source as sourceName_page_N.format in the destination folder.
+     * * @param format "png" (with transparency) or "jpeg".
+     * @param dpi The render resolution.
+     * @param context Checked for cancellation before every page; receives the bytes written.
+     * A JobContext also sets the memory limit of the document.
+     * @return The number of pages rendered.
+     */
+    public int renderPages(File sourceFile, File destDir, String format, int dpi, TaskContext context) throws IOException {
+        String baseName = baseName(sourceFile);
+        ImageType imageType = format.equals("png") ? ImageType.ARGB : ImageType.RGB;
+
+        // Rendering is the slowest per-page job; a rerun after an interruption skips the images already written
+        JobJournal journal = JobJournal.open("to-image", List.of(sourceFile.getAbsolutePath()), destDir.getAbsolutePath(), format + "|" + dpi);
+        boolean completed = false;
+        try (PDDocument doc = PdfLoader.load(sourceFile, JobContext.of(context).getMemorySetting())) {
+            PDFRenderer renderer = new PDFRenderer(doc);
+            int pages = doc.getNumberOfPages();
+            for (int i = 0; i < pages; i++) {
+                context.checkCancelled();
+                File outputFile = new File(destDir, baseName + "_page_" + (i + 1) + "." + format);
+                String unit = "page " + (i + 1);
+                if (journal != null && journal.isDone(unit) && outputFile.isFile()) continue;
+
+                BufferedImage image = renderer.renderImageWithDPI(i, dpi, imageType);
+                ImageIO.write(image, format, outputFile);
+                if (journal != null) journal.markDone(unit, outputFile);
+                context.addBytesWritten(outputFile.length());
+            }
+            completed = true;
+            return pages;
+        } finally {
+            if (journal != null && completed) journal.complete();
+            else if (journal != null) journal.close();
+        }
+    }
+
+    private static String baseName(File file) {
+        return file.getName().replaceFirst("[.][^.]+$", "");
+    }
+}
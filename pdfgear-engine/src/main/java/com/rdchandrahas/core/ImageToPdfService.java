@@ -1,7 +1,5 @@
 package com.rdchandrahas.core;
 
-import com.rdchandrahas.shared.util.TempFileManager;
-
 import java.awt.image.BufferedImage;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -9,8 +7,10 @@ import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -26,6 +26,14 @@ public class ImageToPdfService {
 
     // FIX 1: Throw specific IOException instead of generic Exception
     public void convertImagesToPdf(List<String> imagePaths, String outputPath) throws IOException {
+        convertImagesToPdf(imagePaths, outputPath, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * Converts the images with the settings of a job. The per-image PDFs go to the job's temp
+     * folder, and the pages built in parallel share its memory limit.
+     */
+    public void convertImagesToPdf(List<String> imagePaths, String outputPath, JobContext job) throws IOException {
         LOGGER.log(Level.INFO, "Starting PARALLEL Image to PDF conversion for {0} images.", imagePaths.size());
 
         List<String> tempPdfPaths = imagePaths.parallelStream().map(imagePath -> {
@@ -39,21 +47,11 @@ public class ImageToPdfService {
                     return null;
                 }
 
-                try (PDDocument tempDoc = new PDDocument(PdfService.getGlobalMemorySetting())) {
-                    
-                    PDImageXObject pdImage = JPEGFactory.createFromImage(tempDoc, bImage, 0.85f);
-                    bImage.flush(); 
-                    
-                    PDRectangle pageSize = new PDRectangle(pdImage.getWidth(), pdImage.getHeight());
-                    PDPage page = new PDPage(pageSize);
-                    tempDoc.addPage(page);
-                    
-                    try (PDPageContentStream contentStream = new PDPageContentStream(tempDoc, page)) {
-                        contentStream.drawImage(pdImage, 0, 0);
-                    }
-                    
-                    // FIX 2: Use TempFileManager
-                    File tempPdf = TempFileManager.createTempFile("parallel_img_", ".pdf");
+                try (PDDocument tempDoc = ScratchStorage.newDocument(job.getMemorySetting(job.getThreads()))) {
+                    addImagePage(tempDoc, bImage);
+
+                    // FIX 2: Use the job's temp folder, so the files go away with the job
+                    File tempPdf = job.createTempFile("parallel_img_", ".pdf", imageFile.length());
                     tempDoc.save(tempPdf.getAbsolutePath());
                     
                     return tempPdf.getAbsolutePath();
@@ -74,7 +72,7 @@ public class ImageToPdfService {
                 PdfService pdfService = new PdfService();
                 // Note: We catch the GeneralSecurityException from merge and wrap it in an IOException
                 try {
-                    pdfService.merge(tempPdfPaths, outputPath);
+                    pdfService.merge(tempPdfPaths, outputPath, job);
                 } catch (java.security.GeneralSecurityException e) {
                     throw new IOException("Failed to merge PDFs due to security exception", e);
                 }
@@ -90,4 +88,40 @@ public class ImageToPdfService {
             }
         }
     }
+
+    /**
+     * Builds the PDF in memory and writes it to a stream, for callers that already hold the
+     * images (e.g. an upload). Unlike the file variant there is no temp PDF per image and no
+     * merge pass, which is what small batches spend most of their time on.
+     * * @param images The encoded images (PNG, JPEG, ...), one page each, in order.
+     * @throws IOException If an image cannot be decoded.
+     */
+    public void convertImagesToPdf(List<byte[]> images, OutputStream destination) throws IOException {
+        try (PDDocument document = ScratchStorage.newDocument()) {
+            for (int i = 0; i < images.size(); i++) {
+                BufferedImage bImage = ImageIO.read(new ByteArrayInputStream(images.get(i)));
+                if (bImage == null) {
+                    throw new IOException("Failed to decode image " + (i + 1));
+                }
+                addImagePage(document, bImage);
+            }
+            document.save(destination);
+        }
+    }
+
+    /**
+     * Appends one page sized to the image, with the image JPEG-encoded at quality 0.85.
+     */
+    private void addImagePage(PDDocument document, BufferedImage bImage) throws IOException {
+        PDImageXObject pdImage = JPEGFactory.createFromImage(document, bImage, 0.85f);
+        bImage.flush();
+
+        PDRectangle pageSize = new PDRectangle(pdImage.getWidth(), pdImage.getHeight());
+        PDPage page = new PDPage(pageSize);
+        document.addPage(page);
+
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+            contentStream.drawImage(pdImage, 0, 0);
+        }
+    }
 }
\ No newline at end of file
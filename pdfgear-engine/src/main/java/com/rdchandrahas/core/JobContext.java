@@ -0,0 +1,166 @@
+package com.rdchandrahas.core;
+
+import com.rdchandrahas.shared.util.TempFileManager;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * JobContext holds the settings one job runs with: its memory limit, where its temp files go,
+ * how many threads it may use, its merge options and the task it reports to. The process-wide
+ * settings (PdfService.setMemoryLimit and the merge settings, the session temp folder,
+ * ExecutionManager's threading mode) are
+ * only the defaults copied into a context when a job starts; changing them afterwards does
+ * not reach jobs that are already running, and two jobs in the same process can run with
+ * different limits.
+ *
+ * A JobContext is immutable; the with...() methods return a modified copy. It is also a
+ * TaskContext, so it travels through every service method that takes one, and services pick
+ * it up with JobContext.of(context).
+ */
+public final class JobContext implements TaskContext {
+
+    private final TaskContext task;
+    private final long memoryLimitBytes;
+    private final Path tempDir;
+    private final int threads;
+    private final MergeOptions mergeOptions;
+
+    private JobContext(TaskContext task, long memoryLimitBytes, Path tempDir, int threads, MergeOptions mergeOptions) {
+        this.task = task;
+        this.memoryLimitBytes = memoryLimitBytes;
+        this.tempDir = tempDir;
+        this.threads = threads;
+        this.mergeOptions = mergeOptions;
+    }
+
+    /**
+     * Creates a context from the current process-wide settings.
+     * * @param task Receives cancellation checks and progress; TaskContext.NONE if there is none.
+     * @throws IOException If the session temp folder cannot be created.
+     */
+    public static JobContext capture(TaskContext task) throws IOException {
+        int threads = ExecutionManager.isMultiThreadingEnabled() ? Runtime.getRuntime().availableProcessors() : 1;
+        return new JobContext(task, PdfService.getMemoryLimit(), TempFileManager.getTempDir(), threads, PdfService.getMergeOptions());
+    }
+
+    /**
+     * Returns the job context a task context belongs to. Callers that passed a plain task
+     * context get one with the current process-wide settings.
+     */
+    public static JobContext of(TaskContext context) throws IOException {
+        return context instanceof JobContext job ? job : capture(context);
+    }
+
+    /**
+     * @param subtask The task of one part of the job, e.g. one file of a batch, which runs
+     * with the same settings but reports on its own.
+     */
+    public JobContext withTask(TaskContext subtask) {
+        return new JobContext(subtask, memoryLimitBytes, tempDir, threads, mergeOptions);
+    }
+
+    /**
+     * @param bytes RAM per document before PDFBox spills to disk, or -1 for no limit.
+     */
+    public JobContext withMemoryLimit(long bytes) {
+        return new JobContext(task, bytes, tempDir, threads, mergeOptions);
+    }
+
+    /**
+     * @param dir The folder for this job's temp and overflow files; it must exist.
+     */
+    public JobContext withTempDir(Path dir) {
+        return new JobContext(task, memoryLimitBytes, dir, threads, mergeOptions);
+    }
+
+    /**
+     * @param count The most threads the job runs its own work on at once.
+     */
+    public JobContext withThreads(int count) {
+        return new JobContext(task, memoryLimitBytes, tempDir, Math.max(1, count), mergeOptions);
+    }
+
+    /**
+     * @param options The merge settings of this job only.
+     */
+    public JobContext withMergeOptions(MergeOptions options) {
+        return new JobContext(task, memoryLimitBytes, tempDir, threads, options);
+    }
+
+    public TaskContext getTask() {
+        return task;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimitBytes;
+    }
+
+    public Path getTempDir() {
+        return tempDir;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public MergeOptions getMergeOptions() {
+        return mergeOptions;
+    }
+
+    /**
+     * @return The memory setting for one document of this job.
+     */
+    public MemoryUsageSetting getMemorySetting() {
+        return PdfService.getMemorySetting(memoryLimitBytes, tempDir.toFile());
+    }
+
+    /**
+     * @return The memory setting for one of several documents that share the job's limit.
+     */
+    public MemoryUsageSetting getMemorySetting(int shares) {
+        return PdfService.getMemorySetting(getMemoryShare(shares), tempDir.toFile());
+    }
+
+    /**
+     * @return The job's limit divided by the number of shares, or -1 if there is no limit.
+     */
+    public long getMemoryShare(int shares) {
+        return memoryLimitBytes == -1 ? -1 : Math.max(1, memoryLimitBytes / Math.max(1, shares));
+    }
+
+    /**
+     * Creates a temp file in the job's temp folder.
+     */
+    public File createTempFile(String prefix, String suffix) throws IOException {
+        return Files.createTempFile(tempDir, prefix, suffix).toFile();
+    }
+
+    /**
+     * Creates a temp file for a big write in the job's temp folder, after checking the temp
+     * quota and the free disk space; see TempFileManager.createTempFile(Path, String, String, long).
+     */
+    public File createTempFile(String prefix, String suffix, long expectedBytes) throws IOException {
+        return TempFileManager.createTempFile(tempDir, prefix, suffix, expectedBytes);
+    }
+
+    // --- TaskContext ---
+
+    @Override
+    public boolean isCancelled() {
+        return task.isCancelled();
+    }
+
+    @Override
+    public void reportProgress(long done, long total) {
+        task.reportProgress(done, total);
+    }
+
+    @Override
+    public void addBytesWritten(long bytes) {
+        task.addBytesWritten(bytes);
+    }
+}
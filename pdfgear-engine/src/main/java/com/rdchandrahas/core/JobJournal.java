@@ -0,0 +1,288 @@
+package com.rdchandrahas.core;
+
+import com.rdchandrahas.shared.util.TempFileManager;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * JobJournal records the finished units of a long job (merge batches, split pages, rendered
+ * images) on disk, so a job interrupted by a crash, a reboot or Ctrl+C resumes from its last
+ * checkpoint when it is started again with the same inputs and settings.
+ *
+ * A journal lives in its own folder under the journal directory, which is outside the session
+ * temp folder and survives a restart. The folder is named after a hash of the operation, the
+ * output, the settings and the path, size and modification time of every input, so a changed
+ * input starts the job from scratch. Every unit is appended to journal.log and forced to disk
+ * before the job moves on; the folder is removed when the job completes, and journals that
+ * have not been touched for RETENTION_DAYS are purged.
+ */
+public final class JobJournal implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(JobJournal.class.getName());
+
+    private static final String LOG_FILE = "journal.log";
+    private static final int RETENTION_DAYS = 7;
+
+    private static Path directory = Path.of(System.getProperty("user.home"), ".pdfgear", "journal");
+    private static boolean enabled = true;
+
+    private final Path folder;
+    private final FileChannel log;
+    private final FileLock lock;
+    private final Set<String> done;
+
+    private JobJournal(Path folder, FileChannel log, FileLock lock, Set<String> done) {
+        this.folder = folder;
+        this.log = log;
+        this.lock = lock;
+        this.done = done;
+    }
+
+    public static synchronized void setEnabled(boolean value) {
+        enabled = value;
+        LOGGER.log(Level.INFO, "Job journal: {0}", (value ? "Enabled" : "Disabled"));
+    }
+
+    public static synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    public static synchronized void setDirectory(Path value) {
+        directory = value;
+        LOGGER.log(Level.INFO, "Job journal directory updated to: {0}", value);
+    }
+
+    public static synchronized Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Opens the journal of a job, resuming the one left behind by an earlier run if there is one.
+     * * @param operation The name of the job type, e.g. "merge".
+     * @param inputs The input files; their size and modification time are part of the key.
+     * @param output The output file or folder.
+     * @param settings Everything else that changes how the work is cut into units.
+     * @return The journal, or null if journaling is disabled or the same job is already running.
+     */
+    public static JobJournal open(String operation, List<String> inputs, String output, String settings) {
+        Path root;
+        synchronized (JobJournal.class) {
+            if (!enabled) return null;
+            root = directory;
+        }
+
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(root);
+            purgeStale(root);
+
+            Path folder = root.resolve(key(operation, inputs, output, settings));
+            Files.createDirectories(folder);
+            channel = FileChannel.open(folder.resolve(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                LOGGER.log(Level.WARNING, "The {0} job for {1} is already running elsewhere; running it without a journal.",
+                        new Object[]{operation, output});
+                channel.close();
+                return null;
+            }
+
+            Set<String> done = readUnits(channel);
+            channel.position(channel.size());
+            if (done.isEmpty() && channel.size() == 0) {
+                append(channel, "# " + operation + " -> " + output + "\n");
+            } else {
+                LOGGER.log(Level.INFO, "Resuming {0} job for {1}: {2} units already done.", new Object[]{operation, output, done.size()});
+            }
+            return new JobJournal(folder, channel, lock, done);
+        } catch (IOException | OverlappingFileLockException e) {
+            LOGGER.log(Level.WARNING, "Could not open the job journal; the job will not be resumable.", e);
+            closeQuietly(channel);
+            return null;
+        }
+    }
+
+    /**
+     * @return true if an earlier run already recorded this unit.
+     */
+    public synchronized boolean isDone(String unit) {
+        return done.contains(unit);
+    }
+
+    /**
+     * @return The number of units recorded so far.
+     */
+    public synchronized int getDoneCount() {
+        return done.size();
+    }
+
+    /**
+     * Records a finished unit. The files it produced are forced to disk first, so a unit in
+     * the journal never points at output the OS had not written yet.
+     * * @param unit A name that identifies the unit within the job, e.g. "page 12".
+     * @param outputs The files the unit wrote.
+     * @throws IOException If the journal cannot be written.
+     */
+    public synchronized void markDone(String unit, File... outputs) throws IOException {
+        for (File output : outputs) {
+            try (FileChannel file = FileChannel.open(output.toPath(), StandardOpenOption.WRITE)) {
+                file.force(true);
+            }
+        }
+        append(log, unit + "\n");
+        done.add(unit);
+    }
+
+    /**
+     * @return A file in the journal folder for intermediate results that have to survive a restart.
+     */
+    public File checkpointFile(String name) {
+        return folder.resolve(name).toFile();
+    }
+
+    /**
+     * Writes a checkpoint file atomically: the writer fills a partial file, which is renamed
+     * into place only once it is complete.
+     * * @param expectedBytes The approximate size of the checkpoint, checked against the free disk space first.
+     * @throws IOException If the disk is nearly full or the writer fails.
+     */
+    public File writeCheckpoint(String name, long expectedBytes, CheckpointWriter writer) throws IOException {
+        Path target = folder.resolve(name);
+        Path partial = folder.resolve(name + ".part");
+        // The journal folder is outside the temp folder, so its checkpoints are checked here
+        TempFileManager.ensureRoom(partial, expectedBytes);
+        writer.write(partial.toFile());
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        return target.toFile();
+    }
+
+    /**
+     * Deletes the journal and its checkpoint files after the job has finished successfully.
+     */
+    public void complete() {
+        close();
+        TempFileManager.cleanup(folder);
+    }
+
+    /**
+     * Releases the journal and keeps it on disk, so the next run of the same job resumes from it.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            if (lock.isValid()) lock.release();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not release the journal lock", e);
+        }
+        closeQuietly(log);
+    }
+
+    /**
+     * Produces one checkpoint file.
+     */
+    @FunctionalInterface
+    public interface CheckpointWriter {
+        void write(File destination) throws IOException;
+    }
+
+    // --- Helpers ---
+
+    private static String key(String operation, List<String> inputs, String output, String settings) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, operation);
+            update(digest, new File(output).getAbsolutePath());
+            update(digest, settings);
+            for (String input : inputs) {
+                File file = new File(input);
+                update(digest, file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified());
+            }
+            return operation + "_" + HexFormat.of().formatHex(digest.digest(), 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Reads the recorded units. A line without its newline was torn by a crash and is ignored.
+     */
+    private static Set<String> readUnits(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.read(buffer, 0);
+        String text = new String(buffer.array(), StandardCharsets.UTF_8);
+
+        Set<String> units = new HashSet<>();
+        int lineStart = 0;
+        for (int newline = text.indexOf('\n'); newline >= 0; newline = text.indexOf('\n', lineStart)) {
+            String line = text.substring(lineStart, newline);
+            if (!line.isEmpty() && !line.startsWith("#")) units.add(line);
+            lineStart = newline + 1;
+        }
+        return units;
+    }
+
+    private static void append(FileChannel channel, String text) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Deletes journals of jobs that were abandoned instead of resumed.
+     */
+    private static void purgeStale(Path root) {
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(RETENTION_DAYS);
+        try (Stream<Path> folders = Files.list(root)) {
+            folders.filter(folder -> folder.resolve(LOG_FILE).toFile().lastModified() < cutoff)
+                    .forEach(folder -> {
+                        LOGGER.log(Level.INFO, "Purging abandoned job journal: {0}", folder.getFileName());
+                        TempFileManager.cleanup(folder);
+                    });
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not purge old job journals", e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not close the job journal", e);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.rdchandrahas.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LaneExecutor is a fixed set of worker threads fed from a bounded queue.
+ * Unlike Executors.newFixedThreadPool, whose queue grows without limit, submissions beyond
+ * the capacity are handled per task according to its OverflowPolicy, so a flood of
+ * speculative work can neither exhaust memory nor delay the jobs queued behind it.
+ * The queue is split by TaskPriority (FIFO within each class), and a few workers can be
+ * reserved for INTERACTIVE tasks so they start even while the other workers are saturated.
+ */
+class LaneExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(LaneExecutor.class.getName());
+
+    private record QueuedTask(FutureTask<?> future, OverflowPolicy policy, long enqueuedNanos) { }
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final String name;
+    private final int capacity;
+    private final List<Thread> workers = new ArrayList<>();
+    private final LaneMetrics metrics;
+
+    /** One FIFO queue per priority class, indexed by ordinal (highest priority first). */
+    private final List<Deque<QueuedTask>> queues = new ArrayList<>();
+    private int queuedCount = 0;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition interactiveReady = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private boolean shutdown = false;
+
+    /**
+     * @param name The lane name, used for thread names and logging.
+     * @param threads The number of worker threads serving every priority.
+     * @param interactiveThreads Additional workers that only run INTERACTIVE tasks.
+     * @param capacity The maximum number of tasks waiting in the queue.
+     * @param threadFactory Creates the worker threads (platform or virtual).
+     * @param metrics Receives queue wait, run time and overflow counts of every task.
+     */
+    LaneExecutor(String name, int threads, int interactiveThreads, int capacity, ThreadFactory threadFactory, LaneMetrics metrics) {
+        this.name = name;
+        this.capacity = capacity;
+        this.metrics = metrics;
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+
+        for (int i = 0; i < threads; i++) {
+            startWorker(threadFactory, name + "-worker-" + (i + 1), false);
+        }
+        for (int i = 0; i < interactiveThreads; i++) {
+            startWorker(threadFactory, name + "-interactive-" + (i + 1), true);
+        }
+    }
+
+    private void startWorker(ThreadFactory threadFactory, String threadName, boolean interactiveOnly) {
+        Thread worker = threadFactory.newThread(() -> workLoop(interactiveOnly));
+        worker.setName(threadName);
+        worker.setDaemon(true);
+        workers.add(worker);
+        worker.start();
+    }
+
+    /**
+     * Queues a task, applying the overflow policy if the queue is full.
+     * * @param task The task to run.
+     * @param priority The priority class of the task.
+     * @param policy What to do when the queue is full.
+     * @return The future of the task; it is cancelled if the task is dropped from the queue.
+     * @throws RejectedExecutionException If the lane is shut down or the REJECT policy applies.
+     */
+    Future<?> submit(Runnable task, TaskPriority priority, OverflowPolicy policy) {
+        FutureTask<Void> future = new FutureTask<>(task, null);
+        submit(future, priority, policy);
+        return future;
+    }
+
+    /**
+     * Queues an already wrapped task, so callers can react to it being dropped by overriding done().
+     */
+    void submit(FutureTask<?> future, TaskPriority priority, OverflowPolicy policy) {
+        FutureTask<?> dropped = null;
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException(name + " lane is shut down");
+            }
+
+            while (queuedCount >= capacity) {
+                // Speculative work yields to anything newer
+                QueuedTask oldest = pollOldestDroppable();
+                if (oldest != null) {
+                    dropped = oldest.future();
+                    metrics.taskDropped();
+                    break;
+                }
+                if (policy == OverflowPolicy.DROP_OLDEST) {
+                    metrics.taskDropped();
+                    dropped = future;
+                    break;
+                }
+                if (policy == OverflowPolicy.REJECT) {
+                    metrics.taskRejected();
+                    throw new RejectedExecutionException(name + " lane queue is full (" + capacity + " tasks)");
+                }
+                notFull.awaitUninterruptibly();
+                if (shutdown) {
+                    throw new RejectedExecutionException(name + " lane is shut down");
+                }
+            }
+
+            if (dropped != future) {
+                queues.get(priority.ordinal()).addLast(new QueuedTask(future, policy, System.nanoTime()));
+                queuedCount++;
+                metrics.taskSubmitted();
+                if (priority == TaskPriority.INTERACTIVE) {
+                    interactiveReady.signal();
+                }
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (dropped != null) {
+            // Outside the lock, done() callbacks may submit again
+            dropped.cancel(false);
+        }
+    }
+
+    /**
+     * Evicts the oldest droppable task, starting with the lowest priority class.
+     */
+    private QueuedTask pollOldestDroppable() {
+        for (int p = queues.size() - 1; p >= 0; p--) {
+            Iterator<QueuedTask> it = queues.get(p).iterator();
+            while (it.hasNext()) {
+                QueuedTask queued = it.next();
+                if (queued.policy() == OverflowPolicy.DROP_OLDEST) {
+                    it.remove();
+                    queuedCount--;
+                    return queued;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The highest priority task that the worker may run, or null if none is waiting.
+     */
+    private QueuedTask pollNext(boolean interactiveOnly) {
+        int lowest = interactiveOnly ? TaskPriority.INTERACTIVE.ordinal() : queues.size() - 1;
+        for (int p = 0; p <= lowest; p++) {
+            QueuedTask next = queues.get(p).pollFirst();
+            if (next != null) {
+                queuedCount--;
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private void workLoop(boolean interactiveOnly) {
+        Condition ready = interactiveOnly ? interactiveReady : notEmpty;
+        while (true) {
+            QueuedTask next;
+            lock.lock();
+            try {
+                while ((next = pollNext(interactiveOnly)) == null && !shutdown) {
+                    ready.awaitUninterruptibly();
+                }
+                if (next == null) return;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+
+            long started = System.nanoTime();
+            metrics.taskStarted(started - next.enqueuedNanos());
+            // FutureTask captures task exceptions; anything else must not kill the worker
+            try {
+                next.future().run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Unexpected failure in " + name + " lane worker", e);
+            } finally {
+                metrics.taskFinished(System.nanoTime() - started);
+            }
+            // Clear a cancel(true) interrupt so it doesn't leak into the next task
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Stops accepting tasks. Tasks already queued still run, then the workers exit.
+     */
+    void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            notEmpty.signalAll();
+            interactiveReady.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return The number of tasks waiting for a worker. */
+    int getQueueDepth() {
+        lock.lock();
+        try {
+            return queuedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int getThreadCount() {
+        return workers.size();
+    }
+}
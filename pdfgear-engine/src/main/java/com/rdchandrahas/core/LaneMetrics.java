@@ -0,0 +1,81 @@
+package com.rdchandrahas.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LaneMetrics accumulates the counters of one ExecutionManager lane.
+ * It outlives the LaneExecutor it is attached to, so the numbers survive
+ * switching the CPU lane between multi-threaded and serial mode.
+ */
+class LaneMetrics {
+
+    private final String name;
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    private final AtomicInteger activeThreads = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    LaneMetrics(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    // --- Recording (called by LaneExecutor) ---
+
+    void taskSubmitted() {
+        submitted.incrementAndGet();
+    }
+
+    void taskDropped() {
+        dropped.incrementAndGet();
+    }
+
+    void taskRejected() {
+        rejected.incrementAndGet();
+    }
+
+    void taskStarted(long waitNanos) {
+        queueWait.record(waitNanos);
+        activeThreads.incrementAndGet();
+    }
+
+    void taskFinished(long runNanos) {
+        activeThreads.decrementAndGet();
+        runTime.record(runNanos);
+        completed.incrementAndGet();
+    }
+
+    // --- Reading ---
+
+    int getActiveThreads() {
+        return activeThreads.get();
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Appends the lane summary; queue depth and thread counts come from the live executor.
+     */
+    void appendTo(StringBuilder sb, LaneExecutor executor) {
+        sb.append(String.format("[%s] threads=%d active=%d queued=%d/%d submitted=%d completed=%d dropped=%d rejected=%d%n",
+                name, executor.getThreadCount(), activeThreads.get(), executor.getQueueDepth(), executor.getCapacity(),
+                submitted.get(), completed.get(), dropped.get(), rejected.get()));
+        queueWait.appendTo(sb, "queue wait");
+        runTime.appendTo(sb, "run time");
+    }
+}
@@ -0,0 +1,80 @@
+package com.rdchandrahas.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram counts durations in fixed, roughly logarithmic buckets.
+ * Recording is lock-free so it can sit on the hot path of every task; percentiles are
+ * estimated from the bucket bounds, which is precise enough to tell a 2 ms wait from a 2 s one.
+ */
+class LatencyHistogram {
+
+    /** Upper bucket bounds in milliseconds. The last bucket catches everything above. */
+    private static final double[] BOUNDS_MS = {
+            0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000, 60_000
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos) {
+        double millis = nanos / 1_000_000.0;
+        int bucket = 0;
+        while (bucket < BOUNDS_MS.length && millis > BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @param percentile A value between 0 and 100.
+     * @return The upper bound (in ms) of the bucket containing the percentile, or the max for the overflow bucket.
+     */
+    double getPercentileMillis(double percentile) {
+        long total = count.get();
+        if (total == 0) return 0;
+
+        long threshold = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            seen += buckets.get(i);
+            if (seen >= threshold) return BOUNDS_MS[i];
+        }
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Appends a one-line summary and the non-empty buckets.
+     */
+    void appendTo(StringBuilder sb, String label) {
+        long n = count.get();
+        double meanMs = n == 0 ? 0 : totalNanos.get() / 1_000_000.0 / n;
+        sb.append(String.format("  %-11s n=%d mean=%.2fms p50<=%sms p95<=%sms p99<=%sms max=%.2fms%n",
+                label, n, meanMs, format(getPercentileMillis(50)), format(getPercentileMillis(95)),
+                format(getPercentileMillis(99)), maxNanos.get() / 1_000_000.0));
+        if (n == 0) return;
+
+        sb.append("             ");
+        for (int i = 0; i <= BOUNDS_MS.length; i++) {
+            long bucketCount = buckets.get(i);
+            if (bucketCount == 0) continue;
+            String bound = i < BOUNDS_MS.length ? "<=" + format(BOUNDS_MS[i]) : ">" + format(BOUNDS_MS[i - 1]);
+            sb.append(bound).append("ms:").append(bucketCount).append("  ");
+        }
+        sb.append(System.lineSeparator());
+    }
+
+    private static String format(double millis) {
+        return millis == Math.rint(millis) ? String.valueOf((long) millis) : String.valueOf(millis);
+    }
+}
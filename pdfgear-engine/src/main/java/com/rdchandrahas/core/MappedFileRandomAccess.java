@@ -0,0 +1,175 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.io.RandomAccessRead;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedFileRandomAccess reads a PDF through read-only memory mappings instead of a buffered
+ * file stream. Seeks are plain pointer moves and reads copy straight out of the OS page cache,
+ * so the random xref and object lookups of a multi-GB scan cost no read() syscalls. Every
+ * mapping of a file shares the same physical pages, so worker threads that each open the same
+ * source do not duplicate it in memory.
+ *
+ * A ByteBuffer is indexed by int, so files are mapped in CHUNK_SIZE pieces and reads that
+ * straddle two chunks are stitched together.
+ */
+class MappedFileRandomAccess implements RandomAccessRead {
+
+    /** 1 GB: a power of two so the chunk of a position is a shift, far below the 2 GB ByteBuffer limit. */
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+    private final MappedByteBuffer[] chunks;
+    private final long length;
+    private long position = 0;
+    private boolean closed = false;
+
+    /**
+     * Maps the whole file. The channel is closed right away; the mappings stay valid until close().
+     * * @throws IOException If the file cannot be opened or mapped.
+     */
+    MappedFileRandomAccess(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            length = channel.size();
+            int count = (int) ((length + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+            chunks = new MappedByteBuffer[count];
+            try {
+                for (int i = 0; i < count; i++) {
+                    long offset = (long) i << CHUNK_SHIFT;
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(CHUNK_SIZE, length - offset));
+                }
+            } catch (IOException | RuntimeException e) {
+                unmap();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        if (position >= length) return -1;
+        int value = byteAt(position) & 0xFF;
+        position++;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int length) throws IOException {
+        checkClosed();
+        if (length == 0) return 0;
+        if (position >= this.length) return -1;
+
+        int count = (int) Math.min(length, this.length - position);
+        int copied = 0;
+        while (copied < count) {
+            MappedByteBuffer chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+            int inChunk = (int) (position & (CHUNK_SIZE - 1));
+            int step = Math.min(count - copied, chunk.limit() - inChunk);
+            // Absolute get: the chunk's own position is never moved, so it needs no synchronization
+            chunk.get(inChunk, b, offset + copied, step);
+            copied += step;
+            position += step;
+        }
+        return count;
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        checkClosed();
+        return position;
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        checkClosed();
+        if (position < 0) {
+            throw new IOException("Invalid position " + position);
+        }
+        this.position = Math.min(position, length);
+    }
+
+    @Override
+    public long length() throws IOException {
+        checkClosed();
+        return length;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public int peek() throws IOException {
+        checkClosed();
+        return position < length ? byteAt(position) & 0xFF : -1;
+    }
+
+    @Override
+    public void rewind(int bytes) throws IOException {
+        seek(getPosition() - bytes);
+    }
+
+    @Override
+    public byte[] readFully(int length) throws IOException {
+        checkClosed();
+        if (this.length - position < length) {
+            throw new EOFException("Premature end of file reached");
+        }
+        byte[] bytes = new byte[length];
+        read(bytes, 0, length);
+        return bytes;
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        return peek() == -1;
+    }
+
+    @Override
+    public int available() throws IOException {
+        checkClosed();
+        return (int) Math.min(Integer.MAX_VALUE, length - position);
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        unmap();
+    }
+
+    private byte byteAt(long offset) {
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].get((int) (offset & (CHUNK_SIZE - 1)));
+    }
+
+    /**
+     * Releases the mappings now instead of whenever the garbage collector gets to them.
+     * Windows refuses to delete or overwrite a file while any mapping of it exists, so relying
+     * on the collector would make deleting merge batches fail at random.
+     */
+    private void unmap() {
+        for (int i = 0; i < chunks.length; i++) {
+            DirectBuffers.free(chunks[i]);
+            chunks[i] = null;
+        }
+    }
+
+    private void checkClosed() throws IOException {
+        if (closed) {
+            throw new IOException("MappedFileRandomAccess already closed");
+        }
+    }
+}
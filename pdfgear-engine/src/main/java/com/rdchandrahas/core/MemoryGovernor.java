@@ -0,0 +1,215 @@
+package com.rdchandrahas.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * MemoryGovernor decides how many jobs may run at the same time based on the heap they need,
+ * not on the number of threads. The memory limit of PdfService applies to each document, so
+ * ten parallel jobs could each take a gigabyte and exhaust the heap together. Before a job
+ * starts it asks for a budget estimated from its input size and operation; jobs that do not
+ * fit into what is left of the pool wait until running jobs hand their budget back.
+ *
+ * The estimates are only estimates, so admission also looks at the real heap through the
+ * MemoryMXBean: while the heap is above HEAP_HIGH_WATER, new jobs wait even if the pool has
+ * room. A job is always admitted when nothing else is running, so a job bigger than the
+ * whole pool runs alone instead of never.
+ */
+public class MemoryGovernor {
+
+    private static final Logger LOGGER = Logger.getLogger(MemoryGovernor.class.getName());
+
+    /** Share of the maximum heap handed out as budgets when no pool size is set. */
+    private static final double DEFAULT_POOL_SHARE = 0.7;
+    /** Share of the maximum heap above which no further job is admitted. */
+    private static final double HEAP_HIGH_WATER = 0.85;
+    /** Fixed cost of any job: parser, fonts, caches and the output writer. */
+    private static final long BASE_ESTIMATE_BYTES = 32L * 1024L * 1024L;
+    /** How often waiting jobs recheck the heap and their cancellation flag. */
+    private static final long POLL_MILLIS = 250;
+
+    /**
+     * Heap needed per byte of input. Rendering and recompression decode images, so they
+     * need several times the file size; merge streams its sources.
+     */
+    private static final Map<String, Double> OPERATION_FACTORS = Map.of(
+            "merge", 1.0,
+            "images-to-pdf", 4.0,
+            "compress", 3.0,
+            "to-image", 3.0,
+            "extract-images", 3.0,
+            "pipeline", 3.0);
+    private static final double DEFAULT_FACTOR = 1.5;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final Object LOCK = new Object();
+
+    /** The configured pool in bytes; 0 sizes it from the maximum heap. */
+    private static long poolBytes = 0;
+    private static long grantedBytes = 0;
+    private static int activeJobs = 0;
+    private static int waitingJobs = 0;
+
+    private MemoryGovernor() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Sets the memory all jobs may claim together.
+     * * @param bytes The pool size, or 0 to use DEFAULT_POOL_SHARE of the maximum heap.
+     */
+    public static void setPoolSize(long bytes) {
+        synchronized (LOCK) {
+            poolBytes = Math.max(0, bytes);
+            LOCK.notifyAll();
+        }
+        LOGGER.log(Level.INFO, "Memory pool updated to: {0} bytes", getPoolSize());
+    }
+
+    /**
+     * @return The effective pool size in bytes.
+     */
+    public static long getPoolSize() {
+        synchronized (LOCK) {
+            return poolBytes > 0 ? poolBytes : (long) (heapMax() * DEFAULT_POOL_SHARE);
+        }
+    }
+
+    /**
+     * @return The budget currently held by running jobs.
+     */
+    public static long getGrantedBytes() {
+        synchronized (LOCK) {
+            return grantedBytes;
+        }
+    }
+
+    /**
+     * @return The number of jobs waiting for a budget.
+     */
+    public static int getWaitingJobs() {
+        synchronized (LOCK) {
+            return waitingJobs;
+        }
+    }
+
+    /**
+     * Estimates the heap a job needs.
+     * * @param operation The job type, e.g. "merge" or "to-image"; null or unknown types get a default factor.
+     * @param inputBytes The total size of the job's inputs.
+     * @return The estimate in bytes.
+     */
+    public static long estimate(String operation, long inputBytes) {
+        double factor = operation == null ? DEFAULT_FACTOR : OPERATION_FACTORS.getOrDefault(operation, DEFAULT_FACTOR);
+        return BASE_ESTIMATE_BYTES + (long) (Math.max(0, inputBytes) * factor);
+    }
+
+    /**
+     * Waits until the budget fits into the pool and the heap, then reserves it.
+     * * @param bytes The budget, usually from estimate().
+     * @param context Checked while waiting, so a queued job can be cancelled.
+     * @return The reservation; closing it hands the budget back.
+     * @throws CancellationException If the job is cancelled or interrupted while waiting.
+     */
+    public static Grant acquire(long bytes, TaskContext context) {
+        synchronized (LOCK) {
+            // A job larger than the pool would never fit; it waits for an empty pool instead
+            long budget = Math.min(Math.max(0, bytes), getPoolSize());
+            boolean logged = false;
+            waitingJobs++;
+            try {
+                while (!admits(budget)) {
+                    context.checkCancelled();
+                    if (!logged) {
+                        LOGGER.log(Level.FINE, "Job needing {0} bytes queued: {1} of {2} bytes granted, heap at {3} bytes",
+                                new Object[]{budget, grantedBytes, getPoolSize(), heapUsed()});
+                        logged = true;
+                    }
+                    try {
+                        LOCK.wait(POLL_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Interrupted while waiting for memory");
+                    }
+                }
+            } finally {
+                waitingJobs--;
+            }
+            grantedBytes += budget;
+            activeJobs++;
+            return new Grant(budget);
+        }
+    }
+
+    /**
+     * Reserves the estimated budget of a job; see estimate() and acquire().
+     */
+    public static Grant acquire(String operation, long inputBytes, TaskContext context) {
+        return acquire(estimate(operation, inputBytes), context);
+    }
+
+    // Caller holds LOCK
+    private static boolean admits(long budget) {
+        if (activeJobs == 0) return true;
+        if (grantedBytes + budget > getPoolSize()) return false;
+        return heapUsed() + budget <= heapMax() * HEAP_HIGH_WATER;
+    }
+
+    private static void release(long budget) {
+        synchronized (LOCK) {
+            grantedBytes -= budget;
+            activeJobs--;
+            LOCK.notifyAll();
+        }
+    }
+
+    private static long heapUsed() {
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long heapMax() {
+        MemoryUsage heap = MEMORY.getHeapMemoryUsage();
+        return heap.getMax() > 0 ? heap.getMax() : Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * The budget held by one running job. Closing it more than once has no further effect.
+     */
+    public static final class Grant implements AutoCloseable {
+
+        private final long bytes;
+        private boolean released = false;
+
+        private Grant(long bytes) {
+            this.bytes = bytes;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Holds a job to its budget: its documents keep at most the granted bytes in RAM and
+         * spill the rest to disk, so admitted jobs together stay within the pool. A job that
+         * was explicitly given no memory limit (-1) keeps running without one.
+         * * @return The job with a memory limit no larger than the grant.
+         */
+        public JobContext applyTo(JobContext job) {
+            long limit = job.getMemoryLimit();
+            if (limit == -1) return job;
+            return job.withMemoryLimit(Math.max(1, Math.min(limit, bytes)));
+        }
+
+        @Override
+        public synchronized void close() {
+            if (released) return;
+            released = true;
+            release(bytes);
+        }
+    }
+}
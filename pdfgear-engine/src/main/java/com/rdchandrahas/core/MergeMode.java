@@ -0,0 +1,23 @@
+package com.rdchandrahas.core;
+
+/**
+ * MergeMode defines the strategies PdfService can use to combine large numbers of
+ * PDF documents. The default mode is a global setting toggled from the Performance menu;
+ * a single job can use another one through its MergeOptions.
+ */
+public enum MergeMode {
+    /** * Splits the inputs into RAM/file-handle limited batches and merges them
+     * one after another on the calling thread, followed by a final pass over the batches.
+     */
+    BATCHED,
+
+    /** * Merges the leaf batches concurrently on a bounded worker pool, then reduces
+     * the intermediate results level by level until a single document remains.
+     */
+    TREE_REDUCE,
+
+    /** * Appends every input to one destination in a single pass, opening each source only
+     * while its pages are copied. Needs no temp batch files regardless of the input count.
+     */
+    STREAMING
+}
@@ -0,0 +1,26 @@
+package com.rdchandrahas.core;
+
+/**
+ * MergeOptions are the settings one merge runs with. The values set through PdfService
+ * (the Performance menu) are only the defaults a JobContext starts with; a job that asks for
+ * other options, e.g. a merge command with --dedup, changes its own context and nothing else.
+ *
+ * @param mode How the inputs are combined.
+ * @param preflight What happens with inputs that fail validation.
+ * @param deduplicate Whether identical fonts, images and ICC profiles are stored once.
+ * @param fastPath Whether simple sources skip PDFMergerUtility's reconciliation.
+ */
+public record MergeOptions(MergeMode mode, PreflightPolicy preflight, boolean deduplicate, boolean fastPath) {
+
+    /**
+     * Returns these options with the values a job asked for.
+     * * @param mode The mode, or null to keep the current one.
+     * @param preflight The pre-flight policy, or null to keep the current one.
+     * @param deduplicate true turns de-duplication on; false keeps the current value.
+     * @param fastPath true turns the fast path on; false keeps the current value.
+     */
+    public MergeOptions override(MergeMode mode, PreflightPolicy preflight, boolean deduplicate, boolean fastPath) {
+        return new MergeOptions(mode != null ? mode : this.mode, preflight != null ? preflight : this.preflight,
+                deduplicate || this.deduplicate, fastPath || this.fastPath);
+    }
+}
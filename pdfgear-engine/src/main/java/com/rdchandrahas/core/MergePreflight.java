@@ -0,0 +1,154 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * MergePreflight validates merge inputs before any merging work starts.
+ * Each file is checked for a PDF header, an end-of-file marker near the tail (the usual
+ * sign of a truncated download or copy), password protection and a non-empty page tree.
+ * Files are validated concurrently; only the cross-reference table and the page tree are
+ * parsed, so this is a small fraction of the cost of the merge itself.
+ */
+class MergePreflight {
+
+    private static final Logger LOGGER = Logger.getLogger(MergePreflight.class.getName());
+
+    /** Readers accept the header anywhere in the first 1 KB and the %%EOF marker anywhere in the last 1 KB. */
+    private static final int SCAN_WINDOW = 1024;
+
+    private static final byte[] HEADER_MARKER = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EOF_MARKER = "%%EOF".getBytes(StandardCharsets.US_ASCII);
+
+    /** Progress is logged once per this many files so large jobs don't spam the console. */
+    private static final int LOG_INTERVAL = 500;
+
+    private final int workers;
+    private final MemoryUsageSetting memorySetting;
+
+    /**
+     * @param workers The number of files validated concurrently.
+     * @param memorySetting The memory budget of each document opened for validation.
+     */
+    MergePreflight(int workers, MemoryUsageSetting memorySetting) {
+        this.workers = Math.max(1, workers);
+        this.memorySetting = memorySetting;
+    }
+
+    /**
+     * Validates every input and collects the rejected ones.
+     * * @param inputFiles The absolute paths of the PDFs to validate.
+     * @param context Checked for cancellation after every file.
+     * @return A report listing the bad inputs in input order.
+     * @throws IOException If validation is interrupted.
+     */
+    PreflightReport check(List<String> inputFiles, TaskContext context) throws IOException {
+        LOGGER.log(Level.INFO, "Pre-flight validation of {0} files on {1} workers.", new Object[]{inputFiles.size(), workers});
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<Result>> futures = new ArrayList<>();
+        try {
+            for (String path : inputFiles) {
+                futures.add(pool.submit(() -> checkFile(path)));
+            }
+
+            List<PreflightReport.Issue> issues = new ArrayList<>();
+            long totalPages = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                context.checkCancelled();
+                Result result = futures.get(i).get();
+                if (result.issue() != null) {
+                    issues.add(result.issue());
+                } else {
+                    totalPages += result.pages();
+                }
+                if ((i + 1) % LOG_INTERVAL == 0) {
+                    LOGGER.log(Level.INFO, "Validated {0} of {1} files...", new Object[]{i + 1, inputFiles.size()});
+                }
+            }
+            return new PreflightReport(inputFiles.size(), totalPages, issues);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Pre-flight validation interrupted", e);
+        } catch (ExecutionException e) {
+            // checkFile reports every failure as an issue, so this only happens on errors like OOM
+            throw new IOException("Pre-flight validation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Result(int pages, PreflightReport.Issue issue) {
+        static Result ok(int pages) {
+            return new Result(pages, null);
+        }
+
+        static Result bad(String path, PreflightReport.Problem problem, String detail) {
+            return new Result(0, new PreflightReport.Issue(path, problem, detail));
+        }
+    }
+
+    private Result checkFile(String path) {
+        File file = new File(path);
+        if (!file.isFile()) {
+            return Result.bad(path, PreflightReport.Problem.MISSING, null);
+        }
+
+        // Cheap byte-level checks first, they catch most broken files without parsing anything
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            if (!contains(readWindow(raf, 0, length), HEADER_MARKER)) {
+                return Result.bad(path, PreflightReport.Problem.BAD_HEADER, null);
+            }
+            if (!contains(readWindow(raf, Math.max(0, length - SCAN_WINDOW), length), EOF_MARKER)) {
+                return Result.bad(path, PreflightReport.Problem.TRUNCATED, null);
+            }
+        } catch (IOException e) {
+            return Result.bad(path, PreflightReport.Problem.UNREADABLE, e.getMessage());
+        }
+
+        try (PDDocument document = PdfLoader.load(file, memorySetting)) {
+            int pages = document.getNumberOfPages();
+            if (pages == 0) {
+                return Result.bad(path, PreflightReport.Problem.NO_PAGES, null);
+            }
+            return Result.ok(pages);
+        } catch (InvalidPasswordException e) {
+            return Result.bad(path, PreflightReport.Problem.ENCRYPTED, null);
+        } catch (IOException | RuntimeException e) {
+            return Result.bad(path, PreflightReport.Problem.UNREADABLE, e.getMessage());
+        }
+    }
+
+    private static byte[] readWindow(RandomAccessFile raf, long offset, long length) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(SCAN_WINDOW, length - offset)];
+        raf.seek(offset);
+        raf.readFully(buffer);
+        return buffer;
+    }
+
+    private static boolean contains(byte[] data, byte[] marker) {
+        outer:
+        for (int i = 0; i <= data.length - marker.length; i++) {
+            for (int j = 0; j < marker.length; j++) {
+                if (data[i + j] != marker[j]) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+}
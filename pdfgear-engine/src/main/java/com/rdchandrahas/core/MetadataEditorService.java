@@ -0,0 +1,58 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class MetadataEditorService {
+
+    private static final Logger LOGGER = Logger.getLogger(MetadataEditorService.class.getName());
+
+    public void updateMetadata(String inputPath, String outputPath, Map<String, String> newMetadata) throws IOException {
+        updateMetadata(inputPath, outputPath, newMetadata, JobContext.capture(TaskContext.NONE));
+    }
+
+    public void updateMetadata(String inputPath, String outputPath, Map<String, String> newMetadata, JobContext job) throws IOException {
+        LOGGER.log(Level.INFO, "Updating metadata for {0}", inputPath);
+
+        try (PDDocument document = PdfLoader.load(new File(inputPath), job.getMemorySetting())) {
+            apply(document, newMetadata);
+            document.save(outputPath);
+        }
+    }
+
+    public void updateMetadata(SpooledPdf source, OutputStream destination, Map<String, String> newMetadata) throws IOException {
+        try (PDDocument document = source.load(null)) {
+            apply(document, newMetadata);
+            document.save(destination);
+        }
+    }
+
+    /**
+     * Sets the Title, Author, Subject and Keywords entries present in the map on an open document.
+     */
+    public void apply(PDDocument document, Map<String, String> newMetadata) {
+        PDDocumentInformation info = document.getDocumentInformation();
+
+        if (newMetadata.containsKey("Title")) {
+            info.setTitle(newMetadata.get("Title"));
+        }
+        if (newMetadata.containsKey("Author")) {
+            info.setAuthor(newMetadata.get("Author"));
+        }
+        if (newMetadata.containsKey("Subject")) {
+            info.setSubject(newMetadata.get("Subject"));
+        }
+        if (newMetadata.containsKey("Keywords")) {
+            info.setKeywords(newMetadata.get("Keywords"));
+        }
+
+        document.setDocumentInformation(info);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,385 @@
+package com.rdchandrahas.core;
+
+import com.rdchandrahas.shared.util.TempFileManager;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccess;
+import org.apache.pdfbox.io.ScratchFile;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * OffHeapScratchFile keeps a document's stream data outside the Java heap. PDFBox asks its
+ * ScratchFile for a buffer for every stream it parses or creates; the base class hands out
+ * buffers backed by byte[] pages on the heap, which on a big heap means gigabytes of
+ * long-lived arrays for the collector to trace and copy. The buffers created here store their
+ * pages in direct ByteBuffers instead, up to a cap shared by every document in the process.
+ * Beyond the cap pages go to a temp file that is memory-mapped, so spilling is a memory copy
+ * into the page cache rather than a write() per page.
+ *
+ * Storage is handed out in REGION_SIZE pieces and split into PAGE_SIZE pages. Pages are
+ * addressed by index; a region is either one direct buffer or a slice of a mapped chunk.
+ * Direct regions are never freed: a closed scratch file returns them to a pool the next
+ * document takes them from, so the direct memory in use never exceeds the cap and
+ * allocateDirect() is only paid once per region.
+ */
+class OffHeapScratchFile extends ScratchFile {
+
+    private static final Logger LOGGER = Logger.getLogger(OffHeapScratchFile.class.getName());
+
+    private static final int PAGE_SIZE = 4096;
+    private static final int PAGES_PER_REGION = 256;
+    private static final int REGION_SIZE = PAGE_SIZE * PAGES_PER_REGION;
+    /** The spill file is mapped 64 MB at a time to keep the number of mappings low. */
+    private static final int REGIONS_PER_SPILL_CHUNK = 64;
+
+    /** Direct memory allocated so far, whether in use or pooled; checked against the cap before every new region. */
+    private static final AtomicLong DIRECT_BYTES_RESERVED = new AtomicLong();
+    private static final Queue<ByteBuffer> REGION_POOL = new ConcurrentLinkedQueue<>();
+
+    private final long directLimitBytes;
+
+    /** Replaced, never modified in place, so page reads can index it without taking the lock. */
+    private volatile ByteBuffer[] regions = new ByteBuffer[0];
+    private int regionCount = 0;
+    private int pageCount = 0;
+    private final BitSet freePages = new BitSet();
+    private final List<ByteBuffer> directBuffers = new ArrayList<>();
+    private final List<MappedByteBuffer> spillChunks = new ArrayList<>();
+    /** The folder of the owning job, or null for the session temp folder. */
+    private final Path spillDir;
+    private FileChannel spillFile;
+    private Path spillPath;
+    private int spillRegionsLeft = 0;
+    private final List<PageBuffer> buffers = new ArrayList<>();
+    private boolean closed = false;
+
+    /**
+     * @param directLimitBytes The cap of direct memory across all scratch files of the process.
+     * @param spillDir Where the spill file goes once the cap is reached, or null for the session temp folder.
+     */
+    OffHeapScratchFile(long directLimitBytes, Path spillDir) throws IOException {
+        // The base class's own page store is never used
+        super(MemoryUsageSetting.setupMainMemoryOnly(PAGE_SIZE));
+        this.directLimitBytes = directLimitBytes;
+        this.spillDir = spillDir;
+    }
+
+    /**
+     * @return The direct memory held by scratch files, including pooled regions.
+     */
+    static long getDirectBytesReserved() {
+        return DIRECT_BYTES_RESERVED.get();
+    }
+
+    /**
+     * Drops pooled regions until the reserved direct memory fits a new, lower cap. Dropped
+     * regions are freed by the garbage collector.
+     */
+    static void trimPool(long directLimitBytes) {
+        while (DIRECT_BYTES_RESERVED.get() > directLimitBytes && REGION_POOL.poll() != null) {
+            DIRECT_BYTES_RESERVED.addAndGet(-REGION_SIZE);
+        }
+    }
+
+    @Override
+    public RandomAccess createBuffer() throws IOException {
+        synchronized (this) {
+            checkOpen();
+            PageBuffer buffer = new PageBuffer();
+            buffers.add(buffer);
+            return buffer;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            for (PageBuffer buffer : new ArrayList<>(buffers)) {
+                buffer.closed = true;
+            }
+            buffers.clear();
+
+            REGION_POOL.addAll(directBuffers);
+            directBuffers.clear();
+            trimPool(directLimitBytes);
+            for (MappedByteBuffer chunk : spillChunks) {
+                DirectBuffers.free(chunk);
+            }
+            spillChunks.clear();
+            regions = new ByteBuffer[0];
+            if (spillFile != null) {
+                // Opened with DELETE_ON_CLOSE, so this also removes the file
+                spillFile.close();
+            }
+        }
+        super.close();
+    }
+
+    // --- Page store ---
+
+    private synchronized int allocatePage() throws IOException {
+        checkOpen();
+        int page = freePages.nextSetBit(0);
+        if (page >= 0) {
+            freePages.clear(page);
+            return page;
+        }
+        if (pageCount == regionCount * PAGES_PER_REGION) {
+            addRegion();
+        }
+        return pageCount++;
+    }
+
+    private synchronized void releasePages(int[] pages, int count) {
+        for (int i = 0; i < count; i++) {
+            freePages.set(pages[i]);
+        }
+    }
+
+    private void addRegion() throws IOException {
+        ByteBuffer region = REGION_POOL.poll();
+        if (region == null && DIRECT_BYTES_RESERVED.addAndGet(REGION_SIZE) <= directLimitBytes) {
+            try {
+                region = ByteBuffer.allocateDirect(REGION_SIZE);
+            } catch (OutOfMemoryError e) {
+                // -XX:MaxDirectMemorySize is lower than the cap; fall through to the spill file
+                LOGGER.log(Level.FINE, "Direct memory exhausted, spilling scratch pages to disk", e);
+                DIRECT_BYTES_RESERVED.addAndGet(-REGION_SIZE);
+            }
+        } else if (region == null) {
+            DIRECT_BYTES_RESERVED.addAndGet(-REGION_SIZE);
+        }
+
+        if (region != null) {
+            directBuffers.add(region);
+        } else {
+            region = nextSpillRegion();
+        }
+
+        ByteBuffer[] grown = Arrays.copyOf(regions, regionCount + 1);
+        grown[regionCount++] = region;
+        regions = grown;
+    }
+
+    private ByteBuffer nextSpillRegion() throws IOException {
+        long chunkBytes = (long) REGIONS_PER_SPILL_CHUNK * REGION_SIZE;
+        if (spillFile == null) {
+            spillPath = (spillDir != null
+                    ? TempFileManager.createTempFile(spillDir, "scratch_", ".bin", chunkBytes)
+                    : TempFileManager.createTempFile("scratch_", ".bin", chunkBytes)).toPath();
+            spillFile = FileChannel.open(spillPath, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        } else if (spillRegionsLeft == 0) {
+            // A full disk would otherwise only show up as an InternalError on the first write into the chunk
+            TempFileManager.ensureRoom(spillPath, chunkBytes);
+        }
+        if (spillRegionsLeft == 0) {
+            long offset = (long) spillChunks.size() * chunkBytes;
+            // Mapping past the end grows the file (sparsely), so no write() is ever needed
+            spillChunks.add(spillFile.map(FileChannel.MapMode.READ_WRITE, offset, chunkBytes));
+            spillRegionsLeft = REGIONS_PER_SPILL_CHUNK;
+        }
+        MappedByteBuffer chunk = spillChunks.get(spillChunks.size() - 1);
+        int index = REGIONS_PER_SPILL_CHUNK - spillRegionsLeft--;
+        return chunk.slice(index * REGION_SIZE, REGION_SIZE);
+    }
+
+    private ByteBuffer regionOf(int page) {
+        return regions[page / PAGES_PER_REGION];
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Scratch file already closed");
+        }
+    }
+
+    /**
+     * One growable stream buffer. Bytes are copied straight between the caller's array and the
+     * off-heap page; no page is ever materialized on the heap.
+     */
+    private final class PageBuffer implements RandomAccess {
+
+        private int[] pages = new int[16];
+        private int pagesUsed = 0;
+        private long size = 0;
+        private long position = 0;
+        private volatile boolean closed = false;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b) throws IOException {
+            write(b, 0, b.length);
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            checkClosed();
+            int written = 0;
+            while (written < length) {
+                int pageIndex = (int) (position / PAGE_SIZE);
+                if (pageIndex == pagesUsed) {
+                    if (pagesUsed == pages.length) pages = Arrays.copyOf(pages, pages.length * 2);
+                    pages[pagesUsed++] = allocatePage();
+                }
+                int inPage = (int) (position % PAGE_SIZE);
+                int step = Math.min(length - written, PAGE_SIZE - inPage);
+                int page = pages[pageIndex];
+                regionOf(page).put(offsetOf(page) + inPage, b, offset + written, step);
+                written += step;
+                position += step;
+            }
+            size = Math.max(size, position);
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkClosed();
+            if (position >= size) return -1;
+            int page = pages[(int) (position / PAGE_SIZE)];
+            int value = regionOf(page).get(offsetOf(page) + (int) (position % PAGE_SIZE)) & 0xFF;
+            position++;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            return read(b, 0, b.length);
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int length) throws IOException {
+            checkClosed();
+            if (length == 0) return 0;
+            if (position >= size) return -1;
+
+            int count = (int) Math.min(length, size - position);
+            int copied = 0;
+            while (copied < count) {
+                int page = pages[(int) (position / PAGE_SIZE)];
+                int inPage = (int) (position % PAGE_SIZE);
+                int step = Math.min(count - copied, PAGE_SIZE - inPage);
+                regionOf(page).get(offsetOf(page) + inPage, b, offset + copied, step);
+                copied += step;
+                position += step;
+            }
+            return count;
+        }
+
+        @Override
+        public void clear() throws IOException {
+            checkClosed();
+            releasePages(pages, pagesUsed);
+            pagesUsed = 0;
+            size = 0;
+            position = 0;
+        }
+
+        @Override
+        public long getPosition() throws IOException {
+            checkClosed();
+            return position;
+        }
+
+        @Override
+        public void seek(long position) throws IOException {
+            checkClosed();
+            if (position > size) {
+                throw new EOFException();
+            }
+            if (position < 0) {
+                throw new IOException("Negative seek offset: " + position);
+            }
+            this.position = position;
+        }
+
+        @Override
+        public long length() throws IOException {
+            checkClosed();
+            return size;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public int peek() throws IOException {
+            int value = read();
+            if (value != -1) position--;
+            return value;
+        }
+
+        @Override
+        public void rewind(int bytes) throws IOException {
+            seek(getPosition() - bytes);
+        }
+
+        @Override
+        public byte[] readFully(int length) throws IOException {
+            checkClosed();
+            if (size - position < length) {
+                throw new EOFException("Premature end of buffer reached");
+            }
+            byte[] bytes = new byte[length];
+            read(bytes, 0, length);
+            return bytes;
+        }
+
+        @Override
+        public boolean isEOF() throws IOException {
+            checkClosed();
+            return position >= size;
+        }
+
+        @Override
+        public int available() throws IOException {
+            checkClosed();
+            return (int) Math.min(Integer.MAX_VALUE, size - position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            synchronized (OffHeapScratchFile.this) {
+                if (!OffHeapScratchFile.this.closed) {
+                    releasePages(pages, pagesUsed);
+                    buffers.remove(this);
+                }
+            }
+            pagesUsed = 0;
+        }
+
+        private int offsetOf(int page) {
+            return (page % PAGES_PER_REGION) * PAGE_SIZE;
+        }
+
+        private void checkClosed() throws IOException {
+            if (closed) {
+                throw new IOException("Buffer already closed");
+            }
+        }
+    }
+}
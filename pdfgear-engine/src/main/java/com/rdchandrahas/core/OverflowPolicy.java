@@ -0,0 +1,19 @@
+package com.rdchandrahas.core;
+
+/**
+ * OverflowPolicy decides what happens when a task is submitted to an ExecutionManager lane
+ * whose queue is full. Speculative work always yields first: when the queue is full, a
+ * DROP_OLDEST task still waiting in it is evicted to make room for any new submission.
+ */
+public enum OverflowPolicy {
+    /** * For speculative work like thumbnails. The task may be discarded (and cancelled)
+     * when newer work arrives; if nothing droppable is queued, the new task itself is discarded.
+     */
+    DROP_OLDEST,
+
+    /** * For batch jobs that must run. The submitting thread waits until the queue has room. */
+    BLOCK_CALLER,
+
+    /** * The submission fails with a RejectedExecutionException so the caller can throttle itself. */
+    REJECT
+}
@@ -0,0 +1,175 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PageEditService implements the page-level tools: rotate, delete, rearrange and split.
+ * It has no UI dependencies, so the desktop controllers and the headless CLI share it.
+ */
+public class PageEditService {
+
+    private static final Logger LOGGER = Logger.getLogger(PageEditService.class.getName());
+
+    /**
+     * Rotates the selected pages of an open document.
+     * * @param angle The clockwise rotation in degrees (90, 180 or 270).
+     * @param rangeText The pages to rotate; blank rotates every page.
+     */
+    public void rotatePages(PDDocument document, int angle, String rangeText) {
+        Set<Integer> pagesToRotate = PageRanges.parseSelection(rangeText, document.getNumberOfPages());
+        int pageNum = 1;
+        for (PDPage page : document.getPages()) {
+            if (pagesToRotate.contains(pageNum)) {
+                page.setRotation(page.getRotation() + angle);
+            }
+            pageNum++;
+        }
+    }
+
+    public void rotate(File source, File destination, int angle, String rangeText) throws IOException {
+        rotate(source, destination, angle, rangeText, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * @param job Sets the memory limit of the document.
+     */
+    public void rotate(File source, File destination, int angle, String rangeText, JobContext job) throws IOException {
+        try (PDDocument document = PdfLoader.load(source, job.getMemorySetting())) {
+            rotatePages(document, angle, rangeText);
+            document.save(destination);
+        }
+    }
+
+    public void rotate(SpooledPdf source, OutputStream destination, int angle, String rangeText) throws IOException {
+        rotate(source, destination, angle, rangeText, JobContext.capture(TaskContext.NONE));
+    }
+
+    public void rotate(SpooledPdf source, OutputStream destination, int angle, String rangeText, JobContext job) throws IOException {
+        try (PDDocument document = source.load(null, job.getMemorySetting())) {
+            rotatePages(document, angle, rangeText);
+            document.save(destination);
+        }
+    }
+
+    /**
+     * Writes a copy of the source without the given pages.
+     * * @param rangeText The pages to delete, e.g. "1, 3, 5-10".
+     * @throws IllegalArgumentException If no pages are given.
+     */
+    public void deletePages(File source, File destination, String rangeText) throws IOException {
+        deletePages(source, destination, rangeText, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * @param job The source and the copy share its memory limit.
+     */
+    public void deletePages(File source, File destination, String rangeText, JobContext job) throws IOException {
+        if (rangeText == null || rangeText.isBlank()) {
+            throw new IllegalArgumentException("No pages to delete were given.");
+        }
+
+        try (PDDocument sourceDoc = PdfLoader.load(source, job.getMemorySetting(2));
+             PDDocument finalDoc = ScratchStorage.newDocument(job.getMemorySetting(2))) {
+
+            int maxPages = sourceDoc.getNumberOfPages();
+            Set<Integer> pagesToDelete = PageRanges.parseSelection(rangeText, maxPages);
+
+            for (int i = 1; i <= maxPages; i++) {
+                if (!pagesToDelete.contains(i)) {
+                    finalDoc.addPage(finalDoc.importPage(sourceDoc.getPage(i - 1)));
+                }
+            }
+            finalDoc.save(destination);
+        }
+    }
+
+    /**
+     * Writes the pages of the source in a new order. Pages outside the document are skipped.
+     * * @param orderText The new order, e.g. "3, 1, 2, 4-10".
+     * @throws IOException If the order is invalid or the files cannot be accessed.
+     */
+    public void rearrangePages(File source, File destination, String orderText) throws IOException {
+        rearrangePages(source, destination, orderText, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * @param job The source and the copy share its memory limit.
+     */
+    public void rearrangePages(File source, File destination, String orderText, JobContext job) throws IOException {
+        List<Integer> newOrder = PageRanges.parseOrder(orderText);
+        if (newOrder.isEmpty()) {
+            throw new IOException("Invalid page order provided.");
+        }
+
+        try (PDDocument sourceDoc = PdfLoader.load(source, job.getMemorySetting(2));
+             PDDocument finalDoc = ScratchStorage.newDocument(job.getMemorySetting(2))) {
+
+            int maxPages = sourceDoc.getNumberOfPages();
+            for (int pageNum : newOrder) {
+                if (pageNum >= 1 && pageNum <= maxPages) {
+                    finalDoc.addPage(finalDoc.importPage(sourceDoc.getPage(pageNum - 1)));
+                }
+            }
+            finalDoc.save(destination);
+        }
+    }
+
+    /**
+     * Splits a document into one file per page, named basePath_1.pdf, basePath_2.pdf, ...
+     * Every written page is recorded in the job journal, so an interrupted split that is
+     * started again skips the pages it already wrote.
+     * * @param basePath The output path without the ".pdf" extension.
+     * @param context Checked for cancellation and updated after every page; a JobContext also
+     * sets the memory limit of the documents.
+     * @return The number of files written.
+     */
+    public int split(File source, String basePath, TaskContext context) throws IOException {
+        JobContext job = JobContext.of(context);
+        JobJournal journal = JobJournal.open("split", List.of(source.getAbsolutePath()), basePath, "");
+        boolean completed = false;
+        try (PDDocument doc = PdfLoader.load(source, job.getMemorySetting())) {
+            int totalPages = doc.getNumberOfPages();
+            LOGGER.log(Level.INFO, "Starting PDF split for {0} pages...", totalPages);
+
+            // Extract, save, and instantly close one page at a time.
+            // Keeps RAM usage completely flat regardless of PDF size.
+            for (int i = 0; i < totalPages; i++) {
+                context.checkCancelled();
+
+                File pageFile = new File(basePath + "_" + (i + 1) + ".pdf");
+                String unit = "page " + (i + 1);
+                if (journal != null && journal.isDone(unit) && pageFile.isFile()) {
+                    context.reportProgress(i + 1, totalPages);
+                    continue;
+                }
+
+                try (PDDocument singlePageDoc = ScratchStorage.newDocument(job.getMemorySetting())) {
+                    singlePageDoc.addPage(singlePageDoc.importPage(doc.getPage(i)));
+                    singlePageDoc.save(pageFile);
+                }
+                if (journal != null) journal.markDone(unit, pageFile);
+                context.addBytesWritten(pageFile.length());
+                context.reportProgress(i + 1, totalPages);
+
+                // Log progress every 100 pages so we don't spam the console
+                if ((i + 1) % 100 == 0) {
+                    LOGGER.log(Level.INFO, "Successfully split {0} pages...", (i + 1));
+                }
+            }
+            completed = true;
+            return totalPages;
+        } finally {
+            if (journal != null && completed) journal.complete();
+            else if (journal != null) journal.close();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.rdchandrahas.core;
+
+import java.awt.Color;
+import java.io.File;
+
+/**
+ * PageNumberConfig describes how page numbers are stamped onto a document.
+ * * @param position One of PageNumberService.POSITIONS, e.g. "Bottom Center".
+ * @param style One of PageNumberService.STYLES, e.g. "Page 1 of X".
+ * @param language One of PageNumberService.LANGUAGES.
+ * @param fontFile A TrueType font file, or null for Helvetica.
+ * @param fontSize The font size in points.
+ * @param color The text color.
+ */
+public record PageNumberConfig(String position, String style, String language, File fontFile, float fontSize, Color color) {
+}
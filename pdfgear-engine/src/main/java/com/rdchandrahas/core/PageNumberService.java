@@ -0,0 +1,160 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PageNumberService stamps localized page numbers onto every page of a document.
+ */
+public class PageNumberService {
+
+    public static final String LANG_ENGLISH = "English";
+    public static final String LANG_BENGALI = "Bengali";
+    public static final String LANG_HINDI = "Hindi";
+    public static final String LANG_FRENCH = "French";
+    public static final String LANG_SPANISH = "Spanish";
+
+    public static final String STYLE_NUMBER = "1, 2, 3...";
+    public static final String STYLE_PAGE = "Page 1";
+    public static final String STYLE_PAGE_OF = "Page 1 of X";
+
+    public static final List<String> POSITIONS = List.of("Bottom Center", "Bottom Right", "Bottom Left", "Top Center", "Top Right", "Top Left");
+    public static final List<String> STYLES = List.of(STYLE_NUMBER, STYLE_PAGE, STYLE_PAGE_OF);
+    /** Spellings of the styles without spaces, for the command line and recipes. */
+    public static final Map<String, String> STYLE_KEYS = Map.of(
+            "number", STYLE_NUMBER,
+            "page", STYLE_PAGE,
+            "page-of-total", STYLE_PAGE_OF);
+    public static final List<String> LANGUAGES = List.of(LANG_ENGLISH, LANG_BENGALI, LANG_HINDI, LANG_FRENCH, LANG_SPANISH);
+
+    /** User supplied .ttf fonts are picked up from this directory, relative to the working directory. */
+    public static final File FONT_DIR = new File("fonts");
+
+    private static final float MARGIN = 30;
+
+    public void addPageNumbers(File source, File destination, PageNumberConfig config) throws IOException {
+        addPageNumbers(source, destination, config, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * @param job Sets the memory limit of the document.
+     */
+    public void addPageNumbers(File source, File destination, PageNumberConfig config, JobContext job) throws IOException {
+        try (PDDocument document = PdfLoader.load(source, job.getMemorySetting())) {
+            apply(document, config);
+            document.save(destination);
+        }
+    }
+
+    public void addPageNumbers(SpooledPdf source, OutputStream destination, PageNumberConfig config) throws IOException {
+        try (PDDocument document = source.load(null)) {
+            apply(document, config);
+            document.save(destination);
+        }
+    }
+
+    /**
+     * Numbers every page of an open document.
+     */
+    public void apply(PDDocument doc, PageNumberConfig config) throws IOException {
+        PDFont font = config.fontFile() != null && config.fontFile().exists()
+                ? PDType0Font.load(doc, config.fontFile())
+                : PDType1Font.HELVETICA;
+        int totalPages = doc.getNumberOfPages();
+        float fontSize = config.fontSize();
+
+        for (int i = 0; i < totalPages; i++) {
+            PDPage page = doc.getPage(i);
+            String text = formatPageText(i + 1, totalPages, config.style(), config.language());
+
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page, PDPageContentStream.AppendMode.APPEND, true, true)) {
+                cs.beginText();
+                cs.setFont(font, fontSize);
+                cs.setNonStrokingColor(config.color());
+
+                PDRectangle mediabox = page.getMediaBox();
+                float textWidth = font.getStringWidth(text) / 1000 * fontSize;
+                float x = calculateX(config.position(), mediabox, textWidth);
+                float y = calculateY(config.position(), mediabox);
+
+                cs.newLineAtOffset(x, y);
+                cs.showText(text);
+                cs.endText();
+            }
+        }
+    }
+
+    /**
+     * @return true if the language's script is not covered by the standard Helvetica font.
+     */
+    public static boolean requiresCustomFont(String language) {
+        return LANG_BENGALI.equals(language) || LANG_HINDI.equals(language);
+    }
+
+    /**
+     * @return The names (without extension) of the .ttf files in the font directory.
+     */
+    public static List<String> getAvailableFonts() {
+        List<String> names = new ArrayList<>();
+        File[] files = FONT_DIR.listFiles((dir, name) -> name.toLowerCase().endsWith(".ttf"));
+        if (files != null) {
+            for (File file : files) {
+                names.add(file.getName().replace(".ttf", ""));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return The font file of a name listed by getAvailableFonts().
+     */
+    public static File resolveFont(String name) {
+        return new File(FONT_DIR, name + ".ttf");
+    }
+
+    public static String formatPageText(int current, int total, String style, String lang) {
+        String pageWord = switch (lang) {
+            case LANG_BENGALI -> "পৃষ্ঠা";
+            case LANG_HINDI -> "पृष्ठ";
+            case LANG_FRENCH -> "Page";
+            case LANG_SPANISH -> "Página";
+            default -> "Page";
+        };
+        String ofWord = switch (lang) {
+            case LANG_BENGALI -> "এর";
+            case LANG_HINDI -> "का";
+            case LANG_FRENCH -> "sur";
+            case LANG_SPANISH -> "de";
+            default -> "of";
+        };
+
+        return switch (style) {
+            case STYLE_PAGE -> pageWord + " " + current;
+            case STYLE_PAGE_OF -> pageWord + " " + current + " " + ofWord + " " + total;
+            default -> String.valueOf(current);
+        };
+    }
+
+    private float calculateX(String pos, PDRectangle box, float textWidth) {
+        if (pos.contains("Left")) return MARGIN;
+        if (pos.contains("Right")) return box.getWidth() - MARGIN - textWidth;
+        return (box.getWidth() - textWidth) / 2;
+    }
+
+    private float calculateY(String pos, PDRectangle box) {
+        if (pos.contains("Top")) return box.getHeight() - MARGIN;
+        return MARGIN;
+    }
+}
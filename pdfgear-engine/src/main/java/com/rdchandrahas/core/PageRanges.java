@@ -0,0 +1,84 @@
+package com.rdchandrahas.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PageRanges parses the page range syntax shared by the page tools ("1, 3, 5-10").
+ * Page numbers are 1-based; commas and whitespace both separate entries.
+ */
+public class PageRanges {
+
+    private static final Logger LOGGER = Logger.getLogger(PageRanges.class.getName());
+
+    private PageRanges() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Parses a page selection. Pages beyond the document and malformed entries are ignored.
+     * * @param rangeText The selection, e.g. "1, 3, 5-10". Blank selects every page.
+     * @param maxPages The number of pages in the document.
+     * @return The selected page numbers in ascending order.
+     */
+    public static Set<Integer> parseSelection(String rangeText, int maxPages) {
+        Set<Integer> pages = new TreeSet<>();
+        if (rangeText == null || rangeText.isBlank()) {
+            for (int i = 1; i <= maxPages; i++) pages.add(i);
+            return pages;
+        }
+
+        for (String part : rangeText.replaceAll("\\s+", ",").split(",")) {
+            if (part.isEmpty()) continue;
+            try {
+                if (part.contains("-")) {
+                    String[] bounds = part.split("-");
+                    if (bounds.length != 2) continue;
+                    int start = Math.max(1, Integer.parseInt(bounds[0]));
+                    int end = Math.min(maxPages, Integer.parseInt(bounds[1]));
+                    for (int i = start; i <= end; i++) pages.add(i);
+                } else {
+                    int pageNum = Integer.parseInt(part);
+                    if (pageNum >= 1 && pageNum <= maxPages) pages.add(pageNum);
+                }
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.FINE, "Ignored invalid page number format: {0}", part);
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Parses a page order. Unlike a selection, entries keep their order, may repeat,
+     * and a descending range ("10-4") lists its pages backwards.
+     * * @param orderText The order, e.g. "3, 1, 2, 4-10".
+     * @return The page numbers in the requested order; not checked against the document.
+     */
+    public static List<Integer> parseOrder(String orderText) {
+        List<Integer> pages = new ArrayList<>();
+        if (orderText == null) return pages;
+
+        for (String part : orderText.replaceAll("\\s+", "").split(",")) {
+            if (part.isEmpty()) continue;
+            try {
+                if (part.contains("-")) {
+                    String[] bounds = part.split("-");
+                    if (bounds.length != 2) continue;
+                    int start = Integer.parseInt(bounds[0]);
+                    int end = Integer.parseInt(bounds[1]);
+                    int step = start <= end ? 1 : -1;
+                    for (int i = start; i != end + step; i += step) pages.add(i);
+                } else {
+                    pages.add(Integer.parseInt(part));
+                }
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.WARNING, "Ignored invalid page number format: {0}", part);
+            }
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,84 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessBufferedFileInputStream;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PdfLoader is the single place where documents are opened from disk. It replaces
+ * PDDocument.load(File, ...), which reads through a buffered file stream, with a memory-mapped
+ * source (see MappedFileRandomAccess). If a file cannot be mapped, e.g. when the address space
+ * is exhausted, it falls back to PDFBox's buffered reader.
+ */
+public class PdfLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(PdfLoader.class.getName());
+
+    private PdfLoader() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Loads an unencrypted document with the global memory setting.
+     */
+    public static PDDocument load(File file) throws IOException {
+        return load(file, "", PdfService.getGlobalMemorySetting());
+    }
+
+    /**
+     * Loads a document that may be encrypted, with the global memory setting.
+     */
+    public static PDDocument load(File file, String password) throws IOException {
+        return load(file, password, PdfService.getGlobalMemorySetting());
+    }
+
+    /**
+     * Loads an unencrypted document with an explicit memory budget, e.g. a share of the global one.
+     */
+    public static PDDocument load(File file, MemoryUsageSetting memorySetting) throws IOException {
+        return load(file, "", memorySetting);
+    }
+
+    /**
+     * Loads a document the same way PDDocument.load does, but from a mapped source.
+     * * @param password The user or owner password, or "" if the document is not encrypted.
+     * @param memorySetting The budget of the document's scratch buffers.
+     * @return The parsed document. Closing it unmaps the file.
+     * @throws IOException If the file cannot be read or parsed, or the password is wrong.
+     */
+    public static PDDocument load(File file, String password, MemoryUsageSetting memorySetting) throws IOException {
+        RandomAccessRead source = open(file);
+        ScratchFile scratchFile = ScratchStorage.create(memorySetting);
+        try {
+            PDFParser parser = new PDFParser(source, password == null ? "" : password, scratchFile);
+            parser.parse();
+            return parser.getPDDocument();
+        } catch (IOException e) {
+            IOUtils.closeQuietly(scratchFile);
+            IOUtils.closeQuietly(source);
+            throw e;
+        }
+    }
+
+    /**
+     * Opens random read access to a file, mapped if possible.
+     */
+    static RandomAccessRead open(File file) throws IOException {
+        try {
+            return new MappedFileRandomAccess(file);
+        } catch (IOException | RuntimeException e) {
+            if (!file.isFile()) throw e;
+            LOGGER.log(Level.FINE, "Could not map " + file + ", reading it through a buffer instead", e);
+            return new RandomAccessBufferedFileInputStream(file);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.rdchandrahas.core;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+@FunctionalInterface
+public interface PdfOperation {
+    void execute(PDDocument document) throws IOException,GeneralSecurityException;
+
+    /**
+     * Applies the operation as part of a job. Operations that create documents or temp files
+     * override this to use the job's memory limit and temp folder instead of the process defaults.
+     */
+    default void execute(PDDocument document, JobContext job) throws IOException, GeneralSecurityException {
+        execute(document);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PdfPipeline chains several document operations over a single loaded document and saves once.
+ * Running rotate, watermark and page numbers as separate tools loads, parses and writes the
+ * whole file three times; a pipeline does it once, whatever the number of steps.
+ *
+ * All steps of a recipe are validated when the pipeline is built, so a typo in the last step
+ * fails before any file is touched.
+ */
+public class PdfPipeline {
+
+    private static final Logger LOGGER = Logger.getLogger(PdfPipeline.class.getName());
+
+    public static final String OP_ROTATE = "rotate";
+    public static final String OP_WATERMARK = "watermark";
+    public static final String OP_PAGE_NUMBERS = "page-numbers";
+    public static final String OP_METADATA = "metadata";
+    public static final String OP_PROTECT = "protect";
+
+    public static final List<String> OPERATIONS = List.of(OP_ROTATE, OP_WATERMARK, OP_PAGE_NUMBERS, OP_METADATA, OP_PROTECT);
+
+    private static final String KEY_FONT = "font";
+    private static final String KEY_SIZE = "size";
+    private static final String KEY_COLOR = "color";
+    private static final String KEY_PASSWORD = "password";
+    private static final String KEY_PASSWORD_ENV = "password-env";
+
+    private final List<PipelineStep> steps;
+    private final List<PdfOperation> operations = new ArrayList<>();
+
+    /**
+     * @throws IllegalArgumentException If a step is unknown or has invalid parameters.
+     */
+    public PdfPipeline(PipelineRecipe recipe) {
+        if (recipe.isEmpty()) {
+            throw new IllegalArgumentException("The pipeline has no steps.");
+        }
+        this.steps = recipe.getSteps();
+        for (int i = 0; i < steps.size(); i++) {
+            PipelineStep step = steps.get(i);
+            try {
+                operations.add(toOperation(step));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Step " + (i + 1) + " (" + step.operation() + "): " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public List<PipelineStep> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Loads the source once, applies every step and writes the destination once.
+     */
+    public void run(File source, File destination, TaskContext context) throws IOException, GeneralSecurityException {
+        LOGGER.log(Level.INFO, "Running {0} pipeline steps on {1}", new Object[]{steps.size(), source.getName()});
+        JobContext job = JobContext.of(context);
+        try (PDDocument document = PdfLoader.load(source, job.getMemorySetting())) {
+            apply(document, job);
+            context.checkCancelled();
+            document.save(destination);
+            context.reportProgress(steps.size() + 1L, steps.size() + 1L);
+            context.addBytesWritten(destination.length());
+        }
+    }
+
+    /**
+     * Runs the pipeline on a spooled document and writes the result to a stream.
+     */
+    public void run(SpooledPdf source, OutputStream destination, TaskContext context) throws IOException, GeneralSecurityException {
+        JobContext job = JobContext.of(context);
+        try (PDDocument document = source.load(null, job.getMemorySetting())) {
+            apply(document, job);
+            context.checkCancelled();
+            document.save(destination);
+            context.reportProgress(steps.size() + 1L, steps.size() + 1L);
+        }
+    }
+
+    /**
+     * Applies every step, in order, to an open document. Saving counts as one more unit of progress.
+     */
+    public void apply(PDDocument document, TaskContext context) throws IOException, GeneralSecurityException {
+        JobContext job = JobContext.of(context);
+        for (int i = 0; i < operations.size(); i++) {
+            context.checkCancelled();
+            operations.get(i).execute(document, job);
+            context.reportProgress(i + 1L, steps.size() + 1L);
+        }
+    }
+
+    private static PdfOperation toOperation(PipelineStep step) {
+        return switch (step.operation()) {
+            case OP_ROTATE -> rotate(step);
+            case OP_WATERMARK -> watermark(step);
+            case OP_PAGE_NUMBERS -> pageNumbers(step);
+            case OP_METADATA -> metadata(step);
+            case OP_PROTECT -> protect(step);
+            default -> throw new IllegalArgumentException("Unknown operation, expected one of " + OPERATIONS + ".");
+        };
+    }
+
+    private static PdfOperation rotate(PipelineStep step) {
+        step.checkKeys(Set.of("angle", "pages"));
+        int angle = (int) step.getFloat("angle", 90);
+        if (angle % 90 != 0) {
+            throw new IllegalArgumentException("angle must be a multiple of 90.");
+        }
+        String pages = step.get("pages", "");
+        PageEditService service = new PageEditService();
+        return doc -> service.rotatePages(doc, angle, pages);
+    }
+
+    private static PdfOperation watermark(PipelineStep step) {
+        step.checkKeys(Set.of("text", KEY_FONT, "bold", "italic", KEY_SIZE, KEY_COLOR, "rotation", "opacity"));
+        String font = step.get(KEY_FONT, "helvetica");
+        File customFont = null;
+        if (font.toLowerCase(Locale.ROOT).endsWith(".ttf")) {
+            customFont = existingFile(font);
+        } else if (!WatermarkService.FONT_KEYS.containsKey(font.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Unknown font '" + font + "', expected helvetica, times, courier or a .ttf file.");
+        }
+        WatermarkConfig config = new WatermarkConfig(step.require("text"), step.getFloat(KEY_SIZE, 72),
+                step.getColor(KEY_COLOR, "#A9A9A9"), step.getFloat("rotation", 45), step.getFloat("opacity", 0.3f),
+                WatermarkService.FONT_KEYS.getOrDefault(font.toLowerCase(Locale.ROOT), WatermarkService.FONT_HELVETICA),
+                step.getBoolean("bold"), step.getBoolean("italic"), customFont);
+        WatermarkService service = new WatermarkService();
+        return doc -> service.apply(doc, config);
+    }
+
+    private static PdfOperation pageNumbers(PipelineStep step) {
+        step.checkKeys(Set.of("position", "style", "language", KEY_FONT, KEY_SIZE, KEY_COLOR));
+        String language = choice(step, "language", PageNumberService.LANGUAGES, PageNumberService.LANG_ENGLISH);
+        File fontFile = null;
+        if (step.params().containsKey(KEY_FONT)) {
+            String font = step.get(KEY_FONT, "");
+            fontFile = existingFile(font.toLowerCase(Locale.ROOT).endsWith(".ttf") ? font : PageNumberService.resolveFont(font).getPath());
+        } else if (PageNumberService.requiresCustomFont(language)) {
+            throw new IllegalArgumentException(language + " page numbers need a font that covers its script.");
+        }
+        String style = PageNumberService.STYLE_KEYS.get(step.get("style", "number").toLowerCase(Locale.ROOT));
+        if (style == null) {
+            throw new IllegalArgumentException("style must be one of " + PageNumberService.STYLE_KEYS.keySet() + ".");
+        }
+        PageNumberConfig config = new PageNumberConfig(
+                choice(step, "position", PageNumberService.POSITIONS, PageNumberService.POSITIONS.get(0)),
+                style, language, fontFile, step.getFloat(KEY_SIZE, 12), step.getColor(KEY_COLOR, "#000000"));
+        PageNumberService service = new PageNumberService();
+        return doc -> service.apply(doc, config);
+    }
+
+    private static PdfOperation metadata(PipelineStep step) {
+        step.checkKeys(Set.of("title", "author", "subject", "keywords"));
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String field : List.of("Title", "Author", "Subject", "Keywords")) {
+            String key = field.toLowerCase(Locale.ROOT);
+            if (step.params().containsKey(key)) fields.put(field, step.get(key, ""));
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Give at least one of title, author, subject or keywords.");
+        }
+        MetadataEditorService service = new MetadataEditorService();
+        return doc -> service.apply(doc, fields);
+    }
+
+    /**
+     * The password can be read from an environment variable so recipes can be shared
+     * without the secret in them. Encryption is applied when the document is saved, so
+     * the steps after protect still work on the plain content.
+     */
+    private static PdfOperation protect(PipelineStep step) {
+        step.checkKeys(Set.of(KEY_PASSWORD, KEY_PASSWORD_ENV));
+        String password;
+        if (step.params().containsKey(KEY_PASSWORD_ENV)) {
+            String variable = step.require(KEY_PASSWORD_ENV);
+            password = System.getenv(variable);
+            if (password == null || password.isEmpty()) {
+                throw new IllegalArgumentException("Environment variable " + variable + " is not set.");
+            }
+        } else {
+            password = step.require(KEY_PASSWORD);
+        }
+        SecurityService service = new SecurityService();
+        return doc -> service.protect(doc, password);
+    }
+
+    private static String choice(PipelineStep step, String key, List<String> choices, String defaultValue) {
+        String value = step.get(key, defaultValue);
+        for (String candidate : choices) {
+            if (candidate.equalsIgnoreCase(value)) return candidate;
+        }
+        throw new IllegalArgumentException(key + " must be one of " + choices + ".");
+    }
+
+    private static File existingFile(String path) {
+        File file = new File(path);
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("Font file not found: " + path);
+        }
+        return file;
+    }
+}
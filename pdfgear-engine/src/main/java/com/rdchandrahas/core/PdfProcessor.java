@@ -18,4 +18,14 @@ public interface PdfProcessor {
      * @throws Exception If a file is missing, encrypted, or a write error occurs during processing.
      */
     void merge(List<String> inputFiles, String outputFile) throws IOException,GeneralSecurityException;
+
+    /**
+     * Merges multiple PDF files with cooperative cancellation and progress reporting.
+     * Implementations that cannot be interrupted fall back to the plain merge.
+     * * @param context The task context used for cancellation checks and progress updates.
+     */
+    default void merge(List<String> inputFiles, String outputFile, TaskContext context) throws IOException, GeneralSecurityException {
+        context.checkCancelled();
+        merge(inputFiles, outputFile);
+    }
 }
\ No newline at end of file
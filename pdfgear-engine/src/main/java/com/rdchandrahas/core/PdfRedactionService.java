@@ -10,6 +10,7 @@ import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,14 +24,28 @@ public class PdfRedactionService {
     public void redactText(String inputPath, String outputPath, String textToRedact) throws IOException {
         LOGGER.log(Level.INFO, "Starting visual text redaction for {0}", inputPath);
 
-        try (PDDocument document = PDDocument.load(new File(inputPath), PdfService.getGlobalMemorySetting())) {
-            for (int i = 0; i < document.getNumberOfPages(); i++) {
-                processPage(document, i, textToRedact);
-            }
+        try (PDDocument document = PdfLoader.load(new File(inputPath))) {
+            redact(document, textToRedact);
             document.save(outputPath);
         }
     }
 
+    public void redactText(SpooledPdf source, OutputStream destination, String textToRedact) throws IOException {
+        try (PDDocument document = source.load(null)) {
+            redact(document, textToRedact);
+            document.save(destination);
+        }
+    }
+
+    /**
+     * Covers every occurrence of the text, ignoring case, with a black box on an open document.
+     */
+    public void redact(PDDocument document, String textToRedact) throws IOException {
+        for (int i = 0; i < document.getNumberOfPages(); i++) {
+            processPage(document, i, textToRedact);
+        }
+    }
+
     private void processPage(PDDocument document, int pageIndex, String textToRedact) throws IOException {
         PDPage page = document.getPage(pageIndex);
         List<TextPosition> boundingBoxes = new ArrayList<>();
@@ -0,0 +1,509 @@
+package com.rdchandrahas.core;
+
+import com.rdchandrahas.shared.util.TempFileManager; // ADDED IMPORT
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import java.io.File;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class PdfService implements PdfProcessor {
+
+    private static final Logger LOGGER = Logger.getLogger(PdfService.class.getName());
+    
+    private static long memoryLimitBytes = 1024L * 1024L * 1024L; // Default 1GB
+    private static final int MAX_OPEN_FILES_BATCH = 500;
+    /** How long cleanup waits for busy tree merge workers before it logs that it is still waiting. */
+    private static final long WORKER_STOP_WARN_SECONDS = 30;
+
+    private static MergeMode mergeMode = MergeMode.BATCHED;
+
+    /** When enabled, identical fonts, images and ICC profiles are stored once in the merged output. */
+    private static boolean resourceDeduplication = false;
+
+    /** When enabled, sources without forms, tags or outlines skip PDFMergerUtility's reconciliation. */
+    private static boolean fastPathMerge = false;
+
+    private static PreflightPolicy preflightPolicy = PreflightPolicy.OFF;
+
+    public static void setMemoryLimit(long bytes) {
+        memoryLimitBytes = bytes;
+        LOGGER.log(Level.INFO, "Global memory limit updated to: {0} bytes", bytes);
+    }
+
+    /**
+     * @return The memory limit new jobs start with; see JobContext.
+     */
+    public static long getMemoryLimit() {
+        return memoryLimitBytes;
+    }
+
+    public static void setMergeMode(MergeMode mode) {
+        mergeMode = mode;
+        LOGGER.log(Level.INFO, "Merge mode updated to: {0}", mode);
+    }
+
+    public static MergeMode getMergeMode() {
+        return mergeMode;
+    }
+
+    public static void setResourceDeduplication(boolean enabled) {
+        resourceDeduplication = enabled;
+        LOGGER.log(Level.INFO, "Merge resource de-duplication: {0}", (enabled ? "Enabled" : "Disabled"));
+    }
+
+    public static boolean isResourceDeduplicationEnabled() {
+        return resourceDeduplication;
+    }
+
+    public static void setFastPathMerge(boolean enabled) {
+        fastPathMerge = enabled;
+        LOGGER.log(Level.INFO, "Fast-path merge: {0}", (enabled ? "Enabled" : "Disabled"));
+    }
+
+    public static boolean isFastPathMergeEnabled() {
+        return fastPathMerge;
+    }
+
+    public static void setPreflightPolicy(PreflightPolicy policy) {
+        preflightPolicy = policy;
+        LOGGER.log(Level.INFO, "Merge pre-flight policy updated to: {0}", policy);
+    }
+
+    public static PreflightPolicy getPreflightPolicy() {
+        return preflightPolicy;
+    }
+
+    /**
+     * @return The merge settings new jobs start with; see JobContext.
+     */
+    public static MergeOptions getMergeOptions() {
+        return new MergeOptions(mergeMode, preflightPolicy, resourceDeduplication, fastPathMerge);
+    }
+
+    public static MemoryUsageSetting getGlobalMemorySetting() {
+        File tempDir = null;
+        // FIX 3: Force PDFBox to put its overflow buffers into our managed Temp folder
+        try {
+            tempDir = TempFileManager.getTempDir().toFile();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not set custom temp dir for PDFBox", e);
+        }
+        return getMemorySetting(memoryLimitBytes, tempDir);
+    }
+
+    /**
+     * Builds a MemoryUsageSetting for an explicit RAM budget.
+     * Used when the limit of a job has to be shared between several concurrent workers.
+     * * @param tempDir Where PDFBox puts its overflow buffers, or null for the system default.
+     */
+    static MemoryUsageSetting getMemorySetting(long limitBytes, File tempDir) {
+        MemoryUsageSetting setting = (limitBytes == -1) ?
+            MemoryUsageSetting.setupMainMemoryOnly() : 
+            MemoryUsageSetting.setupMixed(limitBytes);
+        return tempDir == null ? setting : setting.setTempDir(tempDir);
+    }
+
+    /**
+     * Validates merge inputs in parallel without merging them.
+     * The memory limit is shared between the validation workers.
+     * * @param inputFiles The absolute paths of the PDFs to validate.
+     * @return A report of every input that would make the merge fail.
+     * @throws IOException If validation is interrupted.
+     */
+    public PreflightReport preflight(List<String> inputFiles) throws IOException {
+        return preflight(inputFiles, JobContext.capture(TaskContext.NONE));
+    }
+
+    private PreflightReport preflight(List<String> inputFiles, JobContext job) throws IOException {
+        int workers = Math.min(Math.max(2, job.getThreads()), Math.max(1, inputFiles.size()));
+        return new MergePreflight(workers, job.getMemorySetting(workers)).check(inputFiles, job);
+    }
+
+    @Override
+    public void merge(List<String> inputFiles, String outputFile) throws IOException, GeneralSecurityException {
+        merge(inputFiles, outputFile, TaskContext.NONE);
+    }
+
+    /**
+     * Merges with cooperative cancellation and progress reporting.
+     * Progress is reported in input files appended; the context is checked before every
+     * file. In BATCHED mode finished batches are kept in the job journal when the merge is
+     * cancelled or fails, so running it again resumes; otherwise temp batches are deleted.
+     * * @param context The task context of the calling job. A JobContext also sets the memory
+     * limit, temp folder, worker count and merge options of the merge.
+     * @throws java.util.concurrent.CancellationException If the context is cancelled.
+     */
+    @Override
+    public void merge(List<String> inputFiles, String outputFile, TaskContext context) throws IOException, GeneralSecurityException {
+        JobContext job = JobContext.of(context);
+        MergeOptions options = job.getMergeOptions();
+        if (options.preflight() != PreflightPolicy.OFF) {
+            inputFiles = applyPreflight(inputFiles, job);
+        }
+
+        int totalFiles = inputFiles.size();
+        AtomicInteger appended = new AtomicInteger();
+        Runnable onSourceAppended = () -> job.reportProgress(appended.incrementAndGet(), totalFiles);
+
+        if (options.mode() == MergeMode.TREE_REDUCE) {
+            treeMerge(inputFiles, outputFile, job, onSourceAppended);
+            return;
+        }
+        if (options.mode() == MergeMode.STREAMING) {
+            streamingMerge(inputFiles, outputFile, job, onSourceAppended);
+            return;
+        }
+
+        batchedMerge(inputFiles, outputFile, job, onSourceAppended);
+    }
+
+    // --- BATCHED Mode ---
+
+    /**
+     * Merges batches of at most MAX_OPEN_FILES_BATCH files (and at most the memory limit) into
+     * intermediate files, then combines those. With the job journal enabled the batches are
+     * checkpoints: they are kept in the journal folder, and a rerun of an interrupted merge
+     * picks up at the first batch that had not been finished.
+     */
+    private void batchedMerge(List<String> inputFiles, String outputFile, JobContext context, Runnable onSourceAppended) throws IOException {
+        List<String> existingFiles = new ArrayList<>();
+        for (String inputFile : inputFiles) {
+            File f = new File(inputFile);
+            if (f.exists()) existingFiles.add(f.getAbsolutePath());
+        }
+
+        LOGGER.log(Level.INFO, "Initiating mass merge for {0} files.", existingFiles.size());
+
+        List<List<String>> batches = partitionBySize(existingFiles, context.getMemoryLimit());
+        if (batches.size() <= 1) {
+            executeMergeInternal(existingFiles, outputFile, context, onSourceAppended);
+            LOGGER.log(Level.INFO, "Merge completed in a single batch.");
+            return;
+        }
+
+        MergeOptions options = context.getMergeOptions();
+        JobJournal journal = JobJournal.open("merge", existingFiles, outputFile,
+                "batched|" + context.getMemoryLimit() + "|" + MAX_OPEN_FILES_BATCH + "|" + options.deduplicate() + "|" + options.fastPath());
+        List<String> batchPaths = new ArrayList<>();
+        boolean completed = false;
+
+        try {
+            for (int i = 0; i < batches.size(); i++) {
+                context.checkCancelled();
+                List<String> batch = batches.get(i);
+                String unit = "batch " + (i + 1);
+                String batchName = "merge_batch_" + (i + 1) + ".pdf";
+
+                if (journal != null && journal.isDone(unit) && journal.checkpointFile(batchName).isFile()) {
+                    batchPaths.add(journal.checkpointFile(batchName).getAbsolutePath());
+                    batch.forEach(skipped -> onSourceAppended.run());
+                    continue;
+                }
+
+                LOGGER.log(Level.INFO, "Merging batch {0} of {1} ({2} files) to temp storage.", new Object[]{i + 1, batches.size(), batch.size()});
+                if (journal != null) {
+                    File batchPdf = journal.writeCheckpoint(batchName, sizeOf(batch),
+                            partial -> executeMergeInternal(batch, partial.getAbsolutePath(), context, onSourceAppended));
+                    batchPaths.add(batchPdf.getAbsolutePath());
+                    journal.markDone(unit, batchPdf);
+                } else {
+                    // FIX 1: Use the job's temp folder instead of OS default temp
+                    File tempPdf = context.createTempFile("merge_batch_" + (i + 1) + "_", ".pdf", sizeOf(batch));
+                    // Track the batch before merging so a cancelled or failed batch is cleaned up too
+                    batchPaths.add(tempPdf.getAbsolutePath());
+                    executeMergeInternal(batch, tempPdf.getAbsolutePath(), context, onSourceAppended);
+                }
+            }
+
+            LOGGER.log(Level.INFO, "Combining {0} temporary batches into final file: {1}", new Object[]{batchPaths.size(), outputFile});
+            executeMergeInternal(batchPaths, outputFile, context, () -> { });
+            completed = true;
+            LOGGER.info("Massive merge operation successful.");
+
+        } finally {
+            if (journal == null) {
+                // FIX 2: Guaranteed Cleanup!
+                // Even if executeMergeInternal throws an error midway, the temporary 500-file batches will be deleted.
+                deleteTempFiles(batchPaths);
+            } else if (completed) {
+                journal.complete();
+            } else {
+                // Keep the finished batches for the next run of this merge
+                journal.close();
+            }
+        }
+    }
+
+    /**
+     * Runs the pre-flight stage before any batch is written.
+     * @return The inputs that passed validation, in their original order.
+     * @throws PreflightException If the policy is ABORT and at least one input was rejected.
+     */
+    private List<String> applyPreflight(List<String> inputFiles, JobContext job) throws IOException {
+        PreflightReport report = preflight(inputFiles, job);
+        if (!report.hasIssues()) {
+            LOGGER.log(Level.INFO, "Pre-flight passed: {0} files, {1} pages.", new Object[]{report.getCheckedCount(), report.getTotalPages()});
+            return inputFiles;
+        }
+
+        if (job.getMergeOptions().preflight() == PreflightPolicy.ABORT) {
+            LOGGER.log(Level.SEVERE, "Merge aborted by pre-flight validation:\n{0}", report.getSummary());
+            throw new PreflightException(report);
+        }
+
+        for (PreflightReport.Issue issue : report.getIssues()) {
+            LOGGER.log(Level.WARNING, "Skipping merge input: {0}", issue);
+        }
+        Set<String> badFiles = new HashSet<>(report.getBadFiles());
+        List<String> validFiles = inputFiles.stream().filter(path -> !badFiles.contains(path)).toList();
+        if (validFiles.isEmpty()) {
+            throw new PreflightException(report);
+        }
+        return validFiles;
+    }
+
+    // --- STREAMING Mode ---
+
+    /**
+     * Single-pass merge with a bounded number of open sources and no temp batch files.
+     * Half of the memory limit goes to the destination, the other half is shared by the open sources.
+     */
+    private void streamingMerge(List<String> inputFiles, String outputFile, JobContext context, Runnable onSourceAppended) throws IOException {
+        List<String> existingFiles = new ArrayList<>();
+        for (String inputFile : inputFiles) {
+            File f = new File(inputFile);
+            if (f.exists()) existingFiles.add(f.getAbsolutePath());
+        }
+
+        LOGGER.log(Level.INFO, "Initiating streaming merge for {0} files.", existingFiles.size());
+
+        newMerger(context).merge(existingFiles, outputFile, context, onSourceAppended);
+        context.addBytesWritten(new File(outputFile).length());
+        LOGGER.info("Streaming merge operation successful.");
+    }
+
+    // --- TREE_REDUCE Mode ---
+
+    /**
+     * Hierarchical merge: leaf batches are merged concurrently, then the intermediate
+     * results are combined level by level. Batches keep their input order at every level,
+     * so the page order of the final document is identical to the serial merge.
+     * The job's memory limit is divided evenly between its workers.
+     */
+    private void treeMerge(List<String> inputFiles, String outputFile, JobContext context, Runnable onSourceAppended) throws IOException {
+        List<String> existingFiles = new ArrayList<>();
+        for (String inputFile : inputFiles) {
+            File f = new File(inputFile);
+            if (f.exists()) existingFiles.add(f.getAbsolutePath());
+        }
+
+        int workers = Math.min(Math.max(2, context.getThreads()), Math.max(1, existingFiles.size() / 2));
+        long workerLimitBytes = context.getMemoryShare(workers);
+        List<List<String>> leafBatches = partitionBySize(existingFiles, workerLimitBytes);
+
+        LOGGER.log(Level.INFO, "Initiating tree merge for {0} files: {1} leaf batches on {2} workers.",
+                new Object[]{existingFiles.size(), leafBatches.size(), workers});
+
+        if (leafBatches.size() <= 1) {
+            executeMergeInternal(existingFiles, outputFile, context, onSourceAppended);
+            LOGGER.log(Level.INFO, "Merge completed in a single batch.");
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<String> currentLevel = new ArrayList<>();
+        try {
+            JobContext workerJob = context.withMemoryLimit(workerLimitBytes);
+            currentLevel = mergeLevel(leafBatches, pool, 0, workerJob, onSourceAppended);
+
+            // Only add extra levels while the intermediates exceed the file handle limit.
+            // Every level rewrites all the data, so the final pass should happen as early as possible.
+            int level = 1;
+            while (currentLevel.size() > MAX_OPEN_FILES_BATCH) {
+                List<String> nextLevel = mergeLevel(partitionByCount(currentLevel, MAX_OPEN_FILES_BATCH), pool, level++, workerJob, () -> { });
+                deleteTempFiles(currentLevel);
+                currentLevel = nextLevel;
+            }
+
+            LOGGER.log(Level.INFO, "Combining {0} intermediate results into final file: {1}", new Object[]{currentLevel.size(), outputFile});
+            // The pool is idle during the final pass, so it gets the full memory budget
+            executeMergeInternal(currentLevel, outputFile, context, () -> { });
+            LOGGER.info("Tree merge operation successful.");
+        } finally {
+            stopWorkers(pool);
+            deleteTempFiles(currentLevel);
+        }
+    }
+
+    /**
+     * Merges every batch of one tree level on the worker pool.
+     * @return The temp files produced, in the same order as the batches.
+     */
+    private List<String> mergeLevel(List<List<String>> batches, ExecutorService pool, int level,
+                                    JobContext context, Runnable onSourceAppended) throws IOException {
+        List<String> outputs = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < batches.size(); i++) {
+                List<String> batch = batches.get(i);
+                File tempPdf = context.createTempFile("merge_tree_L" + level + "_" + (i + 1) + "_", ".pdf", sizeOf(batch));
+                outputs.add(tempPdf.getAbsolutePath());
+                futures.add(pool.submit(() -> {
+                    executeMergeInternal(batch, tempPdf.getAbsolutePath(), context, onSourceAppended);
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            LOGGER.log(Level.INFO, "Tree level {0} complete: {1} batches merged.", new Object[]{level, batches.size()});
+            return outputs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(futures);
+            stopWorkers(pool);
+            deleteTempFiles(outputs);
+            throw new IOException("Tree merge interrupted", e);
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            stopWorkers(pool);
+            deleteTempFiles(outputs);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof CancellationException cancelled) throw cancelled;
+            throw new IOException("Tree merge failed at level " + level, cause);
+        }
+    }
+
+    /**
+     * Cuts the inputs into batches that stay within both the RAM budget and the file handle limit.
+     */
+    private List<List<String>> partitionBySize(List<String> files, long limitBytes) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> currentChunk = new ArrayList<>();
+        long currentChunkSizeBytes = 0;
+
+        for (String path : files) {
+            long fileSize = new File(path).length();
+            boolean limitExceeded = (limitBytes != -1 && (currentChunkSizeBytes + fileSize) > limitBytes);
+            boolean handleLimitReached = (currentChunk.size() >= MAX_OPEN_FILES_BATCH);
+
+            if (!currentChunk.isEmpty() && (limitExceeded || handleLimitReached)) {
+                batches.add(currentChunk);
+                currentChunk = new ArrayList<>();
+                currentChunkSizeBytes = 0;
+            }
+            currentChunk.add(path);
+            currentChunkSizeBytes += fileSize;
+        }
+
+        if (!currentChunk.isEmpty()) {
+            batches.add(currentChunk);
+        }
+        return batches;
+    }
+
+    /**
+     * Cuts the inputs into evenly sized batches of at most maxPerBatch files.
+     */
+    private List<List<String>> partitionByCount(List<String> files, int maxPerBatch) {
+        int batchCount = (files.size() + maxPerBatch - 1) / maxPerBatch;
+        int batchSize = (files.size() + batchCount - 1) / batchCount;
+
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < files.size(); i += batchSize) {
+            batches.add(new ArrayList<>(files.subList(i, Math.min(i + batchSize, files.size()))));
+        }
+        return batches;
+    }
+
+    /**
+     * @return The total size of the files; a merged batch takes about as much.
+     */
+    private long sizeOf(List<String> files) {
+        return files.stream().mapToLong(path -> new File(path).length()).sum();
+    }
+
+    private void cancelAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Stops the tree merge workers and waits until none is still running. Before that, a worker
+     * inside a batch could save its output after the cleanup and leave the file behind, and on
+     * Windows a file still open in a worker cannot be deleted at all.
+     */
+    private void stopWorkers(ExecutorService pool) {
+        pool.shutdownNow();
+        // Wait even if this thread was interrupted; the interrupt is restored afterwards
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (!pool.awaitTermination(WORKER_STOP_WARN_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.log(Level.WARNING, "Waiting for tree merge workers to finish their current batch.");
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deleteTempFiles(List<String> tempFilePaths) {
+        for (String tempPath : tempFilePaths) {
+            File tempFile = new File(tempPath);
+            if (tempFile.exists() && !tempFile.delete()) {
+                LOGGER.log(Level.WARNING, "Failed to delete temporary file: {0}", tempPath);
+            }
+        }
+    }
+
+    /**
+     * Merges one batch with PDFMergerUtility. When the job asks for de-duplication or the fast
+     * path, the batch goes through the lazy-open engine instead, which runs those stages.
+     * * @param context Its memory limit covers the whole batch; workers of a tree level pass their share.
+     */
+    private void executeMergeInternal(List<String> filesToMerge, String outputPath, JobContext context, Runnable onSourceAppended) throws IOException {
+        MergeOptions options = context.getMergeOptions();
+        if (options.deduplicate() || options.fastPath()) {
+            newMerger(context).merge(filesToMerge, outputPath, context, onSourceAppended);
+        } else {
+            context.checkCancelled();
+            PDFMergerUtility merger = new PDFMergerUtility();
+            merger.setDestinationFileName(outputPath);
+            for (String path : filesToMerge) {
+                merger.addSource(new File(path));
+            }
+            // PDFMergerUtility partitions the setting between the destination and its sources
+            merger.mergeDocuments(context.getMemorySetting());
+            filesToMerge.forEach(merged -> onSourceAppended.run());
+        }
+        context.addBytesWritten(new File(outputPath).length());
+    }
+
+    /**
+     * Half of the job's memory limit goes to the destination, the other half is shared by the
+     * sources the merger holds open at once, so one merge never uses more than the limit.
+     */
+    private StreamingMerger newMerger(JobContext context) {
+        return new StreamingMerger(context.getMemorySetting(2), context.getMemorySetting(2 * StreamingMerger.MAX_OPEN_SOURCES),
+                context.getMergeOptions().deduplicate(), context.getMergeOptions().fastPath());
+    }
+}
\ No newline at end of file
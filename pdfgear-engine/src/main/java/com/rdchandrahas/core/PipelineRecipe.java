@@ -0,0 +1,139 @@
+package com.rdchandrahas.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * PipelineRecipe is the saved form of a pipeline: a plain text file with one step per line.
+ * Blank lines and lines starting with '#' are ignored, values containing spaces are quoted.
+ *
+ * <pre>
+ * # Prepare the board pack
+ * rotate angle=90 pages=1-2
+ * watermark text="DRAFT" opacity=0.2
+ * page-numbers style=page-of-total position="Bottom Right"
+ * metadata title="Board Pack" author=Finance
+ * protect password-env=BOARD_PDF_PASSWORD
+ * </pre>
+ */
+public class PipelineRecipe {
+
+    private final List<PipelineStep> steps;
+
+    public PipelineRecipe(List<PipelineStep> steps) {
+        this.steps = List.copyOf(steps);
+    }
+
+    public List<PipelineStep> getSteps() {
+        return steps;
+    }
+
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    /**
+     * Parses recipe text.
+     * * @throws IllegalArgumentException If a line is malformed; the message names the line.
+     */
+    public static PipelineRecipe parse(String text) {
+        List<PipelineStep> steps = new ArrayList<>();
+        String[] lines = text.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            try {
+                steps.add(parseLine(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return new PipelineRecipe(steps);
+    }
+
+    public static PipelineRecipe load(File file) throws IOException {
+        return parse(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    public void save(File file) throws IOException {
+        Files.writeString(file.toPath(), toText(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The recipe in the text form read by {@link #parse(String)}.
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        for (PipelineStep step : steps) {
+            sb.append(step.operation());
+            step.params().forEach((key, value) -> sb.append(' ').append(key).append('=').append(quote(value)));
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private static PipelineStep parseLine(String line) {
+        List<String> tokens = tokenize(line);
+        Map<String, String> params = new LinkedHashMap<>();
+        for (String token : tokens.subList(1, tokens.size())) {
+            int eq = token.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but found '" + token + "'.");
+            }
+            params.put(token.substring(0, eq).toLowerCase(Locale.ROOT), token.substring(eq + 1));
+        }
+        return new PipelineStep(tokens.get(0), params);
+    }
+
+    /**
+     * Splits on whitespace outside double quotes; a backslash escapes the next character
+     * inside quotes. The quotes themselves are dropped, so key="a b" becomes key=a b.
+     */
+    private static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        boolean hasToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '\\' && i + 1 < line.length()) {
+                    current.append(line.charAt(++i));
+                } else if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+                hasToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (hasToken) tokens.add(current.toString());
+                current.setLength(0);
+                hasToken = false;
+            } else {
+                current.append(c);
+                hasToken = true;
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unclosed quote.");
+        }
+        if (hasToken) tokens.add(current.toString());
+        return tokens;
+    }
+
+    private static String quote(String value) {
+        if (!value.isEmpty() && value.chars().noneMatch(c -> Character.isWhitespace(c) || c == '"' || c == '\\' || c == '#')) {
+            return value;
+        }
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
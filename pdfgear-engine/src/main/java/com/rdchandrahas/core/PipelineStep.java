@@ -0,0 +1,67 @@
+package com.rdchandrahas.core;
+
+import java.awt.Color;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PipelineStep is one line of a pipeline recipe: an operation name and its key=value
+ * parameters, kept as text so a recipe can be saved and loaded unchanged.
+ */
+public record PipelineStep(String operation, Map<String, String> params) {
+
+    public PipelineStep {
+        operation = operation.toLowerCase(Locale.ROOT);
+        params = Collections.unmodifiableMap(new LinkedHashMap<>(params));
+    }
+
+    String get(String key, String defaultValue) {
+        return params.getOrDefault(key, defaultValue);
+    }
+
+    String require(String key) {
+        String value = params.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter '" + key + "'.");
+        }
+        return value;
+    }
+
+    float getFloat(String key, float defaultValue) {
+        String value = params.get(key);
+        if (value == null) return defaultValue;
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter '" + key + "' must be a number, got '" + value + "'.");
+        }
+    }
+
+    boolean getBoolean(String key) {
+        String value = params.get(key);
+        return value != null && (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes"));
+    }
+
+    Color getColor(String key, String defaultValue) {
+        String value = get(key, defaultValue);
+        try {
+            return Color.decode(value.startsWith("#") ? value : "#" + value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter '" + key + "' must be a color like #RRGGBB, got '" + value + "'.");
+        }
+    }
+
+    /**
+     * Rejects parameters the operation does not know, so a typo is not silently ignored.
+     */
+    void checkKeys(Set<String> allowed) {
+        for (String key : params.keySet()) {
+            if (!allowed.contains(key)) {
+                throw new IllegalArgumentException("Unknown parameter '" + key + "', expected one of " + allowed + ".");
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.rdchandrahas.core;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a merge is aborted because pre-flight validation rejected one or more inputs.
+ * The full report is attached so callers can show or export the list of bad files.
+ */
+public class PreflightException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient PreflightReport report;
+
+    public PreflightException(PreflightReport report) {
+        super(report.getSummary());
+        this.report = report;
+    }
+
+    public PreflightReport getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,16 @@
+package com.rdchandrahas.core;
+
+/**
+ * PreflightPolicy decides what PdfService does with merge inputs that fail the
+ * pre-flight validation (missing, corrupt, truncated, password protected or empty files).
+ */
+public enum PreflightPolicy {
+    /** * No validation; problems surface only when the batch containing the file is merged. */
+    OFF,
+
+    /** * Validates all inputs up front, logs the bad ones and merges the rest. */
+    SKIP,
+
+    /** * Validates all inputs up front and refuses to start if any of them is bad. */
+    ABORT
+}
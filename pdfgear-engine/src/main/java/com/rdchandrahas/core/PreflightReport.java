@@ -0,0 +1,98 @@
+package com.rdchandrahas.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PreflightReport is the result of validating a list of merge inputs.
+ * It lists every input that would make the merge fail, in input order,
+ * together with the reason it was rejected.
+ */
+public class PreflightReport {
+
+    /** Number of problems spelled out in summaries before they are collapsed into a count. */
+    private static final int SUMMARY_LIMIT = 10;
+
+    /**
+     * The reasons an input can be rejected.
+     */
+    public enum Problem {
+        MISSING("File not found"),
+        BAD_HEADER("Missing %PDF- header"),
+        TRUNCATED("Missing %%EOF marker (truncated file)"),
+        ENCRYPTED("Password protected"),
+        NO_PAGES("Document has no pages"),
+        UNREADABLE("Document cannot be parsed");
+
+        private final String description;
+
+        Problem(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * A single rejected input.
+     */
+    public record Issue(String path, Problem problem, String detail) {
+        @Override
+        public String toString() {
+            String text = path + ": " + problem.getDescription();
+            return (detail == null || detail.isBlank()) ? text : text + " (" + detail + ")";
+        }
+    }
+
+    private final int checkedCount;
+    private final long totalPages;
+    private final List<Issue> issues;
+
+    PreflightReport(int checkedCount, long totalPages, List<Issue> issues) {
+        this.checkedCount = checkedCount;
+        this.totalPages = totalPages;
+        this.issues = Collections.unmodifiableList(new ArrayList<>(issues));
+    }
+
+    /** @return The number of inputs that were validated. */
+    public int getCheckedCount() {
+        return checkedCount;
+    }
+
+    /** @return The combined page count of all valid inputs. */
+    public long getTotalPages() {
+        return totalPages;
+    }
+
+    /** @return The rejected inputs, in input order. */
+    public List<Issue> getIssues() {
+        return issues;
+    }
+
+    public boolean hasIssues() {
+        return !issues.isEmpty();
+    }
+
+    /** @return The paths of the rejected inputs, in input order. */
+    public List<String> getBadFiles() {
+        return issues.stream().map(Issue::path).toList();
+    }
+
+    /**
+     * Builds a short, human readable description suitable for dialogs and logs.
+     */
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(issues.size()).append(" of ").append(checkedCount).append(" input files failed pre-flight validation.");
+        for (int i = 0; i < Math.min(SUMMARY_LIMIT, issues.size()); i++) {
+            sb.append("\n• ").append(issues.get(i));
+        }
+        if (issues.size() > SUMMARY_LIMIT) {
+            sb.append("\n• ... and ").append(issues.size() - SUMMARY_LIMIT).append(" more");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,269 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ResourceDeduplicator collapses identical embedded resources of a merged document into
+ * a single shared instance. Documents produced by the same generator usually carry their own
+ * copy of the same font programs, logos and ICC profiles; after merging, every copy would be
+ * written again. Font files, image XObjects (including their soft masks) and ICC streams are
+ * fingerprinted by their raw bytes and stream dictionary, and page resources are rewritten to
+ * point at the first instance seen. Unreferenced duplicates are then skipped on save.
+ */
+class ResourceDeduplicator {
+
+    private static final COSName[] FONT_FILE_KEYS = {COSName.FONT_FILE, COSName.FONT_FILE2, COSName.FONT_FILE3};
+    private static final COSName[] IMAGE_STREAM_KEYS = {COSName.SMASK, COSName.MASK};
+
+    /** Guards against malformed, self-referencing resource trees. */
+    private static final int MAX_DEPTH = 16;
+
+    /** Canonical instance per fingerprint. */
+    private final Map<String, COSStream> canonicalStreams = new HashMap<>();
+
+    /** Fingerprints already computed, keyed by stream identity. */
+    private final Map<COSStream, String> fingerprints = new IdentityHashMap<>();
+
+    /** Resource dictionaries already visited (form XObjects are often shared between pages). */
+    private final Set<COSDictionary> visitedResources = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private long duplicateCount = 0;
+    private long duplicateBytes = 0;
+
+    /**
+     * Rewrites the resources of all pages from the given index to the end of the document.
+     * Called after each source is appended so the canonical set grows with the merge.
+     * * @param document The merged destination document.
+     * @param fromPageIndex The index of the first page that has not been processed yet.
+     * @throws IOException If a stream cannot be read for fingerprinting.
+     */
+    void deduplicate(PDDocument document, int fromPageIndex) throws IOException {
+        // One pass over the page tree; getPage(i) walks it from the root on every call
+        int index = 0;
+        for (PDPage page : document.getPages()) {
+            if (index++ < fromPageIndex) continue;
+            COSBase resources = page.getCOSObject().getDictionaryObject(COSName.RESOURCES);
+            if (resources instanceof COSDictionary dict) {
+                processResources(dict, 0);
+            }
+        }
+    }
+
+    /** @return The number of duplicate streams that were replaced by a shared instance. */
+    long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /** @return The raw (encoded) size of all replaced duplicates in bytes. */
+    long getDuplicateBytes() {
+        return duplicateBytes;
+    }
+
+    // --- Resource Traversal ---
+
+    private void processResources(COSDictionary resources, int depth) throws IOException {
+        if (depth > MAX_DEPTH || !visitedResources.add(resources)) return;
+
+        processXObjects(resources.getCOSDictionary(COSName.XOBJECT), depth);
+        processFonts(resources.getCOSDictionary(COSName.FONT));
+        processColorSpaces(resources.getCOSDictionary(COSName.COLORSPACE));
+    }
+
+    private void processXObjects(COSDictionary xObjects, int depth) throws IOException {
+        if (xObjects == null) return;
+
+        for (COSName name : new ArrayList<>(xObjects.keySet())) {
+            if (!(xObjects.getDictionaryObject(name) instanceof COSStream stream)) continue;
+
+            if (COSName.IMAGE.equals(stream.getCOSName(COSName.SUBTYPE))) {
+                xObjects.setItem(name, canonicalImage(stream));
+            } else if (COSName.FORM.equals(stream.getCOSName(COSName.SUBTYPE))) {
+                COSDictionary formResources = stream.getCOSDictionary(COSName.RESOURCES);
+                if (formResources != null) {
+                    processResources(formResources, depth + 1);
+                }
+            }
+        }
+    }
+
+    private void processFonts(COSDictionary fonts) throws IOException {
+        if (fonts == null) return;
+
+        for (COSName name : fonts.keySet()) {
+            if (!(fonts.getDictionaryObject(name) instanceof COSDictionary font)) continue;
+
+            processFontDescriptor(font.getCOSDictionary(COSName.FONT_DESC));
+
+            // Type0 fonts keep their program in the descendant CIDFont
+            COSArray descendants = font.getCOSArray(COSName.DESCENDANT_FONTS);
+            if (descendants != null && descendants.size() > 0 && descendants.getObject(0) instanceof COSDictionary cidFont) {
+                processFontDescriptor(cidFont.getCOSDictionary(COSName.FONT_DESC));
+            }
+        }
+    }
+
+    private void processFontDescriptor(COSDictionary descriptor) throws IOException {
+        if (descriptor == null) return;
+
+        for (COSName key : FONT_FILE_KEYS) {
+            if (descriptor.getDictionaryObject(key) instanceof COSStream fontFile) {
+                descriptor.setItem(key, canonical(fontFile));
+            }
+        }
+    }
+
+    private void processColorSpaces(COSDictionary colorSpaces) throws IOException {
+        if (colorSpaces == null) return;
+
+        for (COSName name : colorSpaces.keySet()) {
+            if (colorSpaces.getDictionaryObject(name) instanceof COSArray array) {
+                processColorSpaceArray(array);
+            }
+        }
+    }
+
+    /**
+     * Replaces the profile stream of an [/ICCBased stream] color space array.
+     */
+    private void processColorSpaceArray(COSArray array) throws IOException {
+        if (array.size() == 2 && COSName.ICCBASED.equals(array.getObject(0))
+                && array.getObject(1) instanceof COSStream profile) {
+            array.set(1, canonical(profile));
+        }
+    }
+
+    // --- Canonicalization ---
+
+    /**
+     * Canonicalizes the streams an image depends on first, so that two images with
+     * identical pixels and identical (shared) masks produce the same fingerprint.
+     */
+    private COSStream canonicalImage(COSStream image) throws IOException {
+        String known = fingerprints.get(image);
+        if (known != null && canonicalStreams.containsKey(known)) {
+            return canonical(image);
+        }
+
+        for (COSName key : IMAGE_STREAM_KEYS) {
+            if (image.getDictionaryObject(key) instanceof COSStream mask) {
+                image.setItem(key, canonicalImage(mask));
+            }
+        }
+        if (image.getDictionaryObject(COSName.COLORSPACE) instanceof COSArray colorSpace) {
+            processColorSpaceArray(colorSpace);
+        }
+        return canonical(image);
+    }
+
+    private COSStream canonical(COSStream stream) throws IOException {
+        String fingerprint = fingerprints.get(stream);
+        if (fingerprint == null) {
+            fingerprint = fingerprint(stream);
+            fingerprints.put(stream, fingerprint);
+        }
+
+        COSStream existing = canonicalStreams.putIfAbsent(fingerprint, stream);
+        if (existing == null || existing == stream) {
+            return stream;
+        }
+
+        duplicateCount++;
+        duplicateBytes += stream.getLength();
+        // Nothing points at the duplicate any more; keeping it as a key would pin it until the merge ends
+        fingerprints.remove(stream);
+        return existing;
+    }
+
+    /**
+     * SHA-256 over the raw (still encoded) stream bytes and the stream dictionary.
+     * Nested streams are represented by their own fingerprint, so references to shared
+     * canonical instances compare equal across documents.
+     */
+    private String fingerprint(COSStream stream) throws IOException {
+        MessageDigest digest = newDigest();
+
+        byte[] buffer = new byte[8192];
+        try (InputStream in = stream.createRawInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        StringBuilder dictionary = new StringBuilder();
+        describe(stream, dictionary, 0);
+        digest.update(dictionary.toString().getBytes(StandardCharsets.UTF_8));
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void describe(COSBase base, StringBuilder out, int depth) throws IOException {
+        if (base instanceof COSObject ref) {
+            base = ref.getObject();
+        }
+
+        if (depth > 0 && base instanceof COSStream nested) {
+            String nestedFingerprint = fingerprints.get(nested);
+            if (nestedFingerprint == null) {
+                nestedFingerprint = fingerprint(nested);
+                fingerprints.put(nested, nestedFingerprint);
+            }
+            out.append("stream:").append(nestedFingerprint);
+        } else if (depth > MAX_DEPTH) {
+            out.append("...");
+        } else if (base instanceof COSDictionary dict) {
+            // Sorted so that generators writing keys in a different order still match
+            List<Map.Entry<COSName, COSBase>> entries = new ArrayList<>(dict.entrySet());
+            entries.sort(Comparator.comparing(entry -> entry.getKey().getName()));
+
+            out.append("<<");
+            for (Map.Entry<COSName, COSBase> entry : entries) {
+                // Length is covered by the raw bytes and may be an indirect number
+                if (COSName.LENGTH.equals(entry.getKey())) continue;
+                out.append(entry.getKey().getName()).append('=');
+                describe(entry.getValue(), out, depth + 1);
+                out.append(';');
+            }
+            out.append(">>");
+        } else if (base instanceof COSArray array) {
+            out.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                describe(array.get(i), out, depth + 1);
+                out.append(',');
+            }
+            out.append(']');
+        } else {
+            out.append(base);
+        }
+    }
+
+    private static MessageDigest newDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSDocument;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ScratchStorage creates the scratch buffers documents keep their stream data in. By default
+ * that is PDFBox's own ScratchFile with the heap budget from PdfService; with an off-heap limit
+ * set, documents use OffHeapScratchFile instead, which keeps stream data in direct memory up to
+ * the limit (shared by all documents) and in a memory-mapped temp file beyond it.
+ *
+ * Every document the services create or load gets its scratch storage from here, either
+ * through newDocument() or through PdfLoader and SpooledPdf.
+ */
+public class ScratchStorage {
+
+    private static final Logger LOGGER = Logger.getLogger(ScratchStorage.class.getName());
+
+    /** Off-heap tier cap in bytes; 0 keeps scratch data on the heap. */
+    private static volatile long offHeapLimitBytes = 0;
+
+    private ScratchStorage() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Sets the direct memory all documents may use together for stream data.
+     * * @param bytes The cap, or 0 to keep scratch data on the heap as PDFBox does.
+     */
+    public static void setOffHeapLimit(long bytes) {
+        offHeapLimitBytes = Math.max(0, bytes);
+        OffHeapScratchFile.trimPool(offHeapLimitBytes);
+        LOGGER.log(Level.INFO, "Off-heap scratch limit updated to: {0} bytes", offHeapLimitBytes);
+    }
+
+    public static long getOffHeapLimit() {
+        return offHeapLimitBytes;
+    }
+
+    public static boolean isOffHeapEnabled() {
+        return offHeapLimitBytes > 0;
+    }
+
+    /**
+     * @return The direct memory currently held for scratch data, including regions pooled for reuse.
+     */
+    public static long getOffHeapBytesReserved() {
+        return OffHeapScratchFile.getDirectBytesReserved();
+    }
+
+    /**
+     * Creates scratch storage with the global memory setting.
+     */
+    public static ScratchFile create() throws IOException {
+        return create(PdfService.getGlobalMemorySetting());
+    }
+
+    /**
+     * Creates scratch storage for one document.
+     * * @param heapSetting The heap budget used when the off-heap tier is off. With the tier on,
+     * all documents share its cap instead, and only its temp folder is used, for the spill file.
+     */
+    public static ScratchFile create(MemoryUsageSetting heapSetting) throws IOException {
+        long limit = offHeapLimitBytes;
+        if (limit <= 0) return new ScratchFile(heapSetting);
+        File tempDir = heapSetting.getTempDir();
+        return new OffHeapScratchFile(limit, tempDir != null ? tempDir.toPath() : null);
+    }
+
+    /**
+     * Creates an empty document with the global memory setting.
+     */
+    public static PDDocument newDocument() {
+        return newDocument(PdfService.getGlobalMemorySetting());
+    }
+
+    /**
+     * Creates an empty document, the same as new PDDocument(heapSetting) but with its scratch
+     * storage from create().
+     */
+    public static PDDocument newDocument(MemoryUsageSetting heapSetting) {
+        if (!isOffHeapEnabled()) {
+            return new PDDocument(heapSetting);
+        }
+
+        ScratchFile scratchFile;
+        try {
+            scratchFile = create(heapSetting);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not create off-heap scratch storage, using the heap", e);
+            return new PDDocument(heapSetting);
+        }
+
+        // Mirrors PDDocument(MemoryUsageSetting), which has no way to take a ScratchFile
+        COSDocument document = new COSDocument(scratchFile);
+        COSDictionary trailer = new COSDictionary();
+        document.setTrailer(trailer);
+
+        COSDictionary root = new COSDictionary();
+        trailer.setItem(COSName.ROOT, root);
+        root.setItem(COSName.TYPE, COSName.CATALOG);
+        root.setItem(COSName.VERSION, COSName.getPDFName("1.4"));
+
+        COSDictionary pages = new COSDictionary();
+        root.setItem(COSName.PAGES, pages);
+        pages.setItem(COSName.TYPE, COSName.PAGES);
+        pages.setItem(COSName.KIDS, new COSArray());
+        pages.setItem(COSName.COUNT, COSInteger.ZERO);
+
+        return new PDDocument(document);
+    }
+}
@@ -0,0 +1,82 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
+import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * SecurityService adds and removes password protection.
+ */
+public class SecurityService {
+
+    private static final int KEY_LENGTH = 128;
+
+    public void protect(File source, File destination, String password) throws IOException {
+        protect(source, destination, password, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * @param job Sets the memory limit of the document.
+     */
+    public void protect(File source, File destination, String password, JobContext job) throws IOException {
+        try (PDDocument document = PdfLoader.load(source, job.getMemorySetting())) {
+            protect(document, password);
+            document.save(destination);
+        }
+    }
+
+    public void protect(SpooledPdf source, OutputStream destination, String password) throws IOException {
+        try (PDDocument document = source.load(null)) {
+            protect(document, password);
+            document.save(destination);
+        }
+    }
+
+    /**
+     * Encrypts an open document when it is saved. The password is used as both
+     * the owner and the user password.
+     */
+    public void protect(PDDocument document, String password) throws IOException {
+        StandardProtectionPolicy spp = new StandardProtectionPolicy(password, password, new AccessPermission());
+        spp.setEncryptionKeyLength(KEY_LENGTH);
+        document.protect(spp);
+    }
+
+    /**
+     * Writes a decrypted copy of a protected document.
+     * * @throws org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException If the password is wrong.
+     */
+    public void unlock(File source, File destination, String password) throws IOException {
+        unlock(source, destination, password, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * Writes a decrypted copy of a protected document with the memory limit of a job.
+     * * @throws org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException If the password is wrong.
+     */
+    public void unlock(File source, File destination, String password, JobContext job) throws IOException {
+        try (PDDocument document = PdfLoader.load(source, password, job.getMemorySetting())) {
+            document.setAllSecurityToBeRemoved(true);
+            document.save(destination);
+        }
+    }
+
+    /**
+     * Writes a decrypted copy of a spooled document to a stream.
+     * * @throws org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException If the password is wrong.
+     */
+    public void unlock(SpooledPdf source, OutputStream destination, String password) throws IOException {
+        unlock(source, destination, password, JobContext.capture(TaskContext.NONE));
+    }
+
+    public void unlock(SpooledPdf source, OutputStream destination, String password, JobContext job) throws IOException {
+        try (PDDocument document = source.load(password, job.getMemorySetting())) {
+            document.setAllSecurityToBeRemoved(true);
+            document.save(destination);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessInputStream;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * SpooledPdf is the input of the stream and in-memory service overloads: a PDF from a stream
+ * (standard input, an upload), a byte array or ByteBuffer an embedding application already
+ * holds, or a file. Parsing needs random access, so a stream goes through scratch storage
+ * from ScratchStorage.create(): it stays in RAM (on or off the heap) up to the memory budget
+ * and only the excess is paged out to the TempFileManager folder. Arrays and buffers are parsed
+ * where they are, without a copy. Nothing is written next to the user's files, and a small
+ * document never touches the disk at all.
+ *
+ * The source can be loaded several times, one document at a time, which the iterative
+ * compressor needs for its attempts.
+ */
+public class SpooledPdf implements Closeable {
+
+    private final RandomAccessRead source;
+    private final ScratchFile scratchFile;
+
+    private SpooledPdf(RandomAccessRead source, ScratchFile scratchFile) {
+        this.source = source;
+        this.scratchFile = scratchFile;
+    }
+
+    /**
+     * Reads the stream to its end. The stream itself is not closed.
+     */
+    public static SpooledPdf read(InputStream in) throws IOException {
+        ScratchFile scratchFile = ScratchStorage.create();
+        try {
+            return new SpooledPdf(scratchFile.createBuffer(in), scratchFile);
+        } catch (IOException e) {
+            scratchFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wraps a document held in memory. The array is not copied and must not change while in use.
+     */
+    public static SpooledPdf of(byte[] bytes) {
+        return new SpooledPdf(new ByteBufferRandomAccess(ByteBuffer.wrap(bytes)), null);
+    }
+
+    /**
+     * Wraps the bytes between the buffer's position and limit, e.g. a direct buffer filled by a
+     * network framework. The buffer is not copied and its position is left unchanged.
+     */
+    public static SpooledPdf of(ByteBuffer buffer) {
+        return new SpooledPdf(new ByteBufferRandomAccess(buffer), null);
+    }
+
+    /**
+     * Maps a file that is already on disk, without copying it.
+     */
+    public static SpooledPdf of(File file) throws IOException {
+        return new SpooledPdf(PdfLoader.open(file), null);
+    }
+
+    public long length() throws IOException {
+        return source.length();
+    }
+
+    /**
+     * Parses the spooled bytes. The document reads from this spool lazily, so it must be
+     * closed before the next load and before this spool.
+     * * @param password The password of an encrypted document, or null.
+     */
+    public PDDocument load(String password) throws IOException {
+        return load(password, PdfService.getGlobalMemorySetting());
+    }
+
+    /**
+     * Parses the spooled bytes with the memory budget of a job; see load(String).
+     */
+    public PDDocument load(String password, MemoryUsageSetting memorySetting) throws IOException {
+        source.seek(0);
+        ScratchFile documentScratch = ScratchStorage.create(memorySetting);
+        try {
+            PDFParser parser = new PDFParser(new RetainedSource(source), password == null ? "" : password, documentScratch);
+            parser.parse();
+            return parser.getPDDocument();
+        } catch (IOException e) {
+            documentScratch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Copies the spooled bytes unchanged, e.g. when there is nothing to do.
+     */
+    public void copyTo(OutputStream out) throws IOException {
+        source.seek(0);
+        new RandomAccessInputStream(source).transferTo(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            source.close();
+        } finally {
+            if (scratchFile != null) scratchFile.close();
+        }
+    }
+
+    /**
+     * A PDDocument closes its source when it is closed; this view keeps the spool open for the next load.
+     */
+    private static final class RetainedSource implements RandomAccessRead {
+
+        private final RandomAccessRead delegate;
+
+        RetainedSource(RandomAccessRead delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override public int read() throws IOException { return delegate.read(); }
+        @Override public int read(byte[] b) throws IOException { return delegate.read(b); }
+        @Override public int read(byte[] b, int offset, int length) throws IOException { return delegate.read(b, offset, length); }
+        @Override public long getPosition() throws IOException { return delegate.getPosition(); }
+        @Override public void seek(long position) throws IOException { delegate.seek(position); }
+        @Override public long length() throws IOException { return delegate.length(); }
+        @Override public boolean isClosed() { return delegate.isClosed(); }
+        @Override public int peek() throws IOException { return delegate.peek(); }
+        @Override public void rewind(int bytes) throws IOException { delegate.rewind(bytes); }
+        @Override public byte[] readFully(int length) throws IOException { return delegate.readFully(length); }
+        @Override public boolean isEOF() throws IOException { return delegate.isEOF(); }
+        @Override public int available() throws IOException { return delegate.available(); }
+
+        @Override
+        public void close() {
+            // The spool is closed by SpooledPdf.close()
+        }
+    }
+}
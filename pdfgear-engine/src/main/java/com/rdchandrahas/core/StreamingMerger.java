@@ -0,0 +1,236 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFCloneUtility;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentCatalog;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * StreamingMerger combines any number of PDF files in a single pass.
+ * Unlike PDFMergerUtility's default mode, which keeps every source open until the
+ * destination is saved, each source is opened only while its pages are being copied
+ * and closed right after. Copied content lives in the destination's scratch buffer,
+ * which spills to the managed temp folder once the memory limit is reached.
+ */
+class StreamingMerger {
+
+    private static final Logger LOGGER = Logger.getLogger(StreamingMerger.class.getName());
+
+    /** Number of sources parsed ahead on a background thread while the current one is being copied. */
+    private static final int PREFETCH_SOURCES = 2;
+
+    /** Upper bound of simultaneously open source documents. */
+    static final int MAX_OPEN_SOURCES = PREFETCH_SOURCES + 1;
+
+    /** Progress is logged once per this many sources so large jobs don't spam the console. */
+    private static final int LOG_INTERVAL = 500;
+
+    /**
+     * Catalog entries that need PDFMergerUtility's document-level reconciliation
+     * (field renaming, structure tree, outlines, named destinations, ...).
+     * A source carrying none of them can skip straight to copying its page tree.
+     */
+    private static final COSName[] RECONCILED_CATALOG_KEYS = {
+            COSName.ACRO_FORM, COSName.STRUCT_TREE_ROOT, COSName.OUTLINES, COSName.NAMES,
+            COSName.DESTS, COSName.PAGE_LABELS, COSName.THREADS, COSName.OCPROPERTIES
+    };
+
+    private final MemoryUsageSetting destinationSetting;
+    private final MemoryUsageSetting sourceSetting;
+    private final boolean deduplicateResources;
+    private final boolean fastPath;
+
+    /**
+     * @param destinationSetting The memory budget of the merged document.
+     * @param sourceSetting The memory budget of each open source (at most MAX_OPEN_SOURCES at once).
+     * @param deduplicateResources true to share identical fonts, images and ICC profiles across sources.
+     * @param fastPath true to append sources without forms, tags or outlines by copying only their pages.
+     */
+    StreamingMerger(MemoryUsageSetting destinationSetting, MemoryUsageSetting sourceSetting,
+                    boolean deduplicateResources, boolean fastPath) {
+        this.destinationSetting = destinationSetting;
+        this.sourceSetting = sourceSetting;
+        this.deduplicateResources = deduplicateResources;
+        this.fastPath = fastPath;
+    }
+
+    /**
+     * Appends every source to a single destination document and saves it once.
+     * At most MAX_OPEN_SOURCES source files are open at any time.
+     * * @param sourcePaths The absolute paths of the PDFs to merge, in page order.
+     * @param outputPath The absolute path of the merged PDF.
+     * @param context Checked for cancellation before every source.
+     * @param onSourceAppended Called after each source has been copied.
+     * @throws IOException If a source cannot be read or the destination cannot be written.
+     */
+    void merge(List<String> sourcePaths, String outputPath, TaskContext context, Runnable onSourceAppended) throws IOException {
+        PDFMergerUtility merger = new PDFMergerUtility();
+        ResourceDeduplicator deduplicator = deduplicateResources ? new ResourceDeduplicator() : null;
+        int fastPathCount = 0;
+        ExecutorService loader = Executors.newSingleThreadExecutor();
+        Deque<Future<PDDocument>> pending = new ArrayDeque<>();
+        int nextToLoad = 0;
+
+        try (PDDocument destination = ScratchStorage.newDocument(destinationSetting)) {
+            for (int i = 0; i < sourcePaths.size(); i++) {
+                context.checkCancelled();
+
+                // Keep the prefetch window full
+                while (nextToLoad < sourcePaths.size() && pending.size() <= PREFETCH_SOURCES) {
+                    String path = sourcePaths.get(nextToLoad++);
+                    pending.add(loader.submit(() -> PdfLoader.load(new File(path), sourceSetting)));
+                }
+
+                int firstNewPage = destination.getNumberOfPages();
+                try (PDDocument source = awaitSource(pending.poll(), sourcePaths.get(i))) {
+                    if (fastPath && !needsReconciliation(source)) {
+                        appendPages(destination, source);
+                        fastPathCount++;
+                    } else {
+                        merger.appendDocument(destination, source);
+                    }
+                }
+
+                // De-duplicate right away so the canonical instances are known before the next source
+                if (deduplicator != null) {
+                    deduplicator.deduplicate(destination, firstNewPage);
+                }
+                onSourceAppended.run();
+
+                if ((i + 1) % LOG_INTERVAL == 0) {
+                    LOGGER.log(Level.INFO, "Streamed {0} of {1} sources...", new Object[]{i + 1, sourcePaths.size()});
+                }
+            }
+
+            if (fastPath) {
+                LOGGER.log(Level.INFO, "{0} of {1} sources appended via the page-only fast path.",
+                        new Object[]{fastPathCount, sourcePaths.size()});
+            }
+            if (deduplicator != null && deduplicator.getDuplicateCount() > 0) {
+                LOGGER.log(Level.INFO, "Shared {0} duplicate resources, saving {1} bytes of output.",
+                        new Object[]{deduplicator.getDuplicateCount(), deduplicator.getDuplicateBytes()});
+            }
+
+            context.checkCancelled();
+            destination.save(outputPath);
+        } finally {
+            // Let in-flight loads finish so that their documents can be closed instead of leaked
+            loader.shutdown();
+            closePending(pending);
+        }
+    }
+
+    // --- Fast Path ---
+
+    /**
+     * Pre-scans the source catalog for anything the full merge has to reconcile.
+     */
+    private boolean needsReconciliation(PDDocument source) {
+        COSDictionary catalog = source.getDocumentCatalog().getCOSObject();
+        for (COSName key : RECONCILED_CATALOG_KEYS) {
+            if (catalog.getDictionaryObject(key) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies only the page tree, mirroring PDFMergerUtility's optimized mode plus the
+     * version and document information handling of appendDocument.
+     */
+    private void appendPages(PDDocument destination, PDDocument source) throws IOException {
+        if (source.getVersion() > destination.getVersion()) {
+            destination.setVersion(source.getVersion());
+        }
+
+        // Keep existing entries, only fill in keys the destination does not have yet
+        PDFCloneUtility cloner = new PDFCloneUtility(destination);
+        COSDictionary destinationInfo = destination.getDocumentInformation().getCOSObject();
+        for (Map.Entry<COSName, COSBase> entry : source.getDocumentInformation().getCOSObject().entrySet()) {
+            if (!destinationInfo.containsKey(entry.getKey())) {
+                destinationInfo.setItem(entry.getKey(), cloner.cloneForNewDocument(entry.getValue()));
+            }
+        }
+
+        PDDocumentCatalog destinationCatalog = destination.getDocumentCatalog();
+        for (PDPage page : source.getPages()) {
+            // Inherited attributes have to be resolved while the page still has its parent
+            PDRectangle cropBox = page.getCropBox();
+            PDRectangle mediaBox = page.getMediaBox();
+            int rotation = page.getRotation();
+            PDResources resources = page.getResources();
+
+            // The page dictionary itself is cloned, not a copy of it, so that annotations whose
+            // /P points back at the page find it in the cloner's cache instead of cloning it a
+            // second time. Its parent link is detached meanwhile so the clone does not drag the
+            // whole source page tree along; the source is only read and closed afterwards.
+            COSDictionary pageDictionary = page.getCOSObject();
+            COSBase parent = pageDictionary.getItem(COSName.PARENT);
+            pageDictionary.removeItem(COSName.PARENT);
+            PDPage newPage;
+            try {
+                newPage = new PDPage((COSDictionary) cloner.cloneForNewDocument(pageDictionary));
+            } finally {
+                pageDictionary.setItem(COSName.PARENT, parent);
+            }
+
+            // The new parent has no attributes to inherit
+            newPage.setCropBox(cropBox);
+            newPage.setMediaBox(mediaBox);
+            newPage.setRotation(rotation);
+            newPage.setResources(resources != null
+                    ? new PDResources((COSDictionary) cloner.cloneForNewDocument(resources))
+                    : new PDResources());
+            destinationCatalog.getPages().add(newPage);
+        }
+    }
+
+    private PDDocument awaitSource(Future<PDDocument> future, String path) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Merge interrupted while loading: " + path, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to load merge source: " + path, e.getCause());
+        }
+    }
+
+    /**
+     * Closes documents that were prefetched but never consumed (e.g. after a failure).
+     */
+    private void closePending(Deque<Future<PDDocument>> pending) {
+        for (Future<PDDocument> future : pending) {
+            try {
+                PDDocument doc = future.get();
+                doc.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Discarding unused prefetched source", e);
+            }
+        }
+    }
+}
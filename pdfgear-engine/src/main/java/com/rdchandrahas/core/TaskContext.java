@@ -0,0 +1,50 @@
+package com.rdchandrahas.core;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * TaskContext is the worker-side view of a task submitted through ExecutionManager.
+ * Long running loops use it to check for cancellation cooperatively and to publish
+ * progress, so that an abandoned job stops consuming CPU and disk as soon as possible.
+ */
+public interface TaskContext {
+
+    /**
+     * A context for callers that run outside of a managed task.
+     * It is never cancelled and discards all progress updates.
+     */
+    TaskContext NONE = new TaskContext() {
+        @Override public boolean isCancelled() { return false; }
+        @Override public void reportProgress(long done, long total) { /* No listener */ }
+        @Override public void addBytesWritten(long bytes) { /* No listener */ }
+    };
+
+    /**
+     * @return true once the task has been cancelled by its owner.
+     */
+    boolean isCancelled();
+
+    /**
+     * Aborts the current task if it has been cancelled.
+     * Call this at the top of every iteration of a long loop.
+     * * @throws CancellationException If the task has been cancelled.
+     */
+    default void checkCancelled() {
+        if (isCancelled() || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Task cancelled");
+        }
+    }
+
+    /**
+     * Publishes the number of completed work units (pages, files, batches).
+     * * @param done The units completed so far.
+     * @param total The total number of units, or -1 if unknown.
+     */
+    void reportProgress(long done, long total);
+
+    /**
+     * Adds to the number of bytes the task has written to disk.
+     * * @param bytes The size of the output that was just written.
+     */
+    void addBytesWritten(long bytes);
+}
@@ -0,0 +1,200 @@
+package com.rdchandrahas.core;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * TaskHandle is returned by ExecutionManager.submit(CancellableTask) and gives the
+ * submitter control over a running task: it can be cancelled, its progress can be
+ * read or observed, and callbacks can be attached that run once it completes.
+ * The same object is handed to the task itself as its TaskContext.
+ * * @param <T> The type of the result.
+ */
+public class TaskHandle<T> implements TaskContext {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskHandle.class.getName());
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final AtomicLong unitsDone = new AtomicLong();
+    private final AtomicLong unitsTotal = new AtomicLong(-1);
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final List<Consumer<TaskHandle<T>>> progressListeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean cancelled = false;
+    /** Set by whichever comes first: the worker starting the task, or cancel() before it started. */
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile Future<?> execution;
+
+    TaskHandle() {
+        // Created by ExecutionManager only
+    }
+
+    // --- Owner Side ---
+
+    /**
+     * Requests cancellation. The task stops at its next cancellation check;
+     * blocking I/O is interrupted if the task is already running.
+     * A task that has not started yet completes as cancelled right away. A running task
+     * only completes once it has actually returned or thrown, so completion callbacks
+     * never run while the task still holds its files and slots.
+     */
+    public void cancel() {
+        if (result.isDone()) return;
+        cancelled = true;
+        Future<?> running = execution;
+        if (running != null) {
+            running.cancel(true);
+        }
+        if (claimed.compareAndSet(false, true)) {
+            result.completeExceptionally(new CancellationException("Task cancelled"));
+        }
+    }
+
+    /**
+     * @return true once cancel() was called, even if the task is still winding down.
+     */
+    public boolean isCancelRequested() {
+        return cancelled;
+    }
+
+    /**
+     * @return true once the task has stopped: it returned, threw, or was cancelled before it started.
+     */
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    /** @return The units completed so far, as last reported by the task. */
+    public long getUnitsDone() {
+        return unitsDone.get();
+    }
+
+    /** @return The total units of work, or -1 if the task has not reported it yet. */
+    public long getUnitsTotal() {
+        return unitsTotal.get();
+    }
+
+    /** @return The completed fraction between 0 and 1, or -1 if the total is unknown. */
+    public double getProgress() {
+        long total = unitsTotal.get();
+        return total <= 0 ? -1 : Math.min(1.0, (double) unitsDone.get() / total);
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Blocks until the task completes.
+     * * @return The result of the task.
+     * @throws CancellationException If the task was cancelled.
+     */
+    public T get() throws InterruptedException, ExecutionException {
+        return result.get();
+    }
+
+    /**
+     * Registers a listener that is called on the worker thread after every progress update.
+     * UI code has to hop to the FX thread itself.
+     */
+    public TaskHandle<T> onProgress(Consumer<TaskHandle<T>> listener) {
+        progressListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Registers a callback that runs once the task succeeds, fails or is cancelled.
+     * The throwable is null on success and a CancellationException after cancellation.
+     */
+    public TaskHandle<T> onComplete(BiConsumer<? super T, ? super Throwable> callback) {
+        result.whenComplete((value, error) -> callback.accept(value, unwrap(error)));
+        return this;
+    }
+
+    // --- Worker Side ---
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void reportProgress(long done, long total) {
+        unitsDone.set(done);
+        unitsTotal.set(total);
+        for (Consumer<TaskHandle<T>> listener : progressListeners) {
+            try {
+                listener.accept(this);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Progress listener failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void addBytesWritten(long bytes) {
+        bytesWritten.addAndGet(bytes);
+    }
+
+    // --- ExecutionManager Hooks ---
+
+    void setExecution(Future<?> execution) {
+        this.execution = execution;
+        // cancel() may have raced with the submission
+        if (cancelled) {
+            execution.cancel(true);
+        }
+    }
+
+    /**
+     * Runs the task on the current thread and completes the handle with its outcome.
+     */
+    void run(CancellableTask<T> task) {
+        // cancel() got here first and has completed the handle already
+        if (!claimed.compareAndSet(false, true)) return;
+        if (cancelled) {
+            result.completeExceptionally(new CancellationException("Task cancelled"));
+            return;
+        }
+        try {
+            T value = task.run(this);
+            // A task that ignored the request still reports as cancelled, as cancel() promised
+            if (cancelled) result.completeExceptionally(new CancellationException("Task cancelled"));
+            else result.complete(value);
+        } catch (CancellationException e) {
+            result.completeExceptionally(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(new CancellationException("Task interrupted"));
+        } catch (Exception e) {
+            if (cancelled) {
+                // Interrupted I/O surfaces as arbitrary exceptions after cancel()
+                result.completeExceptionally(new CancellationException("Task cancelled"));
+            } else {
+                LOGGER.log(Level.SEVERE, "Background task failed", e);
+                result.completeExceptionally(e);
+            }
+        } catch (Error e) {
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,17 @@
+package com.rdchandrahas.core;
+
+/**
+ * TaskKind tells ExecutionManager which execution lane a task belongs to,
+ * so that blocking file I/O never occupies a thread sized for CPU work.
+ */
+public enum TaskKind {
+    /** * Compute-bound work such as rendering, image encoding or content stream parsing.
+     * Runs on a pool sized to the CPU cores.
+     */
+    CPU,
+
+    /** * Work that mostly waits on the disk, such as metadata reads, file stats, directory
+     * scans and temp copies. Runs on virtual threads, which are cheap to block.
+     */
+    IO
+}
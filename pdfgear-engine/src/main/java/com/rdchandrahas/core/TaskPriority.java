@@ -0,0 +1,18 @@
+package com.rdchandrahas.core;
+
+/**
+ * TaskPriority orders queued work within an ExecutionManager lane.
+ * Workers always pick the highest priority task that is waiting, and each lane keeps
+ * a worker reserved for INTERACTIVE work so a preview starts even when every other
+ * worker is busy with a long batch job.
+ */
+public enum TaskPriority {
+    /** * Work the user is actively waiting for, such as a rotate or watermark preview. */
+    INTERACTIVE,
+
+    /** * Work for content currently on screen, such as thumbnails of visible cells. */
+    VISIBLE_UI,
+
+    /** * Background jobs like merges, splits and compression. */
+    BATCH
+}
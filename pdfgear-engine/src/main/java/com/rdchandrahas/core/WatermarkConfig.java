@@ -0,0 +1,20 @@
+package com.rdchandrahas.core;
+
+import java.awt.Color;
+import java.io.File;
+
+/**
+ * WatermarkConfig describes a text watermark stamped across the center of every page.
+ * * @param text The watermark text.
+ * @param fontSize The font size in points.
+ * @param color The text color.
+ * @param rotation The counter-clockwise angle in degrees.
+ * @param opacity The fill opacity between 0 and 1.
+ * @param fontFamily One of the WatermarkService.FONT_* standard families.
+ * @param bold Whether to use the bold variant of the standard family.
+ * @param italic Whether to use the italic/oblique variant of the standard family.
+ * @param customFont A TrueType font file used instead of the standard family, or null.
+ */
+public record WatermarkConfig(String text, float fontSize, Color color, float rotation, float opacity,
+                              String fontFamily, boolean bold, boolean italic, File customFont) {
+}
@@ -0,0 +1,114 @@
+package com.rdchandrahas.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
+import org.apache.pdfbox.util.Matrix;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * WatermarkService stamps a rotated, semi-transparent text watermark onto pages.
+ */
+public class WatermarkService {
+
+    public static final String FONT_HELVETICA = "Helvetica";
+    public static final String FONT_TIMES = "Times Roman";
+    public static final String FONT_COURIER = "Courier";
+
+    /** Lower-case names of the standard fonts, as typed on the command line and in recipes. */
+    public static final Map<String, String> FONT_KEYS = Map.of(
+            "helvetica", FONT_HELVETICA,
+            "times", FONT_TIMES,
+            "courier", FONT_COURIER);
+
+    public void watermark(File source, File destination, WatermarkConfig config) throws IOException {
+        watermark(source, destination, config, JobContext.capture(TaskContext.NONE));
+    }
+
+    /**
+     * @param job Sets the memory limit of the document.
+     */
+    public void watermark(File source, File destination, WatermarkConfig config, JobContext job) throws IOException {
+        try (PDDocument document = PdfLoader.load(source, job.getMemorySetting())) {
+            apply(document, config);
+            document.save(destination);
+        }
+    }
+
+    public void watermark(SpooledPdf source, OutputStream destination, WatermarkConfig config) throws IOException {
+        try (PDDocument document = source.load(null)) {
+            apply(document, config);
+            document.save(destination);
+        }
+    }
+
+    /**
+     * Watermarks every page of an open document.
+     */
+    public void apply(PDDocument document, WatermarkConfig config) throws IOException {
+        PDFont font = loadFont(document, config);
+        for (PDPage page : document.getPages()) {
+            applyToPage(document, page, config, font);
+        }
+    }
+
+    public void applyToPage(PDDocument doc, PDPage page, WatermarkConfig config, PDFont font) throws IOException {
+        try (PDPageContentStream cs = new PDPageContentStream(doc, page, PDPageContentStream.AppendMode.APPEND, true, true)) {
+            PDExtendedGraphicsState gs = new PDExtendedGraphicsState();
+            gs.setNonStrokingAlphaConstant(config.opacity());
+            cs.setGraphicsStateParameters(gs);
+            cs.setNonStrokingColor(config.color());
+            cs.beginText();
+            cs.setFont(font, config.fontSize());
+
+            PDRectangle box = page.getMediaBox();
+            float txW = font.getStringWidth(config.text()) / 1000 * config.fontSize();
+
+            Matrix m = Matrix.getRotateInstance(Math.toRadians(config.rotation()), box.getWidth()/2, box.getHeight()/2);
+            m.translate(-txW/2, 0);
+
+            cs.setTextMatrix(m);
+            cs.showText(config.text());
+            cs.endText();
+        }
+    }
+
+    /**
+     * Resolves the configured font. A custom TrueType file is embedded into the document;
+     * the standard families need no embedding.
+     */
+    public PDFont loadFont(PDDocument doc, WatermarkConfig config) throws IOException {
+        if (config.customFont() != null) return PDType0Font.load(doc, config.customFont());
+
+        boolean b = config.bold();
+        boolean i = config.italic();
+
+        if (FONT_COURIER.equals(config.fontFamily())) {
+            if (b && i) return PDType1Font.COURIER_BOLD_OBLIQUE;
+            if (b) return PDType1Font.COURIER_BOLD;
+            if (i) return PDType1Font.COURIER_OBLIQUE;
+            return PDType1Font.COURIER;
+        }
+        else if (FONT_TIMES.equals(config.fontFamily())) {
+            if (b && i) return PDType1Font.TIMES_BOLD_ITALIC;
+            if (b) return PDType1Font.TIMES_BOLD;
+            if (i) return PDType1Font.TIMES_ITALIC;
+            return PDType1Font.TIMES_ROMAN;
+        }
+        else { // FONT_HELVETICA or fallback
+            if (b && i) return PDType1Font.HELVETICA_BOLD_OBLIQUE;
+            if (b) return PDType1Font.HELVETICA_BOLD;
+            if (i) return PDType1Font.HELVETICA_OBLIQUE;
+            return PDType1Font.HELVETICA;
+        }
+    }
+}
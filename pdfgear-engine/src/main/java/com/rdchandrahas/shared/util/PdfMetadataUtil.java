@@ -1,5 +1,7 @@
 package com.rdchandrahas.shared.util;
 
+import com.rdchandrahas.core.PdfLoader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import java.io.File;
 
@@ -25,7 +27,7 @@ public class PdfMetadataUtil {
          * is closed immediately after reading the metadata, 
          * preventing memory leaks and file locks.
          */
-        try (PDDocument doc = PDDocument.load(new File(path))) {
+        try (PDDocument doc = PdfLoader.load(new File(path), MemoryUsageSetting.setupMainMemoryOnly())) {
             return doc.getNumberOfPages();
         } catch (Exception e) {
             // Log or handle extraction errors (e.g., password-protected files)
@@ -0,0 +1,407 @@
+package com.rdchandrahas.shared.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * TempFileManager handles the creation and lifecycle of temporary files used during
+ * PDF processing. It ensures that all intermediate data is stored in a dedicated
+ * directory and automatically cleaned up when the application exits.
+ *
+ * Jobs get their own scope folder inside it (openScope), which is deleted as soon as the
+ * job ends instead of at exit. Big writes ask for room first (createTempFile with an
+ * expected size), so a full disk or an exhausted quota fails the job before it starts
+ * writing rather than halfway through. Every session folder holds a lock file while its
+ * JVM runs; folders whose lock is free belong to a run that crashed and are reaped at
+ * startup and periodically after that.
+ *
+ * The session folder goes to the system temp folder unless fast locations are configured
+ * (setPreferredDirs, e.g. a local SSD); then it goes to the first of them that has room.
+ * There is no default: the free space a tmpfs such as /dev/shm reports is RAM other
+ * processes may need, and the overflow files of large documents exist precisely to take
+ * data out of memory. When the preferred location fills up later, files are created in a
+ * mirror folder in the system temp folder instead.
+ */
+public class TempFileManager {
+
+    private TempFileManager() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    private static final String SESSION_PREFIX = "PDFGear_";
+    private static final String LOCK_FILE = ".session.lock";
+    /** Disk space always left free for the OS and other programs. */
+    private static final long MIN_FREE_BYTES = 256L * 1024L * 1024L;
+    /** Room a preferred location needs to be picked for the session. */
+    private static final long MIN_PREFERRED_ROOM_BYTES = 2L * 1024L * 1024L * 1024L;
+    /** How long the measured usage of the session is reused before the folders are walked again. */
+    private static final long USAGE_REFRESH_MILLIS = 2000;
+    /** A session folder, or its lock file, must be at least this old before it is reaped. */
+    private static final long UNLOCKED_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long REAP_INTERVAL_MINUTES = 15;
+
+    /** The path to the session-specific temporary directory. */
+    private static Path appTempDir;
+    /** The session folder in the system temp location, used when appTempDir is elsewhere and full. */
+    private static Path fallbackTempDir;
+    private static final List<FileChannel> sessionLocks = new ArrayList<>();
+
+    private static long quotaBytes = 0;
+    private static List<Path> preferredDirs = List.of();
+
+    private static long measuredUsage = 0;
+    private static long measuredAt = 0;
+    private static long reservedSinceMeasure = 0;
+
+    private static final Logger LOGGER = Logger.getLogger(TempFileManager.class.getName());
+
+    /**
+     * Limits the bytes all temp files of this process may take together.
+     * * @param bytes The quota, or 0 for no limit other than the free disk space.
+     */
+    public static synchronized void setQuota(long bytes) {
+        quotaBytes = Math.max(0, bytes);
+        LOGGER.log(Level.INFO, "Temp storage quota updated to: {0} bytes", quotaBytes);
+    }
+
+    public static synchronized long getQuota() {
+        return quotaBytes;
+    }
+
+    /**
+     * Sets the fast locations (a local SSD, or a tmpfs if RAM is plentiful) tried before the
+     * system temp folder. Only takes effect if the session folder has not been created yet.
+     * * @param dirs The locations in order of preference; empty uses the system temp folder.
+     */
+    public static synchronized void setPreferredDirs(List<Path> dirs) {
+        preferredDirs = List.copyOf(dirs);
+        LOGGER.log(Level.INFO, "Preferred temp locations updated to: {0}", preferredDirs);
+    }
+
+    public static synchronized List<Path> getPreferredDirs() {
+        return preferredDirs;
+    }
+
+    /**
+     * Retrieves or creates a dedicated temporary directory for the current application run.
+     * Registers a JVM shutdown hook to ensure the directory is deleted upon exit.
+     * * @return The Path to the application's temporary directory.
+     * @throws IOException If the directory cannot be created.
+     */
+    public static synchronized Path getTempDir() throws IOException {
+        if (appTempDir == null) {
+            Path systemTemp = Path.of(System.getProperty("java.io.tmpdir"));
+            Path base = choosePreferredDir();
+            appTempDir = createSessionDir(base != null ? base : systemTemp);
+            LOGGER.log(Level.INFO, "Session temp folder: {0}", appTempDir);
+
+            // Standard practice: Ensure it gets deleted when the JVM shuts down
+            Runtime.getRuntime().addShutdownHook(new Thread(TempFileManager::deleteSession));
+            startReaper();
+        }
+        return appTempDir;
+    }
+
+    /**
+     * Generates a new temporary file within the application's dedicated temp folder.
+     * * @param prefix The starting name of the file (e.g., "merge_").
+     * @param suffix The file extension (e.g., ".pdf").
+     * @return A File object pointing to the newly created temp file.
+     * @throws IOException If the file cannot be created.
+     */
+    public static File createTempFile(String prefix, String suffix) throws IOException {
+        return Files.createTempFile(getTempDir(), prefix, suffix).toFile();
+    }
+
+    /**
+     * Creates a temp file for a big write in the session folder; see createTempFile(Path, String, String, long).
+     */
+    public static File createTempFile(String prefix, String suffix, long expectedBytes) throws IOException {
+        return createTempFile(getTempDir(), prefix, suffix, expectedBytes);
+    }
+
+    /**
+     * Creates a temp file after checking there is room for what will be written to it. If the
+     * folder is on a preferred location without that much room, the file is created in the
+     * folder's mirror in the system temp location instead.
+     * * @param dir The folder, usually the session folder or a scope inside it.
+     * @param expectedBytes About how much will be written, e.g. the size of the inputs.
+     * @throws IOException If the quota would be exceeded or no location has enough free space.
+     */
+    public static File createTempFile(Path dir, String prefix, String suffix, long expectedBytes) throws IOException {
+        reserve(expectedBytes);
+        Path target = dir;
+        if (!hasRoom(dir, expectedBytes)) {
+            target = fallbackFor(dir);
+            if (target == null || !hasRoom(target, expectedBytes)) {
+                throw new IOException("Not enough disk space for temp files in " + dir + ": about "
+                        + (expectedBytes + MIN_FREE_BYTES) / (1024 * 1024) + " MB needed, "
+                        + Files.getFileStore(dir).getUsableSpace() / (1024 * 1024) + " MB free.");
+            }
+        }
+        return Files.createTempFile(target, prefix, suffix).toFile();
+    }
+
+    /**
+     * Checks that a file may grow by the given number of bytes, e.g. before a mapped file is extended.
+     * * @throws IOException If the quota would be exceeded or the disk is nearly full.
+     */
+    public static void ensureRoom(Path file, long bytes) throws IOException {
+        reserve(bytes);
+        Path dir = file.toAbsolutePath().getParent();
+        if (!hasRoom(dir, bytes)) {
+            throw new IOException("Not enough disk space to extend " + file + " by " + bytes / (1024 * 1024) + " MB.");
+        }
+    }
+
+    /**
+     * Opens a temp folder for one job inside the session folder.
+     */
+    public static Scope openScope(String name) throws IOException {
+        return openScope(getTempDir(), name);
+    }
+
+    /**
+     * Opens a temp folder for one job.
+     * * @param parent The folder it is created in, e.g. a job folder of the server.
+     * @param name Identifies the job in the folder name.
+     */
+    public static Scope openScope(Path parent, String name) throws IOException {
+        return new Scope(Files.createTempDirectory(parent, name.replaceAll("[^A-Za-z0-9-]", "_") + "_"));
+    }
+
+    /**
+     * Deletes the session folders of earlier runs that did not exit cleanly.
+     * * @return The number of folders deleted.
+     */
+    public static int reapOrphans() {
+        List<Path> bases = new ArrayList<>();
+        synchronized (TempFileManager.class) {
+            bases.add(Path.of(System.getProperty("java.io.tmpdir")));
+            bases.addAll(preferredDirs);
+        }
+        int reaped = 0;
+        for (Path base : bases) {
+            reaped += reapOrphans(base);
+        }
+        return reaped;
+    }
+
+    /**
+     * Recursively deletes a directory and all its contents.
+     * Uses a reverse-order sort to ensure files are deleted before their parent folders.
+     * * @param path The Path to the directory or file to be removed.
+     */
+    public static void cleanup(Path path) {
+        if (path == null || !Files.exists(path)) return;
+
+        // Traverse the file tree
+        try (Stream<Path> walk = Files.walk(path)) {
+            walk.sorted(Comparator.reverseOrder()) // Ensure children are deleted before parents
+                .map(Path::toFile)
+                .forEach(File::delete);
+        } catch (IOException e) {
+            // Silently log or print error; critical cleanup shouldn't crash the shutdown process
+            LOGGER.log(Level.WARNING, "Could not clean up temp files", e);
+        }
+    }
+
+    /**
+     * The temp folder of one job. Closing it deletes the folder, and its mirror in the
+     * fallback location if files had to go there.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Path dir;
+
+        private Scope(Path dir) {
+            this.dir = dir;
+        }
+
+        public Path getDir() {
+            return dir;
+        }
+
+        @Override
+        public void close() {
+            cleanup(dir);
+            Path mirror = mirrorOf(dir);
+            if (mirror != null) cleanup(mirror);
+        }
+    }
+
+    // --- Session folders ---
+
+
+    // Caller holds the class lock
+    private static Path choosePreferredDir() {
+        long needed = Math.max(MIN_PREFERRED_ROOM_BYTES, quotaBytes);
+        for (Path dir : preferredDirs) {
+            try {
+                if (Files.isDirectory(dir) && Files.isWritable(dir) && Files.getFileStore(dir).getUsableSpace() >= needed) {
+                    return dir;
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Preferred temp location " + dir + " is not usable", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a session folder and holds the lock that tells other runs it is in use.
+     */
+    private static Path createSessionDir(Path base) throws IOException {
+        Path dir = Files.createTempDirectory(base, SESSION_PREFIX);
+        FileChannel lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (lockChannel.tryLock() == null) {
+            lockChannel.close();
+            throw new IOException("Could not lock the temp folder " + dir);
+        }
+        sessionLocks.add(lockChannel);
+        return dir;
+    }
+
+    private static synchronized void deleteSession() {
+        for (FileChannel lockChannel : sessionLocks) {
+            try {
+                lockChannel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Could not release a temp folder lock", e);
+            }
+        }
+        cleanup(appTempDir);
+        cleanup(fallbackTempDir);
+    }
+
+    /**
+     * @return Where files of a folder on the preferred location go when it is full, or null if
+     * the session already lives in the system temp location.
+     */
+    private static synchronized Path fallbackFor(Path dir) throws IOException {
+        Path systemTemp = Path.of(System.getProperty("java.io.tmpdir"));
+        if (appTempDir == null || !dir.startsWith(appTempDir) || appTempDir.startsWith(systemTemp)) {
+            return null;
+        }
+        if (fallbackTempDir == null) {
+            fallbackTempDir = createSessionDir(systemTemp);
+            LOGGER.log(Level.WARNING, "Preferred temp location is full; using {0} as well", fallbackTempDir);
+        }
+        return Files.createDirectories(fallbackTempDir.resolve(appTempDir.relativize(dir)));
+    }
+
+    private static synchronized Path mirrorOf(Path dir) {
+        if (fallbackTempDir == null || appTempDir == null || !dir.startsWith(appTempDir)) return null;
+        return fallbackTempDir.resolve(appTempDir.relativize(dir));
+    }
+
+    // --- Quota and free space ---
+
+    /**
+     * Counts a planned write against the quota.
+     */
+    private static synchronized void reserve(long bytes) throws IOException {
+        if (quotaBytes <= 0 || bytes <= 0) return;
+        long now = System.currentTimeMillis();
+        if (now - measuredAt > USAGE_REFRESH_MILLIS) {
+            measuredUsage = sizeOf(appTempDir) + sizeOf(fallbackTempDir);
+            measuredAt = now;
+            reservedSinceMeasure = 0;
+        }
+        long used = measuredUsage + reservedSinceMeasure;
+        if (used + bytes > quotaBytes) {
+            throw new IOException("Temp storage quota of " + quotaBytes / (1024 * 1024) + " MB exceeded: "
+                    + used / (1024 * 1024) + " MB in use, about " + bytes / (1024 * 1024) + " MB more needed.");
+        }
+        reservedSinceMeasure += bytes;
+    }
+
+    private static boolean hasRoom(Path dir, long bytes) throws IOException {
+        return Files.getFileStore(dir).getUsableSpace() - Math.max(0, bytes) >= MIN_FREE_BYTES;
+    }
+
+    private static long sizeOf(Path dir) {
+        if (dir == null || !Files.exists(dir)) return 0;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            return walk.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (IOException | RuntimeException e) {
+            // Files deleted during the walk; the next measurement catches up
+            LOGGER.log(Level.FINE, "Could not measure the temp folder", e);
+            return 0;
+        }
+    }
+
+    // --- Reaper ---
+
+    private static void startReaper() {
+        ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "temp-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Also catches the folders of worker processes that crash while this session runs
+        reaper.scheduleWithFixedDelay(TempFileManager::reapOrphans, 0, REAP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private static int reapOrphans(Path base) {
+        if (!Files.isDirectory(base)) return 0;
+        int reaped = 0;
+        try (DirectoryStream<Path> sessions = Files.newDirectoryStream(base, SESSION_PREFIX + "*")) {
+            for (Path session : sessions) {
+                if (Files.isDirectory(session) && isOrphan(session)) {
+                    LOGGER.log(Level.INFO, "Removing temp folder left behind by an earlier run: {0}", session);
+                    cleanup(session);
+                    reaped++;
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not scan " + base + " for old temp folders", e);
+        }
+        return reaped;
+    }
+
+    /**
+     * A session folder is an orphan when no running JVM holds its lock. Young folders may
+     * belong to a run that is just creating them and are left alone; folders without a lock
+     * file come from older versions.
+     */
+    private static boolean isOrphan(Path session) {
+        synchronized (TempFileManager.class) {
+            if (session.equals(appTempDir) || session.equals(fallbackTempDir)) return false;
+        }
+        Path lockFile = session.resolve(LOCK_FILE);
+        Path marker = Files.exists(lockFile) ? lockFile : session;
+        if (System.currentTimeMillis() - marker.toFile().lastModified() < UNLOCKED_GRACE_MILLIS) {
+            return false;
+        }
+        if (marker == session) return true;
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) return false;
+            lock.release();
+            return true;
+        } catch (OverlappingFileLockException e) {
+            // Held by this JVM
+            return false;
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not check the lock of " + session, e);
+            return false;
+        }
+    }
+}